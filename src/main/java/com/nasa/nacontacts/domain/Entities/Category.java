@@ -1,11 +1,14 @@
 package com.nasa.nacontacts.domain.Entities;
 
+import com.nasa.nacontacts.domain.utils.CollationKeys;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.UUID;
 
 @Entity
+@DynamicUpdate
 @Table(name = "category")
 @Getter
 @Setter
@@ -18,4 +21,27 @@ public class Category {
     private UUID id;
 
     private String name;
+
+    @Version
+    private Long version;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private final CollationKeys.Cached collation = new CollationKeys.Cached();
+
+    public Category(UUID id, String name) {
+        this(id, name, null);
+    }
+
+    /*
+        Chave de ordenação por nome no locale configurado (V15, CollationKeys).
+    */
+    @Access(AccessType.PROPERTY)
+    @Column(name = "sort_key")
+    public byte[] getSortKey() {
+        return collation.keyOf(name);
+    }
+
+    protected void setSortKey(byte[] sortKey) {
+    }
 }
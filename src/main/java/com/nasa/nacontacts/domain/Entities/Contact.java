@@ -1,11 +1,17 @@
 package com.nasa.nacontacts.domain.Entities;
 
+import com.nasa.nacontacts.domain.utils.CollationKeys;
+import com.nasa.nacontacts.domain.utils.PhoneNumbers;
+import com.nasa.nacontacts.domain.utils.SearchNormalizer;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+@DynamicUpdate
 @EntityListeners(ContactEntityListener.class)
 @Table(name = "contact")
 @Builder
@@ -33,4 +39,117 @@ public class Contact {
     @ManyToOne(cascade = CascadeType.MERGE)
     @JoinColumn(name = "category_id")
     private Category category;
+
+    @Version
+    private Long version;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Instant createdAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final CollationKeys.Cached collation = new CollationKeys.Cached();
+
+    public Contact(UUID id, String name, String email, String phone, String photo, String photoUrl, Category category) {
+        this(id, name, email, phone, photo, photoUrl, category, null, null);
+    }
+
+    /*
+        Mesma coluna da associação category, só para ordenar pelo índice (category_id, name, id).
+    */
+    @Access(AccessType.PROPERTY)
+    @Column(name = "category_id", insertable = false, updatable = false)
+    public UUID getCategoryId() {
+        return category == null ? null : category.getId();
+    }
+
+    protected void setCategoryId(UUID categoryId) {
+    }
+
+    /*
+        Chave de ordenação por nome no locale configurado (V15, CollationKeys).
+    */
+    @Access(AccessType.PROPERTY)
+    @Column(name = "sort_key")
+    public byte[] getSortKey() {
+        return collation.keyOf(name);
+    }
+
+    protected void setSortKey(byte[] sortKey) {
+    }
+
+    /*
+        Inicial do nome no mesmo locale (V16); alimenta o agregado de /contacts/index.
+    */
+    @Access(AccessType.PROPERTY)
+    @Column(name = "name_initial")
+    public String getNameInitial() {
+        return collation.initialOf(name);
+    }
+
+    protected void setNameInitial(String nameInitial) {
+    }
+
+    /*
+        Colunas de busca derivadas (V8): o Hibernate lê estes getters ao gravar, então elas nunca
+        ficam desatualizadas em relação a name, email e phone. Os setters existem só para o JPA.
+    */
+    @Access(AccessType.PROPERTY)
+    @Column(name = "search_name")
+    public String getSearchName() {
+        return SearchNormalizer.normalize(name);
+    }
+
+    protected void setSearchName(String searchName) {
+    }
+
+    @Access(AccessType.PROPERTY)
+    @Column(name = "search_email")
+    public String getSearchEmail() {
+        return SearchNormalizer.normalize(email);
+    }
+
+    protected void setSearchEmail(String searchEmail) {
+    }
+
+    @Access(AccessType.PROPERTY)
+    @Column(name = "search_phone")
+    public String getSearchPhone() {
+        return SearchNormalizer.normalize(phone);
+    }
+
+    protected void setSearchPhone(String searchPhone) {
+    }
+
+    @Access(AccessType.PROPERTY)
+    @Column(name = "email_domain")
+    public String getEmailDomain() {
+        String searchEmail = getSearchEmail();
+
+        return searchEmail == null || searchEmail.indexOf('@') < 0
+                ? null
+                : searchEmail.substring(searchEmail.lastIndexOf('@') + 1);
+    }
+
+    protected void setEmailDomain(String emailDomain) {
+    }
+
+    @Access(AccessType.PROPERTY)
+    @Column(name = "phone_digits")
+    public String getPhoneDigits() {
+        return PhoneNumbers.digitsOf(phone);
+    }
+
+    protected void setPhoneDigits(String phoneDigits) {
+    }
+
+    @Access(AccessType.PROPERTY)
+    @Column(name = "phone_digits_rev")
+    public String getPhoneDigitsReversed() {
+        return PhoneNumbers.reversedDigitsOf(phone);
+    }
+
+    protected void setPhoneDigitsReversed(String phoneDigitsReversed) {
+    }
 }
@@ -1,19 +1,15 @@
 package com.nasa.nacontacts.domain.Entities;
 
-import com.nasa.nacontacts.domain.config.StorageProperties;
+import com.nasa.nacontacts.domain.services.PhotoUrlResolver;
 import jakarta.persistence.PostLoad;
 import jakarta.persistence.PostPersist;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 public class ContactEntityListener {
 
-    private final String cdnUrl;
+    private final PhotoUrlResolver photoUrlResolver;
 
-    private final StorageProperties.StorageType storageType;
-
-    public ContactEntityListener(StorageProperties storageProperties) {
-        this.cdnUrl = storageProperties.getCdnUrl();
-        this.storageType = storageProperties.getType();
+    public ContactEntityListener(PhotoUrlResolver photoUrlResolver) {
+        this.photoUrlResolver = photoUrlResolver;
     }
 
 
@@ -24,17 +20,6 @@ public class ContactEntityListener {
             return;
         }
 
-        String photoUrl = switch (storageType) {
-            case Local:
-                yield ServletUriComponentsBuilder
-                        .fromCurrentContextPath()
-                        .path("contacts/image/")
-                        .path(contact.getPhoto())
-                        .toUriString();
-            case S3:
-                yield cdnUrl + contact.getPhoto();
-        };
-
-        contact.setPhotoUrl(photoUrl);
+        contact.setPhotoUrl(photoUrlResolver.resolve(contact.getPhoto()));
     }
 }
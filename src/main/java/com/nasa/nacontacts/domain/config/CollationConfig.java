@@ -0,0 +1,38 @@
+package com.nasa.nacontacts.domain.config;
+
+import com.nasa.nacontacts.domain.utils.CollationKeys;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AbstractDependsOnBeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+@Configuration
+public class CollationConfig {
+
+    @Bean
+    public Locale collationLocale(@Value("${contacts.collation.locale:pt-BR}") String languageTag) {
+        Locale locale = Locale.forLanguageTag(languageTag);
+        CollationKeys.configure(locale);
+
+        return locale;
+    }
+
+    /*
+        O R__Compute_sort_keys usa CollationKeys no checksum e nas chaves: o Flyway (e com ele as migrações)
+        só é criado depois do collationLocale.
+    */
+    @Bean
+    public static FlywayDependsOnCollationLocale flywayDependsOnCollationLocale() {
+        return new FlywayDependsOnCollationLocale();
+    }
+
+    static class FlywayDependsOnCollationLocale extends AbstractDependsOnBeanFactoryPostProcessor {
+
+        FlywayDependsOnCollationLocale() {
+            super(Flyway.class, "collationLocale");
+        }
+    }
+}
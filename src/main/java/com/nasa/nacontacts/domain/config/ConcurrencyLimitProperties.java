@@ -0,0 +1,40 @@
+package com.nasa.nacontacts.domain.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "limits")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private double lowPriorityShare = 0.75;
+
+    private long retryAfterSeconds = 1;
+
+    private Limit read = new Limit(50, 10, 400);
+    private Limit write = new Limit(20, 5, 100);
+    private Limit image = new Limit(20, 5, 200);
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int initial;
+        private int min;
+        private int max;
+
+        public Limit() {
+        }
+
+        public Limit(int initial, int min, int max) {
+            this.initial = initial;
+            this.min = min;
+            this.max = max;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.nasa.nacontacts.domain.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DeadlineConfig {
+
+    /* query_canceled: statement_timeout (ou cancelamento) do Postgres. */
+    private static final String QUERY_CANCELED = "57014";
+
+    /*
+        Envolve o pool do Hikari; ContactRepository e CategoryRepository passam a respeitar o prazo da requisição.
+    */
+    @Bean
+    public static BeanPostProcessor deadlineDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if(bean instanceof DataSource dataSource && !(bean instanceof DeadlineDataSource)) {
+                    return new DeadlineDataSource(dataSource);
+                }
+
+                return bean;
+            }
+        };
+    }
+
+    /*
+        O Hibernate já traduz 57014 para timeout; no JdbcTemplate (e no NamedParameterJdbcTemplate que o envolve)
+        o tradutor padrão o trata como falha de recurso, e a resposta seria 500 em vez de 504.
+    */
+    @Bean
+    public static BeanPostProcessor queryCanceledTranslatorPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if(bean instanceof JdbcTemplate jdbcTemplate) {
+                    SQLExceptionTranslator fallback = jdbcTemplate.getExceptionTranslator();
+
+                    jdbcTemplate.setExceptionTranslator((task, sql, e) -> QUERY_CANCELED.equals(e.getSQLState())
+                            ? new QueryTimeoutException(task + "; " + e.getMessage(), e)
+                            : fallback.translate(task, sql, e));
+                }
+
+                return bean;
+            }
+        };
+    }
+}
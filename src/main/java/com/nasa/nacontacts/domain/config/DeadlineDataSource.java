@@ -0,0 +1,129 @@
+package com.nasa.nacontacts.domain.config;
+
+import com.nasa.nacontacts.domain.utils.Deadline;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+
+/*
+    Conexões obtidas durante uma requisição com prazo recebem statement_timeout igual ao tempo restante,
+    e o Postgres cancela a query quando o prazo passa. statement_timeout vale por statement, a partir do início
+    de cada um: antes de cada statement o prazo é conferido e o timeout refeito com o que sobrou, senão a última
+    query de uma sequência ainda teria o timeout inteiro calculado no checkout.
+    Sem prazo (Flyway, jobs, listener) a conexão é devolvida sem proxy.
+*/
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    public DeadlineDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withDeadline(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withDeadline(super.getConnection(username, password));
+    }
+
+    private Connection withDeadline(Connection connection) throws SQLException {
+        Optional<Deadline> current = Deadline.current();
+
+        if(current.isEmpty()) {
+            return connection;
+        }
+
+        DeadlineConnection handler = new DeadlineConnection(connection, current.get());
+
+        try {
+            handler.refreshTimeout();
+        } catch (RuntimeException | SQLException e) {
+            connection.close();
+            throw e;
+        }
+
+        return (Connection) Proxy.newProxyInstance(
+                DeadlineDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                handler
+        );
+    }
+
+    private static final class DeadlineConnection implements InvocationHandler {
+
+        /* Quanto o timeout em vigor pode passar do prazo antes de valer um SET a mais (um round trip). */
+        private static final long SLACK_MILLIS = 10;
+
+        private final Connection connection;
+
+        private final Deadline deadline;
+
+        private long timeoutMillis = -1;
+
+        private DeadlineConnection(Connection connection, Deadline deadline) {
+            this.connection = connection;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "createStatement", "prepareStatement", "prepareCall" -> refreshTimeout();
+                /* Um SET dentro da transação desfeita volta ao valor anterior: o próximo statement refaz. */
+                case "rollback" -> timeoutMillis = -1;
+                case "close" -> {
+                    if(!connection.isClosed()) {
+                        try {
+                            execute(connection, "RESET statement_timeout");
+                        } finally {
+                            connection.close();
+                        }
+                    }
+
+                    return null;
+                }
+                default -> {
+                }
+            }
+
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        private void refreshTimeout() throws SQLException {
+            deadline.check();
+
+            long remaining = Math.max(1, deadline.remainingMillis());
+
+            if(timeoutMillis < 0 || timeoutMillis - remaining > SLACK_MILLIS) {
+                execute(connection, "SET statement_timeout = " + remaining);
+                timeoutMillis = remaining;
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.nasa.nacontacts.domain.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "deadlines")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+
+    /*
+        Teto para o prazo pedido pelo cliente.
+    */
+    private Duration maxTimeout = Duration.ofSeconds(60);
+
+    /*
+        Prazos padrão por endpoint; vale a primeira regra que casar com o método e o path.
+    */
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+        private String method;
+        private String path;
+        private Duration timeout;
+    }
+}
@@ -1,5 +1,6 @@
 package com.nasa.nacontacts.domain.config;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
@@ -26,6 +27,15 @@ public class S3ClientConfig {
 
     private String region;
 
+    private int maxConnections = 50;
+
+    /* Threads do TransferManager, que sobem as partes dos uploads multipart. */
+    private int transferThreads = 10;
+
+    /*
+        O pool do Apache HttpClient espera por conexão com ReentrantLock, então com threads virtuais
+        o excesso de uploads aguarda sem prender carrier threads; o limite só protege o S3 e o nó.
+    */
     @Bean
     public AmazonS3 s3Client() {
 
@@ -37,6 +47,7 @@ public class S3ClientConfig {
         return AmazonS3ClientBuilder.standard()
                 .withRegion(region)
                 .withCredentials(new AWSStaticCredentialsProvider(credentials))
+                .withClientConfiguration(new ClientConfiguration().withMaxConnections(maxConnections))
                 .build();
 
     }
@@ -1,10 +1,23 @@
 package com.nasa.nacontacts.domain.config;
 
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+import com.nasa.nacontacts.domain.services.AsyncStorageService;
+import com.nasa.nacontacts.domain.services.BulkheadStorageService;
+import com.nasa.nacontacts.domain.services.ExecutorAsyncStorageService;
 import com.nasa.nacontacts.domain.services.LocalStorageService;
+import com.nasa.nacontacts.domain.services.S3AsyncStorageService;
 import com.nasa.nacontacts.domain.services.S3StorageService;
 import com.nasa.nacontacts.domain.services.StorageService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class StorageConfig {
@@ -21,4 +34,57 @@ public class StorageConfig {
         };
 
     }
+
+    /*
+        Fila limitada: acima dela as chamadas falham rápido em vez de acumular uploads na memória.
+    */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor storageExecutor(StorageProperties storageProperties) {
+        StorageProperties.Async async = storageProperties.getAsync();
+
+        return new ThreadPoolExecutor(
+                async.getThreads(),
+                async.getThreads(),
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(async.getQueueCapacity()),
+                new CustomizableThreadFactory("storage-")
+        );
+    }
+
+    /*
+        As partes do multipart têm pool próprio: no storageExecutor elas entrariam na fila atrás dos uploads
+        que esperam por elas, e com todas as threads ocupadas por uploads grandes nenhum terminaria.
+        A fila não tem limite porque quem chega aqui já passou pelo bulkhead e pela fila do storageExecutor.
+    */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService s3TransferExecutor(S3ClientConfig s3ClientConfig) {
+        return Executors.newFixedThreadPool(
+                s3ClientConfig.getTransferThreads(),
+                new CustomizableThreadFactory("s3-transfer-")
+        );
+    }
+
+    @Bean
+    public AsyncStorageService asyncStorageService(StorageService storageService,
+                                                   StorageProperties storageProperties,
+                                                   S3ClientConfig s3ClientConfig,
+                                                   ThreadPoolExecutor storageExecutor,
+                                                   ExecutorService s3TransferExecutor
+    ) {
+        AsyncStorageService backend = switch (storageProperties.getType()) {
+            case S3:
+                TransferManager transferManager = TransferManagerBuilder.standard()
+                        .withS3Client(s3ClientConfig.s3Client())
+                        .withExecutorFactory(() -> s3TransferExecutor)
+                        .withShutDownThreadPools(false)
+                        .build();
+
+                yield new S3AsyncStorageService(s3ClientConfig.s3Client(), transferManager, storageExecutor, storageProperties);
+            case Local:
+                yield new ExecutorAsyncStorageService(storageService, storageExecutor);
+        };
+
+        return new BulkheadStorageService(backend, storageExecutor, storageProperties.getBulkhead());
+    }
 }
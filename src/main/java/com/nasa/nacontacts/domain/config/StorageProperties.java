@@ -12,6 +12,7 @@ import org.springframework.context.annotation.Configuration;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 @Getter
 @Setter
@@ -23,6 +24,8 @@ public class StorageProperties {
 
     private Local local = new Local();
     private S3 s3 = new S3();
+    private Async async = new Async();
+    private Bulkhead bulkhead = new Bulkhead();
 
     @Getter(AccessLevel.NONE)
     private String TempDir;
@@ -60,6 +63,23 @@ public class StorageProperties {
         private String secretKey;
     }
 
+    @Getter
+    @Setter
+    public class Async {
+        private int threads = 16;
+        private int queueCapacity = 256;
+    }
+
+    @Getter
+    @Setter
+    public class Bulkhead {
+        private int maxConcurrentCalls = 32;
+        private Duration saveTimeout = Duration.ofSeconds(15);
+        private Duration deleteTimeout = Duration.ofSeconds(5);
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+
     @Getter
     @Setter
     private class Local {
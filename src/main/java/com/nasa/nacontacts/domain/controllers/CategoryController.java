@@ -1,11 +1,15 @@
 package com.nasa.nacontacts.domain.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.nasa.nacontacts.domain.Entities.Category;
+import com.nasa.nacontacts.domain.converters.DtoProtobufHttpMessageConverter;
 import com.nasa.nacontacts.domain.dtos.CategoryDTO;
 import com.nasa.nacontacts.domain.dtos.ListCategoryDTO;
 import com.nasa.nacontacts.domain.dtos.request.CreateCategoryRequest;
 import com.nasa.nacontacts.domain.dtos.request.UpdateCategoryRequest;
 import com.nasa.nacontacts.domain.services.CategoryService;
+import com.nasa.nacontacts.domain.utils.ETags;
+import com.nasa.nacontacts.domain.utils.JsonMergePatch;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -16,10 +20,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -49,7 +55,15 @@ public class CategoryController {
                     responseCode = "200",
                     content = { @Content(
                             schema = @Schema(implementation = ListCategoryDTO.class),
-                            mediaType = MediaType.APPLICATION_JSON_VALUE)}
+                            mediaType = MediaType.APPLICATION_JSON_VALUE),
+                    @Content(
+                            schema = @Schema(implementation = ListCategoryDTO.class),
+                            mediaType = MediaType.APPLICATION_CBOR_VALUE
+                    ),
+                    @Content(
+                            schema = @Schema(implementation = ListCategoryDTO.class),
+                            mediaType = DtoProtobufHttpMessageConverter.APPLICATION_PROTOBUF_VALUE
+                    )}
             ),
             @ApiResponse(responseCode = "400", content = @Content),
             @ApiResponse(responseCode = "404", content = @Content),
@@ -67,13 +81,16 @@ public class CategoryController {
                 ? Sort.Direction.DESC
                 : Sort.Direction.ASC;
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "name"));
+        /* A busca é uma query nativa: a ordenação usa os nomes das colunas (índice sort_key, id). */
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "sort_key", "id"));
 
         Page<Category> categories = categoryService.list(pageable, search);
 
         ListCategoryDTO categoriesDTO = ListCategoryDTO.from(categories);
 
-        return ResponseEntity.ok().body(categoriesDTO);
+        String eTag = ETags.ofPage(categories, c -> c.getId() + ":" + c.getVersion());
+
+        return ResponseEntity.ok().eTag(eTag).body(categoriesDTO);
     }
 
     @Operation(
@@ -86,6 +103,14 @@ public class CategoryController {
                     content = {@Content(
                             schema = @Schema(implementation = CategoryDTO.class),
                             mediaType = MediaType.APPLICATION_JSON_VALUE
+                    ),
+                    @Content(
+                            schema = @Schema(implementation = CategoryDTO.class),
+                            mediaType = MediaType.APPLICATION_CBOR_VALUE
+                    ),
+                    @Content(
+                            schema = @Schema(implementation = CategoryDTO.class),
+                            mediaType = DtoProtobufHttpMessageConverter.APPLICATION_PROTOBUF_VALUE
                     )}
             ),
             @ApiResponse(responseCode = "400", content = @Content),
@@ -93,10 +118,15 @@ public class CategoryController {
             @ApiResponse(responseCode = "500", content = @Content)
     })
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDTO> show(@PathVariable UUID id) {
+    public ResponseEntity<CategoryDTO> show(@PathVariable UUID id, WebRequest webRequest) {
+        if(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(categoryService.findETag(id))) {
+            return null;
+        }
+
         Category category = categoryService.findById(id);
 
-        return ResponseEntity.ok().body(CategoryDTO.from(category));
+        return ResponseEntity.ok().eTag(ETags.of(category.getVersion())).body(CategoryDTO.from(category));
     }
 
     @Operation(
@@ -135,13 +165,37 @@ public class CategoryController {
             @ApiResponse(responseCode = "204", content = @Content),
             @ApiResponse(responseCode = "400", content = @Content),
             @ApiResponse(responseCode = "404", content = @Content),
+            @ApiResponse(responseCode = "412", content = @Content),
             @ApiResponse(responseCode = "500", content = @Content),
     })
     @PutMapping("/{id}")
     public ResponseEntity<Void> update(@PathVariable UUID id,
-                                              @RequestBody @Validated UpdateCategoryRequest request) {
+                                              @RequestBody @Validated UpdateCategoryRequest request,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+       categoryService.update(id, request, ETags.parseVersions(ifMatch));
+
+        return ResponseEntity.noContent().build();
+    }
 
-       categoryService.update(id, request);
+    @Operation(
+            summary = "Partially update a Category by id",
+            description = "Update only the given fields (name) using a JSON Merge Patch document. " +
+                    "Nothing is written when the patch does not change the Category"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", content = @Content),
+            @ApiResponse(responseCode = "400", content = @Content),
+            @ApiResponse(responseCode = "404", content = @Content),
+            @ApiResponse(responseCode = "412", content = @Content),
+            @ApiResponse(responseCode = "500", content = @Content),
+    })
+    @PatchMapping(value = "/{id}", consumes = {JsonMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patch(@PathVariable UUID id,
+                                      @RequestBody JsonNode patch,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        categoryService.patch(id, patch, ETags.parseVersions(ifMatch));
 
         return ResponseEntity.noContent().build();
     }
@@ -154,11 +208,12 @@ public class CategoryController {
             @ApiResponse(responseCode = "204", content = @Content),
             @ApiResponse(responseCode = "400", content = @Content),
             @ApiResponse(responseCode = "404", content = @Content),
+            @ApiResponse(responseCode = "412", content = @Content),
             @ApiResponse(responseCode = "500", content = @Content),
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable UUID id) {
-        categoryService.delete(id);
+    public ResponseEntity<Void> delete(@PathVariable UUID id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        categoryService.delete(id, ETags.parseVersions(ifMatch));
 
         return ResponseEntity.noContent().build();
     }
@@ -1,13 +1,32 @@
 package com.nasa.nacontacts.domain.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.nasa.nacontacts.domain.Entities.Contact;
+import com.nasa.nacontacts.domain.converters.DtoProtobufHttpMessageConverter;
+import com.nasa.nacontacts.domain.dtos.BatchContactDTO;
+import com.nasa.nacontacts.domain.dtos.ContactChangesDTO;
 import com.nasa.nacontacts.domain.dtos.ContactDTO;
+import com.nasa.nacontacts.domain.dtos.ContactIndexDTO;
+import com.nasa.nacontacts.domain.dtos.ContactLookupDTO;
+import com.nasa.nacontacts.domain.dtos.ContactSuggestionDTO;
 import com.nasa.nacontacts.domain.dtos.ListContactDTO;
+import com.nasa.nacontacts.domain.dtos.ListPartialContactDTO;
+import com.nasa.nacontacts.domain.dtos.request.BatchGetContactRequest;
 import com.nasa.nacontacts.domain.dtos.request.CreateContactRequest;
 import com.nasa.nacontacts.domain.dtos.request.UpdateContactRequest;
+import com.nasa.nacontacts.domain.exceptions.InvalidFieldException;
+import com.nasa.nacontacts.domain.repositories.ContactFilter;
+import com.nasa.nacontacts.domain.repositories.ContactProjection;
+import com.nasa.nacontacts.domain.repositories.ContactRepositoryCustom;
+import com.nasa.nacontacts.domain.repositories.ContactSort;
+import com.nasa.nacontacts.domain.services.ChangeStreamService;
 import com.nasa.nacontacts.domain.services.ContactService;
 import com.nasa.nacontacts.domain.services.StorageService;
+import com.nasa.nacontacts.domain.utils.ChangeTokens;
+import com.nasa.nacontacts.domain.utils.ETags;
+import com.nasa.nacontacts.domain.utils.JsonMergePatch;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -23,9 +42,13 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 
@@ -34,17 +57,25 @@ import java.util.UUID;
 @RequestMapping("/contacts")
 public class ContactController {
 
+    private static final int MAX_CHANGES = 1000;
+
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final ContactService contactService;
 
     private final StorageService storageService;
 
+    private final ChangeStreamService changeStreamService;
+
 
     public ContactController(
             ContactService contactService,
-            StorageService storageService
+            StorageService storageService,
+            ChangeStreamService changeStreamService
     ) {
         this.contactService = contactService;
         this.storageService = storageService;
+        this.changeStreamService = changeStreamService;
     }
 
     @Operation(summary = "Retrieve an Image Contact", description = "Get an image contact by name in JPEG and PNG format")
@@ -84,13 +115,27 @@ public class ContactController {
                 .body(recoveredFile.getResource());
     }
 
-    @Operation(summary = "Retrieve all Contact", description = "Get a Contacts array")
+    @Operation(
+            summary = "Retrieve all Contact",
+            description = "Get a Contacts array. Use fields (e.g. id,name,photoUrl) to return only the given fields. " +
+                    "Filter by category_id, hasPhoto, emailDomain (e.g. nasa.gov) and namePrefix; " +
+                    "all given filters must match. Sort with sort=field[:asc|desc],... using one of name; name,email; " +
+                    "email; category,name; createdAt (all fields in the same direction); orderBy applies to the default name sort"
+    )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
                     content = { @Content(
                             schema = @Schema( implementation = ListContactDTO.class),
                             mediaType = MediaType.APPLICATION_JSON_VALUE
+                    ),
+                    @Content(
+                            schema = @Schema(implementation = ListContactDTO.class),
+                            mediaType = MediaType.APPLICATION_CBOR_VALUE
+                    ),
+                    @Content(
+                            schema = @Schema(implementation = ListContactDTO.class),
+                            mediaType = DtoProtobufHttpMessageConverter.APPLICATION_PROTOBUF_VALUE
                     )}
             ),
             @ApiResponse(responseCode = "400", content = @Content),
@@ -98,28 +143,47 @@ public class ContactController {
             @ApiResponse(responseCode = "500", content = @Content),
     })
     @GetMapping
-    public ResponseEntity<ListContactDTO> list(
+    public ResponseEntity<?> list(
             @RequestParam(name = "page", defaultValue = "0") Integer page,
             @RequestParam(name = "size", defaultValue = "10") Integer size,
             @RequestParam(name = "orderBy", defaultValue = "asc") String orderBy,
-            @RequestParam(required = false) String search
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String fields,
+            @RequestParam(name = "category_id", required = false) UUID categoryId,
+            @RequestParam(required = false) Boolean hasPhoto,
+            @RequestParam(required = false) String emailDomain,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) String sort
     ) {
         Sort.Direction direction = "desc".equalsIgnoreCase(orderBy)
                 ? Sort.Direction.DESC
                 : Sort.Direction.ASC;
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, "name"));
+        Pageable pageable = PageRequest.of(page, size, sort != null ? ContactSort.parse(sort) : ContactSort.byName(direction));
 
-        Page<Contact> contacts = contactService.list(pageable, search);
+        ContactFilter filter = new ContactFilter(categoryId, hasPhoto, emailDomain, namePrefix, search);
+
+        if(fields != null) {
+            ContactProjection projection = ContactProjection.of(fields);
+
+            Page<Map<String, Object>> contacts = contactService.list(pageable, filter, projection);
+
+            return ResponseEntity.ok().body(ListPartialContactDTO.from(contacts));
+        }
+
+        Page<Contact> contacts = contactService.list(pageable, filter);
 
         ListContactDTO contactsDTO = ListContactDTO.from(contacts);
 
-        return ResponseEntity.ok().body(contactsDTO);
+        String eTag = ETags.ofPage(contacts, c -> c.getId() + ":" + versionTagOf(c));
+
+        return ResponseEntity.ok().eTag(eTag).body(contactsDTO);
     }
 
     @Operation(
             summary = "Retrieve a Contact by id",
-            description = "Get a Contact by id. The response is object of the ContactDTO schema type"
+            description = "Get a Contact by id. The response is object of the ContactDTO schema type. " +
+                    "Use fields (e.g. id,name,photoUrl) to return only the given fields"
     )
     @ApiResponses({
             @ApiResponse(
@@ -127,6 +191,14 @@ public class ContactController {
                     content = {@Content(
                             schema = @Schema(implementation =  ContactDTO.class),
                             mediaType = MediaType.APPLICATION_JSON_VALUE
+                    ),
+                    @Content(
+                            schema = @Schema(implementation = ContactDTO.class),
+                            mediaType = MediaType.APPLICATION_CBOR_VALUE
+                    ),
+                    @Content(
+                            schema = @Schema(implementation = ContactDTO.class),
+                            mediaType = DtoProtobufHttpMessageConverter.APPLICATION_PROTOBUF_VALUE
                     )}
             ),
             @ApiResponse(responseCode = "400", content = @Content),
@@ -134,10 +206,195 @@ public class ContactController {
             @ApiResponse(responseCode = "500", content = @Content),
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ContactDTO> show(@PathVariable UUID id) {
+    public ResponseEntity<?> show(@PathVariable UUID id,
+                                  @RequestParam(required = false) String fields,
+                                  WebRequest webRequest
+    ) {
+        if(fields != null) {
+            ContactProjection projection = ContactProjection.of(fields);
+            String eTag = contactService.findETag(id, projection);
+
+            if(webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+
+            return ResponseEntity.ok().eTag(eTag).body(contactService.findById(id, projection));
+        }
+
+        if(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(contactService.findETag(id, null))) {
+            return null;
+        }
+
         Contact contact = contactService.findById(id);
 
-        return ResponseEntity.ok().body(ContactDTO.from(contact));
+        return ResponseEntity.ok().eTag(versionTagOf(contact)).body(ContactDTO.from(contact));
+    }
+
+    @Operation(
+            summary = "Suggest Contacts by prefix",
+            description = "Type-ahead lookup: Contacts whose name, any surname or email starts with q, " +
+                    "ignoring accents and case"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    content = {@Content(
+                            array = @ArraySchema(schema = @Schema(implementation = ContactSuggestionDTO.class)),
+                            mediaType = MediaType.APPLICATION_JSON_VALUE
+                    )}
+            ),
+            @ApiResponse(responseCode = "400", content = @Content),
+            @ApiResponse(responseCode = "500", content = @Content),
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ContactSuggestionDTO>> suggest(
+            @RequestParam String q,
+            @RequestParam(value = "limit", defaultValue = "10") Integer limit
+    ) {
+        if(limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidFieldException("limit", "The limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+
+        return ResponseEntity.ok().body(contactService.suggest(q, limit));
+    }
+
+    @Operation(
+            summary = "Look up a Contact by phone number",
+            description = "Caller ID: the id and name of the Contact with the given phone number, " +
+                    "in any format (it is converted to E.164 before the lookup)"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    content = {@Content(
+                            schema = @Schema(implementation = ContactLookupDTO.class),
+                            mediaType = MediaType.APPLICATION_JSON_VALUE
+                    )}
+            ),
+            @ApiResponse(responseCode = "400", content = @Content),
+            @ApiResponse(responseCode = "404", content = @Content),
+            @ApiResponse(responseCode = "500", content = @Content),
+    })
+    @GetMapping("/lookup")
+    public ResponseEntity<ContactLookupDTO> lookup(@RequestParam String phone) {
+        return contactService.lookup(phone)
+                .map(contact -> ResponseEntity.ok().body(contact))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+            summary = "Alphabet index of the Contact list",
+            description = "For each leading letter of the name (accents and case folded, # for digits and symbols): " +
+                    "how many Contacts start with it and the offset and page of the first one in GET /contacts " +
+                    "sorted by name with the same search, category_id, hasPhoto, emailDomain, namePrefix, " +
+                    "orderBy and size"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    content = {@Content(
+                            schema = @Schema(implementation = ContactIndexDTO.class),
+                            mediaType = MediaType.APPLICATION_JSON_VALUE
+                    )}
+            ),
+            @ApiResponse(responseCode = "400", content = @Content),
+            @ApiResponse(responseCode = "500", content = @Content),
+    })
+    @GetMapping("/index")
+    public ResponseEntity<ContactIndexDTO> index(
+            @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "orderBy", defaultValue = "asc") String orderBy,
+            @RequestParam(required = false) String search,
+            @RequestParam(name = "category_id", required = false) UUID categoryId,
+            @RequestParam(required = false) Boolean hasPhoto,
+            @RequestParam(required = false) String emailDomain,
+            @RequestParam(required = false) String namePrefix
+    ) {
+        if(size < 1) {
+            throw new InvalidFieldException("size", "The size must be greater than 0");
+        }
+
+        Sort.Direction direction = "desc".equalsIgnoreCase(orderBy)
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+
+        ContactFilter filter = new ContactFilter(categoryId, hasPhoto, emailDomain, namePrefix, search);
+
+        return ResponseEntity.ok().body(ContactIndexDTO.from(contactService.countByInitial(filter), direction, size));
+    }
+
+    @Operation(
+            summary = "Retrieve Contact changes since a sync token",
+            description = "Get the Contacts created, updated or deleted after the given token. " +
+                    "Omit since for the first sync and pass nextToken on the next call; " +
+                    "when hasMore is true, call again right away with nextToken. " +
+                    "410 means the token is too old: sync again from scratch without since"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    content = {@Content(
+                            schema = @Schema(implementation = ContactChangesDTO.class),
+                            mediaType = MediaType.APPLICATION_JSON_VALUE
+                    )}
+            ),
+            @ApiResponse(responseCode = "400", content = @Content),
+            @ApiResponse(responseCode = "410", content = @Content),
+            @ApiResponse(responseCode = "500", content = @Content),
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<ContactChangesDTO> changes(
+            @RequestParam(required = false) String since,
+            @RequestParam(value = "limit", defaultValue = "500") Integer limit
+    ) {
+        if(limit < 1 || limit > MAX_CHANGES) {
+            throw new InvalidFieldException("limit", "The limit must be between 1 and " + MAX_CHANGES);
+        }
+
+        ChangeTokens.Position position = ChangeTokens.decode(since);
+
+        ContactRepositoryCustom.ChangePage changes = contactService.findChangesSince(position, limit);
+
+        return ResponseEntity.ok().body(ContactChangesDTO.from(changes, position, limit));
+    }
+
+    @Operation(
+            summary = "Stream Contact and Category changes",
+            description = "Server-Sent Events stream with one event per committed create, update or delete. " +
+                    "Event names are contact.created, contact.updated, contact.deleted and the category equivalents. " +
+                    "Slow subscribers are disconnected and should catch up with /contacts/changes before reconnecting"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+            @ApiResponse(responseCode = "500", content = @Content),
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return changeStreamService.subscribe();
+    }
+
+    @Operation(
+            summary = "Retrieve many Contacts by id",
+            description = "Get up to " + BatchGetContactRequest.MAX_IDS + " Contacts in a single request. " +
+                    "Contacts are returned in the requested order and ids that were not found are listed in missingIds"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    content = {@Content(
+                            schema = @Schema(implementation = BatchContactDTO.class),
+                            mediaType = MediaType.APPLICATION_JSON_VALUE
+                    )}
+            ),
+            @ApiResponse(responseCode = "400", content = @Content),
+            @ApiResponse(responseCode = "500", content = @Content),
+    })
+    @PostMapping("/batch-get")
+    public ResponseEntity<BatchContactDTO> batchGet(@RequestBody @Validated BatchGetContactRequest request) {
+        List<Contact> contacts = contactService.findAllById(request.ids());
+
+        return ResponseEntity.ok().body(BatchContactDTO.from(request.ids(), contacts));
     }
 
     @Operation(
@@ -158,7 +415,7 @@ public class ContactController {
             @ApiResponse(responseCode = "500", content = @Content),
     })
     @PostMapping(consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
-    public ResponseEntity<Object> create(@ModelAttribute @Validated CreateContactRequest request) {
+    public ResponseEntity<ContactDTO> create(@ModelAttribute @Validated CreateContactRequest request) {
         Contact newContact = contactService.create(request);
 
         URI uri = ServletUriComponentsBuilder
@@ -166,7 +423,7 @@ public class ContactController {
                 .buildAndExpand(newContact.getId()).toUri();
 
 
-        return ResponseEntity.created(uri).body(newContact);
+        return ResponseEntity.created(uri).body(ContactDTO.from(newContact));
     }
 
     @Operation(summary = "Update a Contact by id",
@@ -177,14 +434,37 @@ public class ContactController {
             @ApiResponse(responseCode = "204", content = @Content),
             @ApiResponse(responseCode = "400", content = @Content),
             @ApiResponse(responseCode = "404", content = @Content),
+            @ApiResponse(responseCode = "412", content = @Content),
             @ApiResponse(responseCode = "500", content = @Content),
     })
     @PutMapping(value = "/{id}", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
     public  ResponseEntity<Void> update(@PathVariable UUID id,
-                                        @ModelAttribute @Validated UpdateContactRequest request
+                                        @ModelAttribute @Validated UpdateContactRequest request,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        contactService.update(id, request, ETags.parseVersions(ifMatch));
 
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+            summary = "Partially update a Contact by id",
+            description = "Update only the given fields (name, email, phone and category_id) using a JSON Merge Patch document. " +
+                    "Nothing is written when the patch does not change the Contact"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", content = @Content),
+            @ApiResponse(responseCode = "400", content = @Content),
+            @ApiResponse(responseCode = "404", content = @Content),
+            @ApiResponse(responseCode = "412", content = @Content),
+            @ApiResponse(responseCode = "500", content = @Content),
+    })
+    @PatchMapping(value = "/{id}", consumes = {JsonMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patch(@PathVariable UUID id,
+                                      @RequestBody JsonNode patch,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        contactService.update(id, request);
+        contactService.patch(id, patch, ETags.parseVersions(ifMatch));
 
         return ResponseEntity.noContent().build();
     }
@@ -194,12 +474,19 @@ public class ContactController {
             @ApiResponse(responseCode = "204", content = @Content),
             @ApiResponse(responseCode = "400", content = @Content),
             @ApiResponse(responseCode = "404", content = @Content),
+            @ApiResponse(responseCode = "412", content = @Content),
             @ApiResponse(responseCode = "500", content = @Content),
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable UUID id) {
-        contactService.delete(id);
+    public ResponseEntity<Void> delete(@PathVariable UUID id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        contactService.delete(id, ETags.parseVersions(ifMatch));
 
         return ResponseEntity.noContent().build();
     }
+
+    private static String versionTagOf(Contact contact) {
+        Long categoryVersion = contact.getCategory() != null ? contact.getCategory().getVersion() : null;
+
+        return ETags.of(contact.getVersion(), categoryVersion);
+    }
 };
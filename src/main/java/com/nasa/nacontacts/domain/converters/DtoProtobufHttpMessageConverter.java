@@ -0,0 +1,127 @@
+package com.nasa.nacontacts.domain.converters;
+
+import com.nasa.nacontacts.domain.dtos.CategoryDTO;
+import com.nasa.nacontacts.domain.dtos.ContactDTO;
+import com.nasa.nacontacts.domain.dtos.ListCategoryDTO;
+import com.nasa.nacontacts.domain.dtos.ListContactDTO;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.nasa.nacontacts.domain.converters.ProtobufWriter.*;
+
+/*
+    Serializa os DTOs no formato descrito em static/nacontacts.proto,
+    escrevendo direto no stream da resposta.
+*/
+public class DtoProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.valueOf(APPLICATION_PROTOBUF_VALUE);
+
+    private static final Set<Class<?>> SUPPORTED_TYPES = Set.of(
+            ContactDTO.class,
+            CategoryDTO.class,
+            ListContactDTO.class,
+            ListCategoryDTO.class
+    );
+
+    public DtoProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return SUPPORTED_TYPES.contains(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @NonNull
+    protected Object readInternal(@NonNull Class<?> clazz, @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading protobuf messages is not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object dto, @NonNull HttpOutputMessage outputMessage) throws IOException {
+        ProtobufWriter writer = new ProtobufWriter(outputMessage.getBody());
+
+        if(dto instanceof ContactDTO contact) {
+            writeContact(writer, contact);
+        } else if(dto instanceof CategoryDTO category) {
+            writeCategory(writer, category.id(), category.name());
+        } else if(dto instanceof ListContactDTO list) {
+            for (ContactDTO contact : list.contacts()) {
+                writer.writeMessageHeader(1, contactSize(contact));
+                writeContact(writer, contact);
+            }
+
+            writer.writeInt64(2, list.totalItems());
+            writer.writeInt64(3, list.totalPages());
+        } else if(dto instanceof ListCategoryDTO list) {
+            for (CategoryDTO category : list.category()) {
+                writer.writeMessageHeader(1, categorySize(category.id(), category.name()));
+                writeCategory(writer, category.id(), category.name());
+            }
+
+            writer.writeInt64(2, list.totalItems());
+            writer.writeInt64(3, list.totalPages());
+        }
+
+        writer.flush();
+    }
+
+    private static int contactSize(ContactDTO contact) {
+        int size = uuidSize(1, contact.id())
+                + stringSize(2, contact.name())
+                + stringSize(3, contact.email())
+                + stringSize(4, contact.phone())
+                + stringSize(5, contact.photo())
+                + stringSize(6, contact.photoUrl());
+
+        CategoryDTO category = contact.category();
+
+        if(category != null) {
+            size += messageSize(7, categorySize(category.id(), category.name()));
+        }
+
+        return size;
+    }
+
+    private static void writeContact(ProtobufWriter writer, ContactDTO contact) throws IOException {
+        writer.writeUuid(1, contact.id());
+        writer.writeString(2, contact.name());
+        writer.writeString(3, contact.email());
+        writer.writeString(4, contact.phone());
+        writer.writeString(5, contact.photo());
+        writer.writeString(6, contact.photoUrl());
+
+        CategoryDTO category = contact.category();
+
+        if(category != null) {
+            writer.writeMessageHeader(7, categorySize(category.id(), category.name()));
+            writeCategory(writer, category.id(), category.name());
+        }
+    }
+
+    private static int categorySize(UUID id, String name) {
+        return uuidSize(1, id) + stringSize(2, name);
+    }
+
+    private static void writeCategory(ProtobufWriter writer, UUID id, String name) throws IOException {
+        writer.writeUuid(1, id);
+        writer.writeString(2, name);
+    }
+}
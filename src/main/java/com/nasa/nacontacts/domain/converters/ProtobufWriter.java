@@ -0,0 +1,187 @@
+package com.nasa.nacontacts.domain.converters;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+
+final class ProtobufWriter {
+
+    private static final int WIRETYPE_VARINT = 0;
+
+    private static final int WIRETYPE_LENGTH_DELIMITED = 2;
+
+    private static final int UUID_LENGTH = 36;
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes();
+
+    private final OutputStream out;
+
+    private final byte[] buffer = new byte[8192];
+
+    private int position;
+
+    ProtobufWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    static int stringSize(int field, String value) {
+        if(value == null || value.isEmpty()) {
+            return 0;
+        }
+
+        int length = utf8Length(value);
+
+        return tagSize(field) + varintSize(length) + length;
+    }
+
+    static int uuidSize(int field, UUID value) {
+        return value == null ? 0 : tagSize(field) + 1 + UUID_LENGTH;
+    }
+
+    static int int64Size(int field, long value) {
+        return value == 0 ? 0 : tagSize(field) + varintSize(value);
+    }
+
+    static int messageSize(int field, int size) {
+        return tagSize(field) + varintSize(size) + size;
+    }
+
+    void writeString(int field, String value) throws IOException {
+        if(value == null || value.isEmpty()) {
+            return;
+        }
+
+        writeTag(field, WIRETYPE_LENGTH_DELIMITED);
+        writeVarint(utf8Length(value));
+
+        for (int i = 0; i < value.length(); i++) {
+            ensureCapacity(4);
+
+            char c = value.charAt(i);
+
+            if(c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if(c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >>> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if(Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+
+                buffer[position++] = (byte) (0xF0 | (codePoint >>> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >>> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >>> 12));
+                buffer[position++] = (byte) (0x80 | ((c >>> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    void writeUuid(int field, UUID value) throws IOException {
+        if(value == null) {
+            return;
+        }
+
+        writeTag(field, WIRETYPE_LENGTH_DELIMITED);
+        writeVarint(UUID_LENGTH);
+        ensureCapacity(UUID_LENGTH);
+
+        writeHex(value.getMostSignificantBits() >>> 32, 8);
+        buffer[position++] = '-';
+        writeHex(value.getMostSignificantBits() >>> 16, 4);
+        buffer[position++] = '-';
+        writeHex(value.getMostSignificantBits(), 4);
+        buffer[position++] = '-';
+        writeHex(value.getLeastSignificantBits() >>> 48, 4);
+        buffer[position++] = '-';
+        writeHex(value.getLeastSignificantBits(), 12);
+    }
+
+    void writeInt64(int field, long value) throws IOException {
+        if(value == 0) {
+            return;
+        }
+
+        writeTag(field, WIRETYPE_VARINT);
+        writeVarint(value);
+    }
+
+    void writeMessageHeader(int field, int size) throws IOException {
+        writeTag(field, WIRETYPE_LENGTH_DELIMITED);
+        writeVarint(size);
+    }
+
+    void flush() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+        out.flush();
+    }
+
+    private void writeTag(int field, int wireType) throws IOException {
+        writeVarint(((long) field << 3) | wireType);
+    }
+
+    private void writeVarint(long value) throws IOException {
+        ensureCapacity(10);
+
+        while((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeHex(long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            buffer[position++] = HEX_DIGITS[(int) ((value >>> shift) & 0xF)];
+        }
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if(buffer.length - position < bytes) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static int tagSize(int field) {
+        return varintSize((long) field << 3);
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+
+        while((value & ~0x7FL) != 0) {
+            size++;
+            value >>>= 7;
+        }
+
+        return size;
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if(c < 0x80) {
+                length += 1;
+            } else if(c < 0x800) {
+                length += 2;
+            } else if(Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+}
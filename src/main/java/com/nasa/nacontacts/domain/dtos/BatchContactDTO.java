@@ -0,0 +1,33 @@
+package com.nasa.nacontacts.domain.dtos;
+
+import com.nasa.nacontacts.domain.Entities.Contact;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public record BatchContactDTO(
+        List<ContactDTO> contacts,
+        List<UUID> missingIds
+) {
+
+    public static BatchContactDTO from(List<UUID> ids, List<Contact> found) {
+        Map<UUID, Contact> contactsById = found.stream()
+                .collect(Collectors.toMap(Contact::getId, Function.identity()));
+
+        List<ContactDTO> contacts = ids.stream()
+                .distinct()
+                .filter(contactsById::containsKey)
+                .map(id -> ContactDTO.from(contactsById.get(id)))
+                .toList();
+
+        List<UUID> missingIds = ids.stream()
+                .distinct()
+                .filter(id -> !contactsById.containsKey(id))
+                .toList();
+
+        return new BatchContactDTO(contacts, missingIds);
+    }
+}
@@ -0,0 +1,51 @@
+package com.nasa.nacontacts.domain.dtos;
+
+import com.nasa.nacontacts.domain.repositories.ContactRepositoryCustom.Change;
+import com.nasa.nacontacts.domain.repositories.ContactRepositoryCustom.ChangePage;
+import com.nasa.nacontacts.domain.utils.ChangeTokens;
+import com.nasa.nacontacts.domain.utils.ChangeTokens.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public record ContactChangesDTO(
+        List<ContactDTO> upserted,
+        List<UUID> deleted,
+        String nextToken,
+        Boolean hasMore
+) {
+
+    /*
+        changes vem com até limit + 1 linhas: a linha extra só indica que há mais páginas.
+        Na última página, tudo abaixo do horizonte foi entregue e o token pula para ele.
+    */
+    public static ContactChangesDTO from(ChangePage changes, Position since, int limit) {
+        boolean hasMore = changes.changes().size() > limit;
+        List<Change> page = hasMore ? changes.changes().subList(0, limit) : changes.changes();
+
+        List<ContactDTO> upserted = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        Position next = since;
+
+        for (Change change : page) {
+            if(change.contact() == null) {
+                deleted.add(change.id());
+            } else {
+                upserted.add(ContactDTO.from(change.contact()));
+            }
+
+            next = new Position(change.xid(), change.sequence());
+        }
+
+        if(!hasMore) {
+            Position horizon = new Position(changes.horizon(), 0);
+
+            if(horizon.compareTo(next) > 0) {
+                next = horizon;
+            }
+        }
+
+        return new ContactChangesDTO(upserted, deleted, ChangeTokens.encode(next), hasMore);
+    }
+}
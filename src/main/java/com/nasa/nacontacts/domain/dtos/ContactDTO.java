@@ -1,6 +1,5 @@
 package com.nasa.nacontacts.domain.dtos;
 
-import com.nasa.nacontacts.domain.Entities.Category;
 import com.nasa.nacontacts.domain.Entities.Contact;
 
 import java.util.UUID;
@@ -18,7 +17,7 @@ public record ContactDTO(
 
         String photoUrl,
 
-        Category category
+        CategoryDTO category
 ) {
 
     public static ContactDTO from(Contact contact) {
@@ -28,7 +27,7 @@ public record ContactDTO(
                 ,contact.getPhone()
                 ,contact.getPhoto()
                 ,contact.getPhotoUrl()
-                ,contact.getCategory()
+                ,contact.getCategory() != null ? CategoryDTO.from(contact.getCategory()) : null
         );
     }
 }
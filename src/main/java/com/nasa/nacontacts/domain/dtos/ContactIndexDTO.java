@@ -0,0 +1,43 @@
+package com.nasa.nacontacts.domain.dtos;
+
+import com.nasa.nacontacts.domain.repositories.ContactRepositoryCustom.InitialCount;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+    offset e page apontam para o primeiro contato da inicial na listagem ordenada por nome
+    (GET /contacts com os mesmos filtros, orderBy e size).
+*/
+public record ContactIndexDTO(
+        List<Letter> letters,
+        Long totalItems
+) {
+
+    public record Letter(
+            String letter,
+            Long count,
+            Long offset,
+            Integer page
+    ) {
+    }
+
+    public static ContactIndexDTO from(List<InitialCount> counts, Sort.Direction direction, int size) {
+        Comparator<InitialCount> byInitial = Comparator.comparing(InitialCount::initial);
+        List<InitialCount> sorted = counts.stream()
+                .sorted(direction.isAscending() ? byInitial : byInitial.reversed())
+                .toList();
+
+        List<Letter> letters = new ArrayList<>(sorted.size());
+        long offset = 0;
+
+        for (InitialCount count : sorted) {
+            letters.add(new Letter(count.initial(), count.count(), offset, (int) (offset / size)));
+            offset += count.count();
+        }
+
+        return new ContactIndexDTO(letters, offset);
+    }
+}
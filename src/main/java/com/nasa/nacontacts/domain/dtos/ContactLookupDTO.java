@@ -0,0 +1,10 @@
+package com.nasa.nacontacts.domain.dtos;
+
+import java.util.UUID;
+
+public record ContactLookupDTO(
+        UUID id,
+
+        String name
+) {
+}
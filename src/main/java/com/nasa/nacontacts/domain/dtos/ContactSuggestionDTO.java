@@ -0,0 +1,12 @@
+package com.nasa.nacontacts.domain.dtos;
+
+import java.util.UUID;
+
+public record ContactSuggestionDTO(
+        UUID id,
+
+        String name,
+
+        String email
+) {
+}
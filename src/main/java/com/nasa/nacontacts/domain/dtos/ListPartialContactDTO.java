@@ -0,0 +1,21 @@
+package com.nasa.nacontacts.domain.dtos;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.Map;
+
+public record ListPartialContactDTO(
+        List<Map<String, Object>> contacts,
+        Long totalItems,
+        Integer totalPages
+) {
+
+    public static ListPartialContactDTO from(Page<Map<String, Object>> pageContact) {
+        return new ListPartialContactDTO(
+                pageContact.getContent(),
+                pageContact.getTotalElements(),
+                pageContact.getTotalPages()
+        );
+    }
+}
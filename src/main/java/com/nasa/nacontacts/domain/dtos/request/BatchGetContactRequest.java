@@ -0,0 +1,15 @@
+package com.nasa.nacontacts.domain.dtos.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchGetContactRequest(
+        @NotEmpty(message = "Ids is required")
+        @Size(max = BatchGetContactRequest.MAX_IDS, message = "Ids must have at most " + BatchGetContactRequest.MAX_IDS + " items")
+        List<UUID> ids
+) {
+        public static final int MAX_IDS = 100;
+}
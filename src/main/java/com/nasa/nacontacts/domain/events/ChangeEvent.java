@@ -0,0 +1,28 @@
+package com.nasa.nacontacts.domain.events;
+
+import java.util.UUID;
+
+public record ChangeEvent(
+        String entity,
+        Type type,
+        UUID id
+) {
+
+    public static final String CHANNEL = "nacontacts_changes";
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static ChangeEvent contact(Type type, UUID id) {
+        return new ChangeEvent("contact", type, id);
+    }
+
+    public static ChangeEvent category(Type type, UUID id) {
+        return new ChangeEvent("category", type, id);
+    }
+
+    public String name() {
+        return entity + "." + type.name().toLowerCase();
+    }
+}
@@ -0,0 +1,130 @@
+package com.nasa.nacontacts.domain.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nasa.nacontacts.domain.services.ChangeStreamService;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/*
+    Uma única conexão dedicada por nó escuta o canal e repassa para os assinantes locais.
+    Fica fora do pool para não prender uma conexão do Hikari para sempre.
+    Além do stream SSE, cada mudança é republicada como RemoteChangeEvent para os índices em memória.
+*/
+@Slf4j
+@Component
+public class ChangeEventListener implements SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final ChangeStreamService changeStreamService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    public ChangeEventListener(DataSourceProperties dataSourceProperties,
+                               ChangeStreamService changeStreamService,
+                               ObjectMapper objectMapper,
+                               ApplicationEventPublisher eventPublisher
+    ) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.changeStreamService = changeStreamService;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "change-event-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+
+        if(thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword()
+            )) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + ChangeEvent.CHANNEL);
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+
+                    if(notifications == null) {
+                        continue;
+                    }
+
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if(!running) {
+                    return;
+                }
+
+                log.warn("Lost the {} listener connection, reconnecting", ChangeEvent.CHANNEL, e);
+                pause();
+            }
+        }
+    }
+
+    void dispatch(String payload) {
+        try {
+            ChangeEvent event = objectMapper.readValue(payload, ChangeEvent.class);
+
+            changeStreamService.broadcast(event);
+            eventPublisher.publishEvent(new RemoteChangeEvent(event));
+        } catch (Exception e) {
+            log.warn("Ignoring malformed change event {}", payload, e);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
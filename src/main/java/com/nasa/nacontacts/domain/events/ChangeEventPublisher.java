@@ -0,0 +1,35 @@
+package com.nasa.nacontacts.domain.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class ChangeEventPublisher {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    public ChangeEventPublisher(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /*
+        O NOTIFY roda dentro da transação da escrita: o Postgres só entrega após o commit
+        e descarta no rollback, então nenhum nó vê mudança que não foi persistida.
+    */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void publish(ChangeEvent event) throws JsonProcessingException {
+        jdbcTemplate.queryForObject(
+                "SELECT pg_notify(?, ?)",
+                Object.class,
+                ChangeEvent.CHANNEL,
+                objectMapper.writeValueAsString(event)
+        );
+    }
+}
@@ -0,0 +1,10 @@
+package com.nasa.nacontacts.domain.events;
+
+/*
+    Mudança recebida pelo LISTEN/NOTIFY, de qualquer nó (inclusive este).
+    Tipo próprio para não passar de novo pelo ChangeEventPublisher e virar outro NOTIFY.
+*/
+public record RemoteChangeEvent(
+        ChangeEvent change
+) {
+}
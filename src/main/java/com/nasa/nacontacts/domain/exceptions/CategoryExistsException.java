@@ -2,6 +2,8 @@ package com.nasa.nacontacts.domain.exceptions;
 
 public class CategoryExistsException extends RuntimeException {
 
+    public static final String CONSTRAINT_NAME = "category_name_key";
+
     public CategoryExistsException() {
         super("The category is already exists");
     }
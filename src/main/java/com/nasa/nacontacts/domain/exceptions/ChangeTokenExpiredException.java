@@ -0,0 +1,8 @@
+package com.nasa.nacontacts.domain.exceptions;
+
+public class ChangeTokenExpiredException extends RuntimeException {
+
+    public ChangeTokenExpiredException() {
+        super("The change token has expired; sync again from scratch without since");
+    }
+}
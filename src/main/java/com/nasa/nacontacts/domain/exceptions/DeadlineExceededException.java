@@ -0,0 +1,8 @@
+package com.nasa.nacontacts.domain.exceptions;
+
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException() {
+        super("The request deadline was exceeded");
+    }
+}
@@ -2,6 +2,8 @@ package com.nasa.nacontacts.domain.exceptions;
 
 public class EmailAlreadyInUseException extends RuntimeException {
 
+    public static final String CONSTRAINT_NAME = "contact_email_key";
+
     public EmailAlreadyInUseException() {
         super("Email is already in use");
     }
@@ -1,5 +1,10 @@
 package com.nasa.nacontacts.domain.exceptions;
 
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -114,6 +119,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(statusCode).body(error);
     }
 
+    @ExceptionHandler(InvalidFieldException.class)
+    public ResponseEntity<RestErrorResponse> handleInvalidField(InvalidFieldException e) {
+        int statusCode = HttpStatus.BAD_REQUEST.value();
+
+        RestErrorResponse error = new RestErrorResponse(
+                statusCode,
+                e.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(statusCode).body(error);
+    }
+
     @ExceptionHandler(EmailAlreadyInUseException.class)
     public ResponseEntity<RestErrorResponse> handleEmailAlreadyInUse(EmailAlreadyInUseException e) {
         int statusCode = HttpStatus.BAD_REQUEST.value();
@@ -127,6 +145,68 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(statusCode).body(error);
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<RestErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException e) {
+        String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+
+        if(cause != null && cause.contains(EmailAlreadyInUseException.CONSTRAINT_NAME)) {
+            return handleEmailAlreadyInUse(new EmailAlreadyInUseException());
+        }
+
+        if(cause != null && cause.contains(CategoryExistsException.CONSTRAINT_NAME)) {
+            return categoryExists(new CategoryExistsException());
+        }
+
+        int statusCode = HttpStatus.CONFLICT.value();
+
+        RestErrorResponse error = new RestErrorResponse(
+                statusCode,
+                "The request conflicts with the current state of the resource",
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(statusCode).body(error);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<RestErrorResponse> handlePreconditionFailed(PreconditionFailedException e) {
+        int statusCode = HttpStatus.PRECONDITION_FAILED.value();
+
+        RestErrorResponse error = new RestErrorResponse(
+                statusCode,
+                e.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(statusCode).body(error);
+    }
+
+    @ExceptionHandler(ChangeTokenExpiredException.class)
+    public ResponseEntity<RestErrorResponse> handleChangeTokenExpired(ChangeTokenExpiredException e) {
+        int statusCode = HttpStatus.GONE.value();
+
+        RestErrorResponse error = new RestErrorResponse(
+                statusCode,
+                e.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(statusCode).body(error);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<RestErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        int statusCode = HttpStatus.CONFLICT.value();
+
+        RestErrorResponse error = new RestErrorResponse(
+                statusCode,
+                "The resource was modified by another request, please try again",
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(statusCode).body(error);
+    }
+
     @ExceptionHandler(FileStorageException.class)
     public ResponseEntity<RestErrorResponse> handleFileStorageException(FileStorageException e) {
         int statusCode = HttpStatus.INTERNAL_SERVER_ERROR.value();
@@ -139,4 +219,36 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(statusCode).body(error);
     }
+
+    @ExceptionHandler(StorageUnavailableException.class)
+    public ResponseEntity<RestErrorResponse> handleStorageUnavailableException(StorageUnavailableException e) {
+        int statusCode = HttpStatus.SERVICE_UNAVAILABLE.value();
+
+        RestErrorResponse error = new RestErrorResponse(
+                statusCode,
+                e.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(statusCode)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    /*
+        QueryTimeoutException é o statement_timeout do Postgres cancelando a query no fim do prazo da requisição,
+        tanto pelo Hibernate quanto pelo JdbcTemplate (ver DeadlineConfig).
+    */
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class})
+    public ResponseEntity<RestErrorResponse> handleDeadlineExceeded(RuntimeException e) {
+        int statusCode = HttpStatus.GATEWAY_TIMEOUT.value();
+
+        RestErrorResponse error = new RestErrorResponse(
+                statusCode,
+                new DeadlineExceededException().getMessage(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(statusCode).body(error);
+    }
 };
@@ -0,0 +1,18 @@
+package com.nasa.nacontacts.domain.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class InvalidFieldException extends RuntimeException {
+
+    private final String field;
+
+    public InvalidFieldException(String field) {
+        this(field, String.format("The field %s is not supported", field));
+    }
+
+    public InvalidFieldException(String field, String message) {
+        super(message);
+        this.field = field;
+    }
+}
@@ -0,0 +1,8 @@
+package com.nasa.nacontacts.domain.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException() {
+        super("The resource has been modified since it was last retrieved");
+    }
+}
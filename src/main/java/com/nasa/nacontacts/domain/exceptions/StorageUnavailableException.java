@@ -0,0 +1,19 @@
+package com.nasa.nacontacts.domain.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class StorageUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public StorageUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public StorageUnavailableException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
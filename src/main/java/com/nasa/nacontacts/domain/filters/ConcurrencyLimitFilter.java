@@ -0,0 +1,171 @@
+package com.nasa.nacontacts.domain.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nasa.nacontacts.domain.config.ConcurrencyLimitProperties;
+import com.nasa.nacontacts.domain.exceptions.RestErrorResponse;
+import com.nasa.nacontacts.domain.utils.AdaptiveConcurrencyLimit;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/*
+    Limites separados para leitura, escrita e imagens: uma rajada de uploads não derruba as leituras.
+    Listagens com busca são de baixa prioridade e só usam parte do limite de leitura.
+*/
+@Component
+@ManagedResource(objectName = "nacontacts:type=ConcurrencyLimiter", description = "Adaptive concurrency limits")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final AdaptiveConcurrencyLimit read;
+
+    private final AdaptiveConcurrencyLimit write;
+
+    private final AdaptiveConcurrencyLimit image;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.read = limitOf(properties.getRead());
+        this.write = limitOf(properties.getWrite());
+        this.image = limitOf(properties.getImage());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+
+        return !properties.isEnabled()
+                || !(path.startsWith("/contacts") || path.startsWith("/categories"))
+                || path.startsWith("/contacts/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain
+    ) throws ServletException, IOException {
+        AdaptiveConcurrencyLimit limit = limitFor(request);
+
+        if(!limit.tryAcquire(isLowPriority(request))) {
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean measured = false;
+
+        try {
+            filterChain.doFilter(request, response);
+            measured = response.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            if(measured) {
+                limit.release(System.nanoTime() - start);
+            } else {
+                limit.release();
+            }
+        }
+    }
+
+    private AdaptiveConcurrencyLimit limitFor(HttpServletRequest request) {
+        String path = request.getRequestURI();
+
+        if(path.startsWith("/contacts/image/")) {
+            return image;
+        }
+
+        if(HttpMethod.GET.matches(request.getMethod()) || path.equals("/contacts/batch-get")) {
+            return read;
+        }
+
+        return write;
+    }
+
+    private boolean isLowPriority(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) && request.getParameter("search") != null;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        int statusCode = HttpStatus.SERVICE_UNAVAILABLE.value();
+
+        RestErrorResponse error = new RestErrorResponse(
+                statusCode,
+                "The server is overloaded, please try again",
+                LocalDateTime.now()
+        );
+
+        response.setStatus(statusCode);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private AdaptiveConcurrencyLimit limitOf(ConcurrencyLimitProperties.Limit limit) {
+        return new AdaptiveConcurrencyLimit(
+                limit.getInitial(),
+                limit.getMin(),
+                limit.getMax(),
+                properties.getLowPriorityShare()
+        );
+    }
+
+    @ManagedAttribute(description = "Current read concurrency limit")
+    public int getReadLimit() {
+        return read.getLimit();
+    }
+
+    @ManagedAttribute(description = "Read requests in flight")
+    public int getReadInFlight() {
+        return read.getInFlight();
+    }
+
+    @ManagedAttribute(description = "Read requests rejected with 503")
+    public long getReadDropped() {
+        return read.getDropped();
+    }
+
+    @ManagedAttribute(description = "Current write concurrency limit")
+    public int getWriteLimit() {
+        return write.getLimit();
+    }
+
+    @ManagedAttribute(description = "Write requests in flight")
+    public int getWriteInFlight() {
+        return write.getInFlight();
+    }
+
+    @ManagedAttribute(description = "Write requests rejected with 503")
+    public long getWriteDropped() {
+        return write.getDropped();
+    }
+
+    @ManagedAttribute(description = "Current image concurrency limit")
+    public int getImageLimit() {
+        return image.getLimit();
+    }
+
+    @ManagedAttribute(description = "Image requests in flight")
+    public int getImageInFlight() {
+        return image.getInFlight();
+    }
+
+    @ManagedAttribute(description = "Image requests rejected with 503")
+    public long getImageDropped() {
+        return image.getDropped();
+    }
+}
@@ -0,0 +1,136 @@
+package com.nasa.nacontacts.domain.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nasa.nacontacts.domain.config.DeadlineProperties;
+import com.nasa.nacontacts.domain.exceptions.DeadlineExceededException;
+import com.nasa.nacontacts.domain.exceptions.RestErrorResponse;
+import com.nasa.nacontacts.domain.utils.Deadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/*
+    Define o prazo da requisição: X-Request-Deadline (epoch em ms) ou X-Request-Timeout (ms),
+    senão o padrão do endpoint. O prazo chega ao banco (statement_timeout) e ao storage.
+*/
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final DeadlineProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public DeadlineFilter(DeadlineProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+
+        return !properties.isEnabled()
+                || !(path.startsWith("/contacts") || path.startsWith("/categories"))
+                || path.startsWith("/contacts/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain
+    ) throws ServletException, IOException {
+        Duration timeout = timeoutOf(request);
+
+        if(timeout.isZero() || timeout.isNegative()) {
+            reject(response);
+            return;
+        }
+
+        Deadline.set(Deadline.after(timeout));
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Deadline.clear();
+        }
+    }
+
+    private Duration timeoutOf(HttpServletRequest request) {
+        Duration requested = requestedTimeout(request);
+
+        if(requested == null) {
+            return defaultTimeoutOf(request);
+        }
+
+        return requested.compareTo(properties.getMaxTimeout()) > 0 ? properties.getMaxTimeout() : requested;
+    }
+
+    /*
+        Valores inválidos são ignorados e caem no prazo padrão.
+    */
+    private Duration requestedTimeout(HttpServletRequest request) {
+        try {
+            String deadline = request.getHeader(DEADLINE_HEADER);
+
+            if(deadline != null) {
+                return Duration.ofMillis(Long.parseLong(deadline.trim()) - System.currentTimeMillis());
+            }
+
+            String timeout = request.getHeader(TIMEOUT_HEADER);
+
+            if(timeout != null) {
+                return Duration.ofMillis(Long.parseLong(timeout.trim()));
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        return null;
+    }
+
+    private Duration defaultTimeoutOf(HttpServletRequest request) {
+        for (DeadlineProperties.Endpoint endpoint : properties.getEndpoints()) {
+            boolean methodMatches = endpoint.getMethod() == null
+                    || endpoint.getMethod().equalsIgnoreCase(request.getMethod());
+
+            if(methodMatches && pathMatcher.match(endpoint.getPath(), request.getRequestURI())) {
+                return endpoint.getTimeout();
+            }
+        }
+
+        return properties.getDefaultTimeout();
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        int statusCode = HttpStatus.GATEWAY_TIMEOUT.value();
+
+        RestErrorResponse error = new RestErrorResponse(
+                statusCode,
+                new DeadlineExceededException().getMessage(),
+                LocalDateTime.now()
+        );
+
+        response.setStatus(statusCode);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -1,20 +1,23 @@
 package com.nasa.nacontacts.domain.repositories;
 
 import com.nasa.nacontacts.domain.Entities.Category;
+import com.nasa.nacontacts.domain.utils.CollationKeys;
 import jakarta.validation.constraints.Null;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, UUID>, JpaSpecificationExecutor<Category> {
+public interface CategoryRepository extends JpaRepository<Category, UUID>, JpaSpecificationExecutor<Category>, CategoryRepositoryCustom {
 
 
     @Query(value = "SELECT * FROM category c " +
@@ -24,5 +27,35 @@ public interface CategoryRepository extends JpaRepository<Category, UUID>, JpaSp
             nativeQuery = true
     )
     Page<Category> findAll(@Null @Param("search") String search, Pageable pageable);
-    Optional<Category> findByName(String name);
+
+    @Query("SELECT c.version FROM Category c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    default int updateName(UUID id, String name) {
+        return updateNameAndSortKey(id, name, CollationKeys.of(name));
+    }
+
+    /*
+        versions: as versões aceitas pelo If-Match; não pode ser vazia.
+    */
+    default int updateName(UUID id, String name, Collection<Long> versions) {
+        return updateNameAndSortKey(id, name, CollationKeys.of(name), versions);
+    }
+
+    /*
+        UPDATE em massa não passa pelo getter da entidade: a sort_key vai junto com o nome.
+        Com o mesmo nome nada é gravado e a versão fica: 0 linhas também quando a categoria não mudaria.
+    */
+    @Modifying
+    @Query("UPDATE Category c SET c.name = :name, c.sortKey = :sortKey, c.version = c.version + 1 " +
+            "WHERE c.id = :id AND c.name <> :name")
+    int updateNameAndSortKey(@Param("id") UUID id, @Param("name") String name, @Param("sortKey") byte[] sortKey);
+
+    @Modifying
+    @Query("UPDATE Category c SET c.name = :name, c.sortKey = :sortKey, c.version = c.version + 1 " +
+            "WHERE c.id = :id AND c.version IN :versions AND c.name <> :name")
+    int updateNameAndSortKey(@Param("id") UUID id,
+                             @Param("name") String name,
+                             @Param("sortKey") byte[] sortKey,
+                             @Param("versions") Collection<Long> versions);
 }
@@ -0,0 +1,9 @@
+package com.nasa.nacontacts.domain.repositories;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CategoryRepositoryCustom {
+
+    Optional<UUID> insertIfNameAbsent(String name);
+}
@@ -0,0 +1,33 @@
+package com.nasa.nacontacts.domain.repositories;
+
+import com.nasa.nacontacts.domain.utils.CollationKeys;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public class CategoryRepositoryCustomImpl implements CategoryRepositoryCustom {
+
+    private static final String INSERT_CATEGORY = "INSERT INTO category (name, sort_key) VALUES (:name, :sortKey) " +
+            "ON CONFLICT (name) DO NOTHING " +
+            "RETURNING id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public CategoryRepositoryCustomImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<UUID> insertIfNameAbsent(String name) {
+        List<UUID> ids = jdbcTemplate.query(
+                INSERT_CATEGORY,
+                new MapSqlParameterSource("name", name).addValue("sortKey", CollationKeys.of(name)),
+                (rs, rowNum) -> rs.getObject("id", UUID.class)
+        );
+
+        return ids.stream().findFirst();
+    }
+}
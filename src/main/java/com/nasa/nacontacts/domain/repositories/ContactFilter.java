@@ -0,0 +1,101 @@
+package com.nasa.nacontacts.domain.repositories;
+
+import com.nasa.nacontacts.domain.utils.PhoneNumbers;
+import com.nasa.nacontacts.domain.utils.SearchNormalizer;
+
+import java.util.UUID;
+
+/*
+    Filtros da listagem de contatos. Só os filtros informados viram predicados (ContactSpecifications),
+    então cada combinação tem a sua própria query e o seu próprio plano.
+*/
+public record ContactFilter(
+        UUID categoryId,
+
+        Boolean hasPhoto,
+
+        String emailDomain,
+
+        String namePrefix,
+
+        String search
+) {
+
+    public static final ContactFilter NONE = new ContactFilter(null, null, null, null, null);
+
+    public ContactFilter {
+        emailDomain = normalizeDomain(emailDomain);
+        namePrefix = blankToNull(namePrefix == null ? null : SearchNormalizer.normalize(namePrefix.trim()));
+        search = blankToNull(search);
+    }
+
+    public static ContactFilter search(String search) {
+        return new ContactFilter(null, null, null, null, search);
+    }
+
+    /*
+        true quando há algum filtro além da busca textual.
+    */
+    public boolean hasFilters() {
+        return categoryId != null || hasPhoto != null || emailDomain != null || namePrefix != null;
+    }
+
+    /*
+        true quando no máximo a categoria foi informada.
+    */
+    public boolean isCategoryOnly() {
+        return hasPhoto == null && emailDomain == null && namePrefix == null && search == null;
+    }
+
+    int mask() {
+        int mask = 0;
+
+        if(categoryId != null) {
+            mask |= ContactSpecifications.Criterion.CATEGORY.bit();
+        }
+
+        if(hasPhoto != null) {
+            mask |= (hasPhoto
+                    ? ContactSpecifications.Criterion.WITH_PHOTO
+                    : ContactSpecifications.Criterion.WITHOUT_PHOTO).bit();
+        }
+
+        if(emailDomain != null) {
+            mask |= ContactSpecifications.Criterion.EMAIL_DOMAIN.bit();
+        }
+
+        if(namePrefix != null) {
+            mask |= ContactSpecifications.Criterion.NAME_PREFIX.bit();
+        }
+
+        if(search != null) {
+            mask |= (phonePatterns() != null
+                    ? ContactSpecifications.Criterion.PHONE_SEARCH
+                    : ContactSpecifications.Criterion.SEARCH).bit();
+        }
+
+        return mask;
+    }
+
+    PhoneNumbers.SearchPatterns phonePatterns() {
+        return PhoneNumbers.searchPatterns(search);
+    }
+
+    private static String normalizeDomain(String domain) {
+        if(domain == null) {
+            return null;
+        }
+
+        String value = domain.trim();
+
+        if(value.startsWith("@")) {
+            value = value.substring(1);
+        }
+
+        return blankToNull(SearchNormalizer.normalize(value));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
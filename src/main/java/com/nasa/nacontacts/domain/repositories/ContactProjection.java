@@ -0,0 +1,128 @@
+package com.nasa.nacontacts.domain.repositories;
+
+import com.nasa.nacontacts.domain.dtos.CategoryDTO;
+import com.nasa.nacontacts.domain.exceptions.InvalidFieldException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+public final class ContactProjection {
+
+    public enum Field {
+        ID("id", "c.id AS id"),
+        NAME("name", "c.name AS name"),
+        EMAIL("email", "c.email AS email"),
+        PHONE("phone", "c.phone AS phone"),
+        PHOTO("photo", "c.photo AS photo"),
+        PHOTO_URL("photoUrl", "c.photo AS photo"),
+        CATEGORY("category", "cat.id AS category_id, cat.name AS category_name");
+
+        private final String name;
+
+        private final String column;
+
+        Field(String name, String column) {
+            this.name = name;
+            this.column = column;
+        }
+    }
+
+    private static final Map<String, Field> FIELDS_BY_NAME = new HashMap<>();
+
+    private static final Map<Integer, ContactProjection> CACHE = new ConcurrentHashMap<>();
+
+    static {
+        for (Field field : Field.values()) {
+            FIELDS_BY_NAME.put(field.name, field);
+        }
+    }
+
+    private final int key;
+
+    private final List<Field> fields;
+
+    private final String selectClause;
+
+    private final boolean joinsCategory;
+
+    private ContactProjection(int key, EnumSet<Field> fields) {
+        this.key = key;
+        this.fields = List.copyOf(fields);
+        this.joinsCategory = fields.contains(Field.CATEGORY);
+
+        StringJoiner columns = new StringJoiner(", ");
+        fields.stream()
+                .map(field -> field.column)
+                .distinct()
+                .forEach(columns::add);
+
+        this.selectClause = columns.toString();
+    }
+
+    public static ContactProjection of(String fields) {
+        int mask = 0;
+
+        for (String name : fields.split(",")) {
+            Field field = FIELDS_BY_NAME.get(name.trim());
+
+            if(field == null) {
+                throw new InvalidFieldException(name.trim());
+            }
+
+            mask |= 1 << field.ordinal();
+        }
+
+        return CACHE.computeIfAbsent(mask, ContactProjection::compile);
+    }
+
+    private static ContactProjection compile(int mask) {
+        EnumSet<Field> fields = EnumSet.noneOf(Field.class);
+
+        for (Field field : Field.values()) {
+            if((mask & (1 << field.ordinal())) != 0) {
+                fields.add(field);
+            }
+        }
+
+        return new ContactProjection(mask, fields);
+    }
+
+    public int getKey() {
+        return key;
+    }
+
+    public String getSelectClause() {
+        return selectClause;
+    }
+
+    public boolean joinsCategory() {
+        return joinsCategory;
+    }
+
+    public Map<String, Object> mapRow(ResultSet rs, UnaryOperator<String> photoUrlResolver) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>();
+
+        for (Field field : fields) {
+            Object value = switch (field) {
+                case ID -> rs.getObject("id", UUID.class);
+                case NAME -> rs.getString("name");
+                case EMAIL -> rs.getString("email");
+                case PHONE -> rs.getString("phone");
+                case PHOTO -> rs.getString("photo");
+                case PHOTO_URL -> photoUrlResolver.apply(rs.getString("photo"));
+                case CATEGORY -> {
+                    UUID categoryId = rs.getObject("category_id", UUID.class);
+
+                    yield categoryId == null ? null : new CategoryDTO(categoryId, rs.getString("category_name"));
+                }
+            };
+
+            row.put(field.name, value);
+        }
+
+        return row;
+    }
+}
@@ -9,24 +9,37 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ContactRepository extends JpaRepository<Contact, UUID>, JpaSpecificationExecutor<Contact> {
-
-    @Query(value = "SELECT * FROM contact c " +
-            "WHERE " +
-            "UNACCENT(LOWER(c.name)) LIKE CONCAT('%', LOWER(:search), '%') " +
-            "OR " +
-            "LOWER(c.email) LIKE CONCAT('%', LOWER(:search), '%') " +
-            "OR " +
-            "LOWER(c.phone) LIKE CONCAT('%', LOWER(:search), '%') " +
-            "OR " +
-            ":search IS NULL",
+public interface ContactRepository extends JpaRepository<Contact, UUID>, JpaSpecificationExecutor<Contact>, ContactRepositoryCustom {
+
+    /*
+        Ordenado por relevância: passe um Pageable sem ordenação.
+    */
+    @Query(value = "SELECT c.* FROM contact c WHERE " + FUZZY_CONDITION + " ORDER BY " + FUZZY_SCORE + " DESC, c.name",
+            countQuery = "SELECT COUNT(*) FROM contact c WHERE " + FUZZY_CONDITION,
+            nativeQuery = true
+    )
+    Page<Contact> findAllFuzzy(@Param("search") String search, @Param("digits") String digits, Pageable pageable);
+
+    @Query(value = "SELECT * FROM contact c WHERE c.phone_digits = :digits ORDER BY c.id LIMIT 1", nativeQuery = true)
+    Optional<Contact> findFirstByPhoneDigits(@Param("digits") String digits);
+
+    @Query("SELECT c FROM Contact c LEFT JOIN FETCH c.category WHERE c.id IN :ids")
+    List<Contact> findAllWithCategoryByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(value = "SELECT CAST(c.version AS VARCHAR) || '.' || CAST(COALESCE(cat.version, 0) AS VARCHAR) " +
+            "FROM contact c " +
+            "LEFT JOIN category cat ON cat.id = c.category_id " +
+            "WHERE c.id = :id",
             nativeQuery = true
     )
-    Page<Contact> findAll(@Param("search") String search, Pageable pageable);
+    Optional<String> findVersionTagById(@Param("id") UUID id);
 
-    Optional<Contact> findByEmail(String email);
+    @Query("SELECT c.version FROM Contact c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
 }
@@ -0,0 +1,113 @@
+package com.nasa.nacontacts.domain.repositories;
+
+import com.nasa.nacontacts.domain.Entities.Contact;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ContactRepositoryCustom {
+
+    /*
+        Busca tolerante a erros de digitação (pg_trgm): :search já normalizado (minúsculo, sem acento)
+        e :digits só com os dígitos da busca, vazio quando não há nenhum.
+    */
+    String FUZZY_CONDITION = "(:search <% c.search_name " +
+            "OR :search <% c.search_email " +
+            "OR (:digits <> '' AND c.phone_digits LIKE CONCAT('%', :digits, '%')))";
+
+    String FUZZY_SCORE = "GREATEST(" +
+            "word_similarity(:search, c.search_name), " +
+            "word_similarity(:search, c.search_email), " +
+            "CASE WHEN :digits <> '' AND c.phone_digits LIKE CONCAT('%', :digits, '%') " +
+            "THEN 1 ELSE 0 END)";
+
+    /*
+        Busca por telefone só com prefixos (PhoneNumbers.SearchPatterns), cada um atendido pelo índice
+        text_pattern_ops de phone_digits ou phone_digits_rev. Usada pelo ContactSpecifications.
+    */
+    String PHONE_CONDITION = "(c.phone_digits LIKE :prefix " +
+            "OR c.phone_digits LIKE :nationalPrefix " +
+            "OR c.phone_digits_rev LIKE CAST(:reversedPrefix AS VARCHAR))";
+
+    Page<Map<String, Object>> findAll(ContactProjection projection, ContactFilter filter, Pageable pageable);
+
+    /*
+        Ordenado por relevância; a ordenação do pageable é ignorada.
+    */
+    Page<Map<String, Object>> findAllFuzzy(ContactProjection projection, String search, String digits, Pageable pageable);
+
+    Optional<Map<String, Object>> findById(ContactProjection projection, UUID id);
+
+    InsertResult insert(Contact contact, UUID categoryId);
+
+    /*
+        Um único INSERT multi-linha; os resultados vêm na ordem da entrada. Os emails precisam ser distintos.
+    */
+    List<InsertResult> insertAll(List<NewContact> contacts);
+
+    /*
+        Só mudanças depois de (sinceXid, sinceSeq) e com change_xid abaixo do horizonte (ChangePage.horizon).
+    */
+    ChangePage findChangesSince(long sinceXid, long sinceSeq, int limit);
+
+    /*
+        Apaga os tombstones mais velhos que retention e avança contact_change_horizon.purged_xid. Devolve quantos apagou.
+    */
+    int purgeTombstones(Duration retention);
+
+    /*
+        Do agregado contact_initial_count (V16, em shards desde o V18), sem tocar em contact; categoryId == null soma todas as categorias.
+    */
+    List<InitialCount> countByInitial(UUID categoryId);
+
+    /*
+        GROUP BY name_initial só sobre as linhas que passam no filtro, para o que o agregado não cobre (busca etc.).
+    */
+    List<InitialCount> countByInitialMatching(ContactFilter filter);
+
+    /*
+        Percorre todos os contatos com cursor, sem carregar a tabela na memória. Precisa rodar numa transação.
+    */
+    void scanNamesAndEmails(NameAndEmailConsumer consumer);
+
+    /*
+        Como scanNamesAndEmails, só com os contatos que têm telefone; phoneDigits vem de phone_digits.
+    */
+    void scanPhones(PhoneConsumer consumer);
+
+    /*
+        id == null: o email já está em uso. categoryName == null: a categoria não existe.
+        categoryVersion é lida no mesmo statement, para o ETag do create bater com o do GET.
+    */
+    record InsertResult(UUID id, String categoryName, Long categoryVersion) {}
+
+    record NewContact(Contact contact, UUID categoryId) {}
+
+    record InitialCount(String initial, long count) {}
+
+    @FunctionalInterface
+    interface NameAndEmailConsumer {
+        void accept(UUID id, String name, String email);
+    }
+
+    @FunctionalInterface
+    interface PhoneConsumer {
+        void accept(UUID id, String name, String phoneDigits, long version);
+    }
+
+    /*
+        contact == null: o contato foi removido (tombstone).
+    */
+    record Change(long xid, long sequence, UUID id, Contact contact) {}
+
+    /*
+        horizon: xmin do snapshot da consulta; toda transação com xid menor já terminou.
+        purged: maior change_xid de tombstone já apagado (0 se nenhum).
+    */
+    record ChangePage(long horizon, long purged, List<Change> changes) {}
+}
@@ -0,0 +1,402 @@
+package com.nasa.nacontacts.domain.repositories;
+
+import com.nasa.nacontacts.domain.Entities.Category;
+import com.nasa.nacontacts.domain.Entities.Contact;
+import com.nasa.nacontacts.domain.services.PhotoUrlResolver;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+public class ContactRepositoryCustomImpl implements ContactRepositoryCustom {
+
+    private static final Map<String, String> SORTABLE_COLUMNS = Map.of(
+            "name", "c.name",
+            "email", "c.email",
+            "sortKey", "c.sort_key",
+            "categoryId", "c.category_id",
+            "createdAt", "c.created_at",
+            ContactSort.TIEBREAKER, "c.id"
+    );
+
+    private static final String INSERT_CONTACT = "WITH cat AS (SELECT id, name, version FROM category WHERE id = :categoryId), " +
+            "inserted AS (" +
+            "INSERT INTO contact (name, email, phone, photo, category_id, search_name, search_email, search_phone, " +
+            "phone_digits, phone_digits_rev, email_domain, sort_key, name_initial) " +
+            "SELECT CAST(:name AS VARCHAR), CAST(:email AS VARCHAR), CAST(:phone AS VARCHAR), CAST(:photo AS VARCHAR), cat.id, " +
+            "CAST(:searchName AS VARCHAR), CAST(:searchEmail AS VARCHAR), CAST(:searchPhone AS VARCHAR), " +
+            "CAST(:phoneDigits AS VARCHAR), CAST(:phoneDigitsReversed AS VARCHAR), CAST(:emailDomain AS VARCHAR), " +
+            "CAST(:sortKey AS BYTEA), CAST(:nameInitial AS VARCHAR) " +
+            "FROM cat " +
+            "ON CONFLICT (email) DO NOTHING " +
+            "RETURNING id" +
+            ") " +
+            "SELECT (SELECT id FROM inserted) AS id, (SELECT name FROM cat) AS category_name, " +
+            "(SELECT version FROM cat) AS category_version";
+
+    private static final String INSERT_ALL_CONTACTS = "WITH input (ord, name, email, phone, photo, category_id, search_name, search_email, search_phone, " +
+            "phone_digits, phone_digits_rev, email_domain, sort_key, name_initial) AS (VALUES %s), " +
+            "inserted AS (" +
+            "INSERT INTO contact (name, email, phone, photo, category_id, search_name, search_email, search_phone, " +
+            "phone_digits, phone_digits_rev, email_domain, sort_key, name_initial) " +
+            "SELECT i.name, i.email, i.phone, i.photo, i.category_id, i.search_name, i.search_email, i.search_phone, " +
+            "i.phone_digits, i.phone_digits_rev, i.email_domain, i.sort_key, i.name_initial " +
+            "FROM input i JOIN category cat ON cat.id = i.category_id " +
+            "ORDER BY i.ord " +
+            "ON CONFLICT (email) DO NOTHING " +
+            "RETURNING id, email" +
+            ") " +
+            "SELECT i.ord, ins.id, cat.name AS category_name, cat.version AS category_version " +
+            "FROM input i " +
+            "LEFT JOIN category cat ON cat.id = i.category_id " +
+            "LEFT JOIN inserted ins ON ins.email = i.email " +
+            "ORDER BY i.ord";
+
+    /*
+        Uma única consulta, para o horizonte (xmin) e as linhas saírem do mesmo snapshot.
+        Cada ramo é um range scan no índice (change_xid, change_seq); sem mudanças, vem uma linha só com o horizonte.
+    */
+    private static final String FIND_CHANGES = "WITH horizon AS MATERIALIZED (" +
+            "SELECT pg_snapshot_xmin(pg_current_snapshot()) AS xmin, " +
+            "(SELECT purged_xid FROM contact_change_horizon) AS purged" +
+            ") " +
+            "SELECT CAST(CAST(h.xmin AS TEXT) AS BIGINT) AS horizon, " +
+            "CAST(CAST(COALESCE(h.purged, '0') AS TEXT) AS BIGINT) AS purged, " +
+            "CAST(CAST(x.change_xid AS TEXT) AS BIGINT) AS change_xid, x.change_seq, x.id, x.deleted, " +
+            "x.name, x.email, x.phone, x.photo, x.category_id, x.category_name " +
+            "FROM horizon h LEFT JOIN LATERAL ((" +
+            "SELECT c.change_xid, c.change_seq, c.id, FALSE AS deleted, c.name, c.email, c.phone, c.photo, " +
+            "cat.id AS category_id, cat.name AS category_name " +
+            "FROM contact c LEFT JOIN category cat ON cat.id = c.category_id " +
+            "WHERE (c.change_xid, c.change_seq) > (CAST(CAST(:sinceXid AS TEXT) AS xid8), :sinceSeq) " +
+            "AND c.change_xid < h.xmin " +
+            "ORDER BY c.change_xid, c.change_seq LIMIT :limit" +
+            ") UNION ALL (" +
+            "SELECT t.change_xid, t.change_seq, t.id, TRUE AS deleted, NULL, NULL, NULL, NULL, NULL, NULL " +
+            "FROM contact_tombstone t " +
+            "WHERE (t.change_xid, t.change_seq) > (CAST(CAST(:sinceXid AS TEXT) AS xid8), :sinceSeq) " +
+            "AND t.change_xid < h.xmin " +
+            "ORDER BY t.change_xid, t.change_seq LIMIT :limit" +
+            ") ORDER BY change_xid, change_seq LIMIT :limit) x ON TRUE " +
+            "ORDER BY x.change_xid, x.change_seq";
+
+    private static final String PURGE_TOMBSTONES = "WITH purged AS (" +
+            "DELETE FROM contact_tombstone WHERE deleted_at < now() - :retentionSeconds * INTERVAL '1 second' " +
+            "RETURNING change_xid" +
+            "), horizon AS (" +
+            "UPDATE contact_change_horizon " +
+            "SET purged_xid = GREATEST(purged_xid, (SELECT change_xid FROM purged ORDER BY change_xid DESC LIMIT 1)) " +
+            "WHERE id AND EXISTS (SELECT 1 FROM purged)" +
+            ") " +
+            "SELECT COUNT(*) FROM purged";
+
+    private static final String COUNT_BY_INITIAL = "SELECT initial, SUM(total) AS total " +
+            "FROM contact_initial_count%s " +
+            "GROUP BY initial " +
+            "HAVING SUM(total) > 0";
+
+    private static final String SCAN_NAMES_AND_EMAILS = "SELECT id, name, email FROM contact";
+
+    private static final String SCAN_PHONES = "SELECT id, name, phone_digits, version FROM contact " +
+            "WHERE phone_digits IS NOT NULL AND phone_digits <> ''";
+
+    private static final int SCAN_FETCH_SIZE = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final PhotoUrlResolver photoUrlResolver;
+
+    public ContactRepositoryCustomImpl(NamedParameterJdbcTemplate jdbcTemplate, PhotoUrlResolver photoUrlResolver) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.photoUrlResolver = photoUrlResolver;
+    }
+
+    @Override
+    public Page<Map<String, Object>> findAll(ContactProjection projection, ContactFilter filter, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = ContactSpecifications.where(filter, params);
+
+        return page(projection, where, orderBy(pageable.getSort()), params, pageable);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findAllFuzzy(ContactProjection projection,
+                                                  String search,
+                                                  String digits,
+                                                  Pageable pageable
+    ) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("search", search)
+                .addValue("digits", digits);
+
+        return page(projection, " WHERE " + FUZZY_CONDITION, " ORDER BY " + FUZZY_SCORE + " DESC, c.name", params, pageable);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findById(ContactProjection projection, UUID id) {
+        String sql = select(projection) + " WHERE c.id = :id";
+
+        List<Map<String, Object>> contacts = jdbcTemplate.query(
+                sql,
+                new MapSqlParameterSource("id", id),
+                rowMapper(projection)
+        );
+
+        return contacts.stream().findFirst();
+    }
+
+    @Override
+    public InsertResult insert(Contact contact, UUID categoryId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("categoryId", categoryId)
+                .addValue("name", contact.getName())
+                .addValue("email", contact.getEmail())
+                .addValue("phone", contact.getPhone())
+                .addValue("photo", contact.getPhoto())
+                .addValue("searchName", contact.getSearchName())
+                .addValue("searchEmail", contact.getSearchEmail())
+                .addValue("searchPhone", contact.getSearchPhone())
+                .addValue("phoneDigits", contact.getPhoneDigits())
+                .addValue("phoneDigitsReversed", contact.getPhoneDigitsReversed())
+                .addValue("emailDomain", contact.getEmailDomain())
+                .addValue("sortKey", contact.getSortKey())
+                .addValue("nameInitial", contact.getNameInitial());
+
+        return jdbcTemplate.queryForObject(
+                INSERT_CONTACT,
+                params,
+                (rs, rowNum) -> new InsertResult(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("category_name"),
+                        rs.getObject("category_version", Long.class)
+                )
+        );
+    }
+
+    @Override
+    public List<InsertResult> insertAll(List<NewContact> contacts) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringJoiner rows = new StringJoiner(", ");
+
+        for (int i = 0; i < contacts.size(); i++) {
+            Contact contact = contacts.get(i).contact();
+
+            rows.add(String.format(
+                    "(%1$d, CAST(:name%1$d AS VARCHAR), CAST(:email%1$d AS VARCHAR), CAST(:phone%1$d AS VARCHAR), " +
+                            "CAST(:photo%1$d AS VARCHAR), CAST(:categoryId%1$d AS UUID), CAST(:searchName%1$d AS VARCHAR), " +
+                            "CAST(:searchEmail%1$d AS VARCHAR), CAST(:searchPhone%1$d AS VARCHAR), " +
+                            "CAST(:phoneDigits%1$d AS VARCHAR), CAST(:phoneDigitsReversed%1$d AS VARCHAR), " +
+                            "CAST(:emailDomain%1$d AS VARCHAR), CAST(:sortKey%1$d AS BYTEA), CAST(:nameInitial%1$d AS VARCHAR))",
+                    i
+            ));
+
+            params.addValue("name" + i, contact.getName())
+                    .addValue("email" + i, contact.getEmail())
+                    .addValue("phone" + i, contact.getPhone())
+                    .addValue("photo" + i, contact.getPhoto())
+                    .addValue("categoryId" + i, contacts.get(i).categoryId())
+                    .addValue("searchName" + i, contact.getSearchName())
+                    .addValue("searchEmail" + i, contact.getSearchEmail())
+                    .addValue("searchPhone" + i, contact.getSearchPhone())
+                    .addValue("phoneDigits" + i, contact.getPhoneDigits())
+                    .addValue("phoneDigitsReversed" + i, contact.getPhoneDigitsReversed())
+                    .addValue("emailDomain" + i, contact.getEmailDomain())
+                    .addValue("sortKey" + i, contact.getSortKey())
+                    .addValue("nameInitial" + i, contact.getNameInitial());
+        }
+
+        return jdbcTemplate.query(
+                String.format(INSERT_ALL_CONTACTS, rows),
+                params,
+                (rs, rowNum) -> new InsertResult(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("category_name"),
+                        rs.getObject("category_version", Long.class)
+                )
+        );
+    }
+
+    @Override
+    public ChangePage findChangesSince(long sinceXid, long sinceSeq, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("sinceXid", sinceXid)
+                .addValue("sinceSeq", sinceSeq)
+                .addValue("limit", limit);
+
+        List<Change> changes = new ArrayList<>();
+        long[] horizon = new long[2];
+
+        jdbcTemplate.query(FIND_CHANGES, params, (RowCallbackHandler) rs -> {
+            horizon[0] = rs.getLong("horizon");
+            horizon[1] = rs.getLong("purged");
+
+            UUID id = rs.getObject("id", UUID.class);
+
+            if(id == null) {
+                return;
+            }
+
+            long xid = rs.getLong("change_xid");
+            long sequence = rs.getLong("change_seq");
+
+            if(rs.getBoolean("deleted")) {
+                changes.add(new Change(xid, sequence, id, null));
+                return;
+            }
+
+            UUID categoryId = rs.getObject("category_id", UUID.class);
+            Category category = categoryId == null ? null : new Category(categoryId, rs.getString("category_name"));
+            String photo = rs.getString("photo");
+
+            Contact contact = new Contact(
+                    id,
+                    rs.getString("name"),
+                    rs.getString("email"),
+                    rs.getString("phone"),
+                    photo,
+                    photoUrlResolver.resolve(photo),
+                    category
+            );
+
+            changes.add(new Change(xid, sequence, id, contact));
+        });
+
+        return new ChangePage(horizon[0], horizon[1], changes);
+    }
+
+    @Override
+    public int purgeTombstones(Duration retention) {
+        Integer purged = jdbcTemplate.queryForObject(
+                PURGE_TOMBSTONES,
+                new MapSqlParameterSource("retentionSeconds", retention.toSeconds()),
+                Integer.class
+        );
+
+        return purged == null ? 0 : purged;
+    }
+
+    @Override
+    public List<InitialCount> countByInitial(UUID categoryId) {
+        String sql = String.format(COUNT_BY_INITIAL, categoryId == null ? "" : " WHERE category_id = :categoryId");
+
+        return jdbcTemplate.query(sql, new MapSqlParameterSource("categoryId", categoryId), initialCountMapper());
+    }
+
+    @Override
+    public List<InitialCount> countByInitialMatching(ContactFilter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = ContactSpecifications.where(filter, params);
+        String sql = "SELECT c.name_initial AS initial, COUNT(*) AS total FROM contact c" +
+                (where.isEmpty() ? " WHERE " : where + " AND ") + "c.name_initial IS NOT NULL " +
+                "GROUP BY c.name_initial";
+
+        return jdbcTemplate.query(sql, params, initialCountMapper());
+    }
+
+    @Override
+    public void scanNamesAndEmails(NameAndEmailConsumer consumer) {
+        jdbcTemplate.getJdbcOperations().query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(SCAN_NAMES_AND_EMAILS);
+                    statement.setFetchSize(SCAN_FETCH_SIZE);
+                    return statement;
+                },
+                (RowCallbackHandler) rs -> consumer.accept(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("name"),
+                        rs.getString("email")
+                )
+        );
+    }
+
+    @Override
+    public void scanPhones(PhoneConsumer consumer) {
+        jdbcTemplate.getJdbcOperations().query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(SCAN_PHONES);
+                    statement.setFetchSize(SCAN_FETCH_SIZE);
+                    return statement;
+                },
+                (RowCallbackHandler) rs -> consumer.accept(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("name"),
+                        rs.getString("phone_digits"),
+                        rs.getLong("version")
+                )
+        );
+    }
+
+    private Page<Map<String, Object>> page(ContactProjection projection,
+                                           String where,
+                                           String orderBy,
+                                           MapSqlParameterSource params,
+                                           Pageable pageable
+    ) {
+        StringBuilder sql = new StringBuilder(select(projection)).append(where).append(orderBy);
+
+        if(pageable.isPaged()) {
+            sql.append(" LIMIT :limit OFFSET :offset");
+            params.addValue("limit", pageable.getPageSize());
+            params.addValue("offset", pageable.getOffset());
+        }
+
+        List<Map<String, Object>> contacts = jdbcTemplate.query(sql.toString(), params, rowMapper(projection));
+
+        String countSql = "SELECT COUNT(*) FROM contact c" + where;
+
+        return PageableExecutionUtils.getPage(
+                contacts,
+                pageable,
+                () -> jdbcTemplate.queryForObject(countSql, params, Long.class)
+        );
+    }
+
+    private String select(ContactProjection projection) {
+        String sql = "SELECT " + projection.getSelectClause() + " FROM contact c";
+
+        return projection.joinsCategory()
+                ? sql + " LEFT JOIN category cat ON cat.id = c.category_id"
+                : sql;
+    }
+
+    private String orderBy(Sort sort) {
+        if(sort.isUnsorted()) {
+            return "";
+        }
+
+        StringJoiner orders = new StringJoiner(", ", " ORDER BY ", "");
+
+        sort.forEach(order -> {
+            String column = SORTABLE_COLUMNS.get(order.getProperty());
+
+            if(column == null) {
+                throw new IllegalArgumentException("Unsupported sort property " + order.getProperty());
+            }
+
+            orders.add(column + " " + order.getDirection().name());
+        });
+
+        return orders.toString();
+    }
+
+    private static RowMapper<InitialCount> initialCountMapper() {
+        return (rs, rowNum) -> new InitialCount(rs.getString("initial"), rs.getLong("total"));
+    }
+
+    private RowMapper<Map<String, Object>> rowMapper(ContactProjection projection) {
+        return (rs, rowNum) -> projection.mapRow(rs, photoUrlResolver::resolve);
+    }
+}
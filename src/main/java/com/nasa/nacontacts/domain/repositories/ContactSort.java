@@ -0,0 +1,100 @@
+package com.nasa.nacontacts.domain.repositories;
+
+import com.nasa.nacontacts.domain.exceptions.InvalidFieldException;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+    Ordenações aceitas na listagem: só combinações que um índice composto (V14, V15) entrega já ordenadas,
+    todas com o id no fim para a paginação ser estável. O resto exigiria ordenar a tabela inteira.
+    "name" ordena pela sort_key (collation do locale configurado, CollationKeys), não pela coluna name.
+    Formato: sort=category,name:desc (direção opcional por campo, asc por padrão).
+*/
+public final class ContactSort {
+
+    public enum Field {
+        NAME("name", "sortKey"),
+        EMAIL("email", "email"),
+        CATEGORY("category", "categoryId"),
+        CREATED_AT("createdAt", "createdAt");
+
+        private final String name;
+
+        private final String property;
+
+        Field(String name, String property) {
+            this.name = name;
+            this.property = property;
+        }
+    }
+
+    public static final String TIEBREAKER = "id";
+
+    private static final Map<String, Field> FIELDS_BY_NAME = Arrays.stream(Field.values())
+            .collect(Collectors.toMap(field -> field.name, field -> field));
+
+    private static final Set<List<Field>> INDEXED = Set.of(
+            List.of(Field.NAME),
+            List.of(Field.NAME, Field.EMAIL),
+            List.of(Field.EMAIL),
+            List.of(Field.CATEGORY, Field.NAME),
+            List.of(Field.CREATED_AT)
+    );
+
+    private ContactSort() {
+    }
+
+    public static Sort byName(Sort.Direction direction) {
+        return Sort.by(direction, Field.NAME.property, TIEBREAKER);
+    }
+
+    public static Sort parse(String sort) {
+        List<Field> fields = new ArrayList<>();
+        Sort.Direction direction = null;
+
+        for (String item : sort.split(",")) {
+            String[] parts = item.trim().split(":", 2);
+            Field field = FIELDS_BY_NAME.get(parts[0]);
+
+            if(field == null) {
+                throw new InvalidFieldException("sort", String.format("The sort field %s is not supported", parts[0]));
+            }
+
+            Sort.Direction itemDirection = parts.length == 1
+                    ? Sort.Direction.ASC
+                    : Sort.Direction.fromOptionalString(parts[1].toUpperCase(Locale.ROOT))
+                        .orElseThrow(() -> new InvalidFieldException("sort", "The sort direction must be asc or desc"));
+
+            if(direction != null && direction != itemDirection) {
+                throw new InvalidFieldException("sort", "All sort fields must use the same direction");
+            }
+
+            direction = itemDirection;
+            fields.add(field);
+        }
+
+        if(!INDEXED.contains(fields)) {
+            throw new InvalidFieldException("sort", "The sort must be one of " + supported());
+        }
+
+        List<String> properties = new ArrayList<>(fields.size() + 1);
+        fields.forEach(field -> properties.add(field.property));
+        properties.add(TIEBREAKER);
+
+        return Sort.by(direction, properties.toArray(String[]::new));
+    }
+
+    private static String supported() {
+        return INDEXED.stream()
+                .map(fields -> fields.stream().map(field -> field.name).collect(Collectors.joining(",")))
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,173 @@
+package com.nasa.nacontacts.domain.repositories;
+
+import com.nasa.nacontacts.domain.Entities.Contact;
+import com.nasa.nacontacts.domain.utils.PhoneNumbers;
+import com.nasa.nacontacts.domain.utils.SearchNormalizer;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Cada filtro tem o predicado JPA (listagem de entidades) e o SQL equivalente (projeções, via JDBC),
+    ambos sobre colunas indexadas. O formato de cada combinação de filtros é montado uma vez e fica em cache;
+    os valores sempre vão como parâmetros, então a mesma combinação gera sempre o mesmo SQL.
+*/
+public final class ContactSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private static final Map<Integer, Shape> SHAPES = new ConcurrentHashMap<>();
+
+    public enum Criterion {
+        CATEGORY("c.category_id = :categoryId"),
+        WITH_PHOTO("c.photo IS NOT NULL"),
+        WITHOUT_PHOTO("c.photo IS NULL"),
+        EMAIL_DOMAIN("c.email_domain = :emailDomain"),
+        NAME_PREFIX("c.search_name LIKE :namePrefix"),
+        SEARCH("(c.search_name LIKE :search OR c.search_email LIKE :search OR c.search_phone LIKE :search)"),
+        PHONE_SEARCH(ContactRepositoryCustom.PHONE_CONDITION);
+
+        private final String condition;
+
+        Criterion(String condition) {
+            this.condition = condition;
+        }
+
+        int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    private ContactSpecifications() {
+    }
+
+    public static Specification<Contact> of(ContactFilter filter) {
+        Shape shape = shapeOf(filter);
+
+        return (root, query, cb) -> shape.toPredicate(root, cb, filter);
+    }
+
+    /*
+        " WHERE ..." com parâmetros nomeados, ou "" sem filtros.
+    */
+    static String where(ContactFilter filter, MapSqlParameterSource params) {
+        Shape shape = shapeOf(filter);
+
+        for (Criterion criterion : shape.criteria) {
+            switch (criterion) {
+                case CATEGORY -> params.addValue("categoryId", filter.categoryId());
+                case EMAIL_DOMAIN -> params.addValue("emailDomain", filter.emailDomain());
+                case NAME_PREFIX -> params.addValue("namePrefix", prefixPattern(filter.namePrefix()));
+                case SEARCH -> params.addValue("search", substringPattern(filter.search()));
+                case PHONE_SEARCH -> {
+                    PhoneNumbers.SearchPatterns patterns = filter.phonePatterns();
+                    params.addValue("prefix", patterns.prefix())
+                            .addValue("nationalPrefix", patterns.nationalPrefix())
+                            .addValue("reversedPrefix", patterns.reversedPrefix());
+                }
+                default -> {
+                }
+            }
+        }
+
+        return shape.where;
+    }
+
+    private static Shape shapeOf(ContactFilter filter) {
+        return SHAPES.computeIfAbsent(filter.mask(), ContactSpecifications::compile);
+    }
+
+    private static Shape compile(int mask) {
+        EnumSet<Criterion> criteria = EnumSet.noneOf(Criterion.class);
+
+        for (Criterion criterion : Criterion.values()) {
+            if((mask & criterion.bit()) != 0) {
+                criteria.add(criterion);
+            }
+        }
+
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "");
+        where.setEmptyValue("");
+        criteria.forEach(criterion -> where.add(criterion.condition));
+
+        return new Shape(List.copyOf(criteria), where.toString());
+    }
+
+    static String prefixPattern(String value) {
+        return escape(value) + "%";
+    }
+
+    static String substringPattern(String search) {
+        return "%" + escape(SearchNormalizer.normalize(search)) + "%";
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if(c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+
+            escaped.append(c);
+        }
+
+        return escaped.toString();
+    }
+
+    private record Shape(List<Criterion> criteria, String where) {
+
+        Predicate toPredicate(Root<Contact> root, CriteriaBuilder cb, ContactFilter filter) {
+            if(criteria.isEmpty()) {
+                return null;
+            }
+
+            List<Predicate> predicates = new ArrayList<>(criteria.size());
+
+            for (Criterion criterion : criteria) {
+                predicates.add(switch (criterion) {
+                    case CATEGORY -> cb.equal(root.get("category").get("id"), filter.categoryId());
+                    case WITH_PHOTO -> cb.isNotNull(root.get("photo"));
+                    case WITHOUT_PHOTO -> cb.isNull(root.get("photo"));
+                    case EMAIL_DOMAIN -> cb.equal(root.get("emailDomain"), filter.emailDomain());
+                    case NAME_PREFIX -> cb.like(root.get("searchName"), prefixPattern(filter.namePrefix()), ESCAPE);
+                    case SEARCH -> {
+                        String pattern = substringPattern(filter.search());
+
+                        yield cb.or(
+                                cb.like(root.get("searchName"), pattern, ESCAPE),
+                                cb.like(root.get("searchEmail"), pattern, ESCAPE),
+                                cb.like(root.get("searchPhone"), pattern, ESCAPE)
+                        );
+                    }
+                    case PHONE_SEARCH -> {
+                        PhoneNumbers.SearchPatterns patterns = filter.phonePatterns();
+                        List<Predicate> phone = new ArrayList<>(3);
+
+                        phone.add(cb.like(root.get("phoneDigits"), patterns.prefix()));
+                        phone.add(cb.like(root.get("phoneDigits"), patterns.nationalPrefix()));
+
+                        if(patterns.reversedPrefix() != null) {
+                            phone.add(cb.like(root.get("phoneDigitsReversed"), patterns.reversedPrefix()));
+                        }
+
+                        yield cb.or(phone.toArray(Predicate[]::new));
+                    }
+                });
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.nasa.nacontacts.domain.services;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncStorageService {
+
+    CompletableFuture<Void> saveFile(MultipartFile file, String fileName);
+
+    CompletableFuture<Void> deleteFile(String fileName);
+}
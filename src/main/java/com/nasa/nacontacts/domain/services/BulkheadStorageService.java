@@ -0,0 +1,233 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.config.StorageProperties;
+import com.nasa.nacontacts.domain.exceptions.DeadlineExceededException;
+import com.nasa.nacontacts.domain.exceptions.StorageUnavailableException;
+import com.nasa.nacontacts.domain.utils.CircuitBreaker;
+import com.nasa.nacontacts.domain.utils.Deadline;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+    Isola o storage do resto da aplicação: no máximo maxConcurrentCalls operações em voo, cada uma com timeout,
+    e um circuit breaker que recusa uploads na hora enquanto o backend está falhando.
+    O permit só é devolvido quando a operação real termina, mesmo que quem chamou já tenha desistido por timeout.
+    Uploads respeitam também o prazo da requisição; estourar o prazo do cliente não conta como falha do storage.
+*/
+@ManagedResource(objectName = "nacontacts:type=StorageBulkhead", description = "Storage bulkhead")
+public class BulkheadStorageService implements AsyncStorageService {
+
+    private final AsyncStorageService delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final int maxConcurrentCalls;
+
+    private final Semaphore permits;
+
+    private final Duration saveTimeout;
+
+    private final Duration deleteTimeout;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final LongAdder rejections = new LongAdder();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder deadlinesExceeded = new LongAdder();
+
+    public BulkheadStorageService(AsyncStorageService delegate,
+                                  ThreadPoolExecutor executor,
+                                  StorageProperties.Bulkhead bulkhead
+    ) {
+        this(delegate, executor, bulkhead, new CircuitBreaker(
+                bulkhead.getFailureThreshold(),
+                bulkhead.getOpenDuration().toMillis()
+        ));
+    }
+
+    public BulkheadStorageService(AsyncStorageService delegate,
+                                  ThreadPoolExecutor executor,
+                                  StorageProperties.Bulkhead bulkhead,
+                                  CircuitBreaker circuitBreaker
+    ) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.maxConcurrentCalls = bulkhead.getMaxConcurrentCalls();
+        this.permits = new Semaphore(maxConcurrentCalls);
+        this.saveTimeout = bulkhead.getSaveTimeout();
+        this.deleteTimeout = bulkhead.getDeleteTimeout();
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public CompletableFuture<Void> saveFile(MultipartFile file, String fileName) {
+        Deadline deadline = Deadline.current().orElse(null);
+
+        if(deadline != null && deadline.isExpired()) {
+            deadlinesExceeded.increment();
+
+            return CompletableFuture.failedFuture(new DeadlineExceededException());
+        }
+
+        if(!permits.tryAcquire()) {
+            return reject("Storage is busy, please try again", 1);
+        }
+
+        if(!circuitBreaker.tryAcquire()) {
+            permits.release();
+
+            return reject(
+                    "Storage is unavailable, please try again later",
+                    Math.max(1, TimeUnit.MILLISECONDS.toSeconds(circuitBreaker.getRetryAfterMillis()))
+            );
+        }
+
+        return call(
+                () -> delegate.saveFile(file, fileName),
+                saveTimeout,
+                deadline,
+                () -> delegate.deleteFile(fileName)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteFile(String fileName) {
+        if(!permits.tryAcquire()) {
+            return reject("Storage is busy, please try again", 1);
+        }
+
+        return call(() -> delegate.deleteFile(fileName), deleteTimeout, null, null);
+    }
+
+    @ManagedAttribute(description = "Storage operations in flight")
+    public int getInFlight() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    @ManagedAttribute(description = "Storage operations waiting in the executor queue")
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @ManagedAttribute(description = "Storage operations rejected by the bulkhead or the circuit breaker")
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    @ManagedAttribute(description = "Storage operations that exceeded their timeout")
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    @ManagedAttribute(description = "Storage operations that failed in the backend")
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @ManagedAttribute(description = "Storage operations abandoned because the request deadline passed")
+    public long getDeadlinesExceeded() {
+        return deadlinesExceeded.sum();
+    }
+
+    @ManagedAttribute(description = "Circuit breaker state")
+    public String getCircuitState() {
+        return circuitBreaker.getState().name();
+    }
+
+    /*
+        compensation desfaz uma operação que terminou com sucesso depois do timeout (ex.: upload atrasado).
+    */
+    private CompletableFuture<Void> call(Supplier<CompletableFuture<Void>> operation,
+                                         Duration timeout,
+                                         Deadline deadline,
+                                         Supplier<CompletableFuture<Void>> compensation
+    ) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture<Void> underlying;
+
+        try {
+            underlying = operation.get();
+        } catch (RuntimeException e) {
+            permits.release();
+            onFailure(e);
+
+            return CompletableFuture.failedFuture(e);
+        }
+
+        underlying.whenComplete((done, error) -> {
+            permits.release();
+
+            if(error == null) {
+                if(result.complete(null)) {
+                    circuitBreaker.onSuccess();
+                } else if(compensation != null) {
+                    compensation.get();
+                }
+
+                return;
+            }
+
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+
+            if(result.completeExceptionally(cause)) {
+                onFailure(cause);
+            }
+        });
+
+        if(deadline != null && deadline.remainingNanos() < timeout.toNanos()) {
+            /* A chamada abandonada não é sucesso nem falha do storage, mas libera a chamada de teste do meio-aberto. */
+            CompletableFuture.delayedExecutor(deadline.remainingMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+                if(result.completeExceptionally(new DeadlineExceededException())) {
+                    deadlinesExceeded.increment();
+                    circuitBreaker.onIgnored();
+                }
+            });
+
+            return result;
+        }
+
+        CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if(result.completeExceptionally(new StorageUnavailableException("Storage timed out, please try again", 1))) {
+                timeouts.increment();
+                circuitBreaker.onFailure();
+            }
+        });
+
+        return result;
+    }
+
+    private void onFailure(Throwable cause) {
+        if(cause instanceof DeadlineExceededException) {
+            deadlinesExceeded.increment();
+            circuitBreaker.onIgnored();
+            return;
+        }
+
+        if(cause instanceof StorageUnavailableException) {
+            rejections.increment();
+            circuitBreaker.onIgnored();
+            return;
+        }
+
+        failures.increment();
+        circuitBreaker.onFailure();
+    }
+
+    private CompletableFuture<Void> reject(String message, long retryAfterSeconds) {
+        rejections.increment();
+
+        return CompletableFuture.failedFuture(new StorageUnavailableException(message, retryAfterSeconds));
+    }
+}
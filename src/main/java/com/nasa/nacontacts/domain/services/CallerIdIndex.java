@@ -0,0 +1,462 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.dtos.ContactLookupDTO;
+import com.nasa.nacontacts.domain.events.ChangeEvent;
+import com.nasa.nacontacts.domain.events.RemoteChangeEvent;
+import com.nasa.nacontacts.domain.repositories.ContactRepository;
+import com.nasa.nacontacts.domain.utils.PhoneNumbers;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Identificação de chamadas: telefone E.164 (os dígitos como long) -> id e nome do contato.
+    Tabela hash de endereçamento aberto em arrays primitivos; a consulta não aloca nada.
+    Memória por milhão de contatos (fator de carga até 0,5): 2^21 slots x 12 bytes (long + int) = 24 MB,
+    mais 36 bytes por contato (telefone, id, versão e início do nome) = 36 MB, mais os nomes em char[]
+    (2 bytes/char, ~30 MB para nomes de 15 caracteres): ~90 MB, e o dobro durante um rebuild.
+    Como no ContactSuggestIndex, escritas entram num delta pequeno (também uma tabela imutável,
+    refeita a cada escrita), as de outros nós chegam pelo RemoteChangeEvent e um rebuild periódico
+    cobre as notificações perdidas. Cada entrada guarda a versão do contato, conferida antes de responder.
+*/
+@Slf4j
+@Component
+public class CallerIdIndex implements SmartLifecycle {
+
+    private static final int MAX_KEY_DIGITS = 18;
+
+    private final ContactRepository contactRepository;
+
+    private final TransactionOperations transactionOperations;
+
+    private final int compactThreshold;
+
+    private final long rebuildIntervalMillis;
+
+    private final ScheduledExecutorService updater;
+
+    /* Só a thread do updater mexe aqui; o que os leitores veem é state.delta. */
+    private final Map<UUID, Entry> pending = new HashMap<>();
+
+    private volatile State state = new State(Table.EMPTY, Table.EMPTY);
+
+    private volatile boolean ready;
+
+    private volatile boolean running;
+
+    public CallerIdIndex(ContactRepository contactRepository,
+                         TransactionOperations transactionOperations,
+                         @Value("${contacts.caller-id.compact-threshold:512}") int compactThreshold,
+                         @Value("${contacts.caller-id.rebuild-interval:10m}") Duration rebuildInterval
+    ) {
+        this.contactRepository = contactRepository;
+        this.transactionOperations = transactionOperations;
+        this.compactThreshold = compactThreshold;
+        this.rebuildIntervalMillis = rebuildInterval.toMillis();
+        this.updater = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "caller-id-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        State current = state;
+
+        return current.snapshot.size() + current.delta.size();
+    }
+
+    /*
+        null quando o número não está no índice. A versão é a do contato quando a entrada foi gravada:
+        quem responde com ela deve conferir contra o banco.
+    */
+    public Match lookup(long phone) {
+        if(phone <= 0) {
+            return null;
+        }
+
+        State current = state;
+        int entry = current.delta.find(phone);
+
+        if(entry >= 0) {
+            return current.delta.toMatch(entry);
+        }
+
+        entry = current.snapshot.find(phone);
+
+        if(entry < 0 || current.delta.containsId(current.snapshot.idHigh[entry], current.snapshot.idLow[entry])) {
+            return null;
+        }
+
+        return current.snapshot.toMatch(entry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if(!"contact".equals(event.entity())) {
+            return;
+        }
+
+        try {
+            updater.execute(() -> refresh(event));
+        } catch (RejectedExecutionException e) {
+            log.debug("Caller ID index is stopped, ignoring {}", event);
+        }
+    }
+
+    /*
+        As escritas deste nó chegam pelos dois caminhos; reler o contato duas vezes não muda o resultado.
+    */
+    @EventListener
+    public void onRemoteChange(RemoteChangeEvent event) {
+        onChange(event.change());
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        updater.scheduleWithFixedDelay(this::rebuild, 0, rebuildIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        updater.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /*
+        Os dígitos E.164 (sem o "+") como long; 0 quando não cabem ou não são só dígitos.
+    */
+    public static long keyOf(String digits) {
+        if(digits == null || digits.isEmpty() || digits.length() > MAX_KEY_DIGITS) {
+            return 0;
+        }
+
+        long key = 0;
+
+        for (int i = 0; i < digits.length(); i++) {
+            char c = digits.charAt(i);
+
+            if(c < '0' || c > '9') {
+                return 0;
+            }
+
+            key = key * 10 + (c - '0');
+        }
+
+        return key;
+    }
+
+    void refresh(ChangeEvent event) {
+        Entry entry = event.type() == ChangeEvent.Type.DELETED
+                ? Entry.REMOVED
+                : contactRepository.findById(event.id())
+                    .map(contact -> new Entry(
+                            contact.getName(),
+                            keyOf(PhoneNumbers.digitsOf(contact.getPhone())),
+                            contact.getVersion()
+                    ))
+                    .orElse(Entry.REMOVED);
+
+        pending.put(event.id(), entry);
+
+        if(pending.size() >= compactThreshold) {
+            compact();
+            return;
+        }
+
+        Table.Builder delta = new Table.Builder();
+        pending.forEach((id, value) -> delta.add(id, value.name, value.phone, value.version));
+
+        state = new State(state.snapshot, delta.build(true));
+    }
+
+    void rebuild() {
+        try {
+            Table.Builder builder = new Table.Builder();
+
+            transactionOperations.execute(status -> {
+                contactRepository.scanPhones((id, name, digits, version) -> {
+                    long key = keyOf(digits);
+
+                    if(key != 0) {
+                        builder.add(id, name, key, version);
+                    }
+                });
+                return null;
+            });
+
+            pending.clear();
+            state = new State(builder.build(false), Table.EMPTY);
+            ready = true;
+
+            log.info("Caller ID index built with {} phones", state.snapshot.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not build the caller ID index", e);
+        }
+    }
+
+    private void compact() {
+        Table snapshot = state.snapshot;
+        Table.Builder builder = new Table.Builder();
+
+        for (int e = 0; e < snapshot.size(); e++) {
+            UUID id = new UUID(snapshot.idHigh[e], snapshot.idLow[e]);
+
+            if(snapshot.phone[e] != 0 && !pending.containsKey(id)) {
+                builder.add(id, snapshot.name(e), snapshot.phone[e], snapshot.version[e]);
+            }
+        }
+
+        pending.forEach((id, entry) -> {
+            if(entry.phone != 0) {
+                builder.add(id, entry.name, entry.phone, entry.version);
+            }
+        });
+        pending.clear();
+
+        state = new State(builder.build(false), Table.EMPTY);
+    }
+
+    private record State(Table snapshot, Table delta) {}
+
+    /*
+        phone == 0: o contato foi removido ou ficou sem telefone.
+    */
+    private record Entry(String name, long phone, long version) {
+
+        static final Entry REMOVED = new Entry(null, 0, 0);
+    }
+
+    public record Match(UUID id, String name, long version) {
+
+        public ContactLookupDTO toLookup() {
+            return new ContactLookupDTO(id, name);
+        }
+    }
+
+    /*
+        Entradas densas (phone, id, versão, nome) e uma tabela de slots phone -> entrada com sondagem linear.
+        No delta há também um índice por id, para saber quais entradas do snapshot foram sobrepostas.
+    */
+    static final class Table {
+
+        static final Table EMPTY = new Builder().build(true);
+
+        private final long[] phone;
+
+        private final long[] idHigh;
+
+        private final long[] idLow;
+
+        private final long[] version;
+
+        private final char[] names;
+
+        private final int[] nameStart;
+
+        private final long[] slotPhone;
+
+        private final int[] slotEntry;
+
+        private final int[] idSlots;
+
+        private final int mask;
+
+        private Table(long[] phone, long[] idHigh, long[] idLow, long[] version, char[] names, int[] nameStart, boolean indexIds) {
+            this.phone = phone;
+            this.idHigh = idHigh;
+            this.idLow = idLow;
+            this.version = version;
+            this.names = names;
+            this.nameStart = nameStart;
+
+            int capacity = Math.max(2, Integer.highestOneBit(Math.max(1, phone.length * 2) - 1) << 1);
+            this.mask = capacity - 1;
+            this.slotPhone = new long[capacity];
+            this.slotEntry = new int[capacity];
+            this.idSlots = indexIds ? new int[capacity] : null;
+
+            if(idSlots != null) {
+                Arrays.fill(idSlots, -1);
+            }
+
+            for (int e = 0; e < phone.length; e++) {
+                if(phone[e] != 0) {
+                    putPhone(e);
+                }
+
+                if(idSlots != null) {
+                    int slot = (int) mix(idHigh[e] ^ Long.rotateLeft(idLow[e], 32)) & mask;
+
+                    while (idSlots[slot] >= 0) {
+                        slot = (slot + 1) & mask;
+                    }
+
+                    idSlots[slot] = e;
+                }
+            }
+        }
+
+        int size() {
+            return phone.length;
+        }
+
+        int find(long key) {
+            int slot = (int) mix(key) & mask;
+
+            while (true) {
+                long current = slotPhone[slot];
+
+                if(current == key) {
+                    return slotEntry[slot];
+                }
+
+                if(current == 0) {
+                    return -1;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        boolean containsId(long high, long low) {
+            if(idSlots == null || phone.length == 0) {
+                return false;
+            }
+
+            int slot = (int) mix(high ^ Long.rotateLeft(low, 32)) & mask;
+
+            while (true) {
+                int e = idSlots[slot];
+
+                if(e < 0) {
+                    return false;
+                }
+
+                if(idHigh[e] == high && idLow[e] == low) {
+                    return true;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        Match toMatch(int e) {
+            return new Match(new UUID(idHigh[e], idLow[e]), name(e), version[e]);
+        }
+
+        String name(int e) {
+            return new String(names, nameStart[e], nameStart[e + 1] - nameStart[e]);
+        }
+
+        /*
+            Telefone repetido: fica o primeiro contato.
+        */
+        private void putPhone(int e) {
+            int slot = (int) mix(phone[e]) & mask;
+
+            while (slotPhone[slot] != 0) {
+                if(slotPhone[slot] == phone[e]) {
+                    return;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+
+            slotPhone[slot] = phone[e];
+            slotEntry[slot] = e;
+        }
+
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb9fe1a85ec53L;
+            value ^= value >>> 33;
+            return value;
+        }
+
+        static final class Builder {
+
+            private long[] phone = new long[64];
+
+            private long[] idHigh = new long[64];
+
+            private long[] idLow = new long[64];
+
+            private long[] version = new long[64];
+
+            private int[] nameStart = new int[65];
+
+            private final StringBuilder names = new StringBuilder();
+
+            private int count;
+
+            /*
+                Entradas sem telefone só entram no delta, onde marcam o contato como sobreposto.
+            */
+            void add(UUID id, String name, long key, long version) {
+                if(count == phone.length) {
+                    phone = Arrays.copyOf(phone, count * 2);
+                    idHigh = Arrays.copyOf(idHigh, count * 2);
+                    idLow = Arrays.copyOf(idLow, count * 2);
+                    this.version = Arrays.copyOf(this.version, count * 2);
+                    nameStart = Arrays.copyOf(nameStart, count * 2 + 1);
+                }
+
+                phone[count] = key;
+                idHigh[count] = id.getMostSignificantBits();
+                idLow[count] = id.getLeastSignificantBits();
+                this.version[count] = version;
+                nameStart[count] = names.length();
+
+                if(name != null) {
+                    names.append(name);
+                }
+
+                count++;
+                nameStart[count] = names.length();
+            }
+
+            Table build(boolean indexIds) {
+                char[] nameChars = new char[names.length()];
+                names.getChars(0, names.length(), nameChars, 0);
+
+                return new Table(
+                        Arrays.copyOf(phone, count),
+                        Arrays.copyOf(idHigh, count),
+                        Arrays.copyOf(idLow, count),
+                        Arrays.copyOf(version, count),
+                        nameChars,
+                        Arrays.copyOf(nameStart, count + 1),
+                        indexIds
+                );
+            }
+        }
+    }
+}
@@ -1,29 +1,41 @@
 package com.nasa.nacontacts.domain.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.nasa.nacontacts.domain.Entities.Category;
 import com.nasa.nacontacts.domain.dtos.request.CreateCategoryRequest;
 import com.nasa.nacontacts.domain.dtos.request.UpdateCategoryRequest;
+import com.nasa.nacontacts.domain.events.ChangeEvent;
 import com.nasa.nacontacts.domain.exceptions.CategoryExistsException;
 import com.nasa.nacontacts.domain.exceptions.EntityNotFoundException;
+import com.nasa.nacontacts.domain.exceptions.PreconditionFailedException;
 import com.nasa.nacontacts.domain.repositories.CategoryRepository;
+import com.nasa.nacontacts.domain.utils.ETags;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+import static com.nasa.nacontacts.domain.utils.JsonMergePatch.*;
 import static com.nasa.nacontacts.domain.utils.StringUtils.removeAccents;
 
 @Service
 @Transactional()
 public class CategoryService {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name");
+
     private final CategoryRepository categoryRepository;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CategoryService(CategoryRepository categoryRepository, ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public Page<Category> list(Pageable pageable,String search) {
@@ -46,39 +58,92 @@ public class CategoryService {
     }
 
     public Category create(CreateCategoryRequest category) {
-        Optional<Category> categoryExists = categoryRepository.findByName(category.name());
+        UUID id = categoryRepository.insertIfNameAbsent(category.name())
+                .orElseThrow(CategoryExistsException::new);
+
+        eventPublisher.publishEvent(ChangeEvent.category(ChangeEvent.Type.CREATED, id));
+
+        return new Category(id, category.name(), 0L);
+    }
+
+    public String findETag(UUID id) {
+        Long version = categoryRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException(id, Category.class));
 
-        if(categoryExists.isPresent()) {
-            throw new CategoryExistsException();
+        return ETags.of(version);
+    }
+
+    public void update(UUID id, UpdateCategoryRequest request) {
+        update(id, request, null);
+    }
+
+    public void update(UUID id, UpdateCategoryRequest request, List<Long> expectedVersions) {
+        int updated;
+
+        if(expectedVersions == null) {
+            updated = categoryRepository.updateName(id, request.name());
+        } else {
+            updated = expectedVersions.isEmpty() ? 0 : categoryRepository.updateName(id, request.name(), expectedVersions);
         }
 
-        Category newCategory = new Category();
+        if(updated > 0) {
+            eventPublisher.publishEvent(ChangeEvent.category(ChangeEvent.Type.UPDATED, id));
+            return;
+        }
 
-        newCategory.setName(category.name());
+        /* Nenhuma linha: a categoria não existe, o If-Match não bate ou o nome já era esse (nada a fazer). */
+        Long version = categoryRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException(id, Category.class));
 
-        newCategory = categoryRepository.save(newCategory);
+        if(expectedVersions != null && !expectedVersions.contains(version)) {
+            throw new PreconditionFailedException();
+        }
+    }
 
-        return newCategory;
+    public void patch(UUID id, JsonNode patch) {
+        patch(id, patch, null);
     }
 
-    public void update(UUID id, UpdateCategoryRequest request) {
+    public void patch(UUID id, JsonNode patch, List<Long> expectedVersions) {
+        validate(patch, PATCHABLE_FIELDS);
+
         Category category = this.findById(id);
 
-        if(!category.getName().equals(request.name())) {
-            categoryRepository.findByName(request.name())
-                    .ifPresent(c -> {
-                        throw new CategoryExistsException();
-                    });
+        checkVersion(category, expectedVersions);
 
-            category.setName(request.name());
+        if(!patch.has("name")) {
+            return;
         }
 
-        categoryRepository.save(category);
+        String name = requiredText(patch, "name", "Name is required");
+
+        if(!apply(category.getName(), name, category::setName)) {
+            return;
+        }
+
+        categoryRepository.flush();
+
+        eventPublisher.publishEvent(ChangeEvent.category(ChangeEvent.Type.UPDATED, id));
     }
 
     public void delete(UUID id) {
+        delete(id, null);
+    }
+
+    public void delete(UUID id, List<Long> expectedVersions) {
        Category category = this.findById(id);
 
+       checkVersion(category, expectedVersions);
+
        categoryRepository.delete(category);
+
+       eventPublisher.publishEvent(ChangeEvent.category(ChangeEvent.Type.DELETED, id));
+    }
+
+    private void checkVersion(Category category, List<Long> expectedVersions) {
+        if(expectedVersions != null
+                && (category.getVersion() == null || !expectedVersions.contains(category.getVersion()))) {
+            throw new PreconditionFailedException();
+        }
     }
 }
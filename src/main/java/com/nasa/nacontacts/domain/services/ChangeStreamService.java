@@ -0,0 +1,166 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.events.ChangeEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    Assinantes ociosos não ocupam thread: cada um é só um SseEmitter assíncrono e uma fila limitada.
+    Um pool pequeno drena as filas; quem enche a fila é desconectado e deve se recuperar via /contacts/changes.
+    O pool continua em threads de plataforma mesmo no perfil virtual-threads: SseEmitter.send é synchronized
+    e escreve no socket, o que prenderia a carrier thread.
+*/
+@Service
+public class ChangeStreamService {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService senders;
+
+    private final ScheduledExecutorService heartbeats;
+
+    private final int bufferSize;
+
+    private final long timeoutMillis;
+
+    public ChangeStreamService(@Value("${contacts.stream.buffer-size:256}") int bufferSize,
+                               @Value("${contacts.stream.timeout:30m}") Duration timeout,
+                               @Value("${contacts.stream.heartbeat:15s}") Duration heartbeat,
+                               @Value("${contacts.stream.sender-threads:4}") int senderThreads
+    ) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.senders = Executors.newFixedThreadPool(senderThreads, daemonThreads("change-stream-sender"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemonThreads("change-stream-heartbeat"));
+
+        long heartbeatMillis = heartbeat.toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        subscribers.add(subscriber);
+
+        return emitter;
+    }
+
+    public void broadcast(ChangeEvent event) {
+        SseEmitter.SseEventBuilder message = SseEmitter.event()
+                .name(event.name())
+                .data(event, MediaType.APPLICATION_JSON);
+
+        subscribers.forEach(subscriber -> subscriber.offer(message));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private void heartbeat() {
+        SseEmitter.SseEventBuilder ping = SseEmitter.event().comment("ping");
+
+        subscribers.forEach(subscriber -> subscriber.offer(ping));
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        };
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private volatile boolean lagging;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /*
+            Nunca bloqueia quem publica: com a fila cheia só marca o assinante,
+            e a thread que está enviando para ele encerra a conexão.
+        */
+        void offer(SseEmitter.SseEventBuilder message) {
+            if(!queue.offer(message)) {
+                lagging = true;
+                subscribers.remove(this);
+            }
+
+            schedule();
+        }
+
+        private void schedule() {
+            if(scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                SseEmitter.SseEventBuilder message;
+
+                while (!lagging && (message = queue.poll()) != null) {
+                    emitter.send(message);
+                }
+
+                if(lagging) {
+                    queue.clear();
+                    emitter.complete();
+                }
+            } catch (IOException e) {
+                subscribers.remove(this);
+                queue.clear();
+                emitter.completeWithError(e);
+            } catch (IllegalStateException e) {
+                subscribers.remove(this);
+                queue.clear();
+            } finally {
+                scheduled.set(false);
+            }
+
+            if(!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
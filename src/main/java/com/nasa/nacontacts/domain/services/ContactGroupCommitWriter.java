@@ -0,0 +1,242 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.Entities.Contact;
+import com.nasa.nacontacts.domain.events.ChangeEvent;
+import com.nasa.nacontacts.domain.exceptions.DeadlineExceededException;
+import com.nasa.nacontacts.domain.repositories.ContactRepository;
+import com.nasa.nacontacts.domain.repositories.ContactRepositoryCustom.InsertResult;
+import com.nasa.nacontacts.domain.repositories.ContactRepositoryCustom.NewContact;
+import com.nasa.nacontacts.domain.utils.Deadline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Group commit: uma única thread junta os creates concorrentes por até window (ou maxBatchSize contatos)
+    e grava todos num INSERT multi-linha, numa transação só, pagando um fsync por lote em vez de um por contato.
+    Cada chamador recebe o próprio resultado; se o lote inteiro falhar, as linhas são regravadas uma a uma
+    para que o erro chegue só a quem o causou.
+*/
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "contacts.group-commit", name = "enabled", havingValue = "true")
+public class ContactGroupCommitWriter implements SmartLifecycle {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final ContactRepository contactRepository;
+
+    private final TransactionOperations transactionOperations;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final BlockingQueue<PendingInsert> queue;
+
+    private final long windowNanos;
+
+    private final int maxBatchSize;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    public ContactGroupCommitWriter(ContactRepository contactRepository,
+                                    TransactionOperations transactionOperations,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${contacts.group-commit.window:2ms}") Duration window,
+                                    @Value("${contacts.group-commit.max-batch-size:64}") int maxBatchSize,
+                                    @Value("${contacts.group-commit.queue-capacity:4096}") int queueCapacity
+    ) {
+        this.contactRepository = contactRepository;
+        this.transactionOperations = transactionOperations;
+        this.eventPublisher = eventPublisher;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /*
+        null: o writer está parado ou a fila está cheia, e quem chamou deve gravar sozinho.
+    */
+    public CompletableFuture<InsertResult> trySubmit(Contact contact, UUID categoryId) {
+        PendingInsert pending = new PendingInsert(
+                new NewContact(contact, categoryId),
+                Deadline.current().orElse(null),
+                new CompletableFuture<>()
+        );
+
+        if(!running || !queue.offer(pending)) {
+            return null;
+        }
+
+        return pending.result();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "contact-group-commit");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+
+        if(thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        PendingInsert pending;
+
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new IllegalStateException("The contact writer is shutting down"));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+                if(first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                collect(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error writing a contact batch", e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<PendingInsert> batch) throws InterruptedException {
+        long windowEnd = System.nanoTime() + windowNanos;
+
+        while (batch.size() < maxBatchSize) {
+            long remaining = windowEnd - System.nanoTime();
+            PendingInsert next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+
+            if(next == null) {
+                return;
+            }
+
+            batch.add(next);
+        }
+    }
+
+    /*
+        Emails repetidos no mesmo lote vão para o lote seguinte, para o segundo receber o conflito do banco.
+    */
+    private void flush(List<PendingInsert> batch) {
+        List<PendingInsert> pending = batch;
+
+        while (!pending.isEmpty()) {
+            List<PendingInsert> current = new ArrayList<>(pending.size());
+            List<PendingInsert> deferred = new ArrayList<>();
+            Set<String> emails = new HashSet<>();
+
+            for (PendingInsert insert : pending) {
+                if(insert.deadline() != null && insert.deadline().isExpired()) {
+                    insert.result().completeExceptionally(new DeadlineExceededException());
+                } else if(emails.add(insert.contact().contact().getEmail())) {
+                    current.add(insert);
+                } else {
+                    deferred.add(insert);
+                }
+            }
+
+            insertAll(current);
+            pending = deferred;
+        }
+    }
+
+    private void insertAll(List<PendingInsert> batch) {
+        if(batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<InsertResult> results = transactionOperations.execute(status -> {
+                List<InsertResult> inserted = contactRepository.insertAll(
+                        batch.stream().map(PendingInsert::contact).toList()
+                );
+
+                inserted.forEach(this::publishCreated);
+
+                return inserted;
+            });
+
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            if(batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+
+            log.debug("Contact batch of {} failed, retrying row by row", batch.size(), e);
+            batch.forEach(this::insertOne);
+        }
+    }
+
+    private void insertOne(PendingInsert pending) {
+        try {
+            InsertResult result = transactionOperations.execute(status -> {
+                InsertResult inserted = contactRepository.insert(
+                        pending.contact().contact(),
+                        pending.contact().categoryId()
+                );
+
+                publishCreated(inserted);
+
+                return inserted;
+            });
+
+            pending.result().complete(result);
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private void publishCreated(InsertResult result) {
+        if(result.id() != null) {
+            eventPublisher.publishEvent(ChangeEvent.contact(ChangeEvent.Type.CREATED, result.id()));
+        }
+    }
+
+    private record PendingInsert(NewContact contact, Deadline deadline, CompletableFuture<InsertResult> result) {}
+}
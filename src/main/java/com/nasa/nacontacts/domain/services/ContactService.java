@@ -1,50 +1,183 @@
 package com.nasa.nacontacts.domain.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.nasa.nacontacts.domain.Entities.Category;
 import com.nasa.nacontacts.domain.Entities.Contact;
+import com.nasa.nacontacts.domain.dtos.ContactLookupDTO;
+import com.nasa.nacontacts.domain.dtos.ContactSuggestionDTO;
 import com.nasa.nacontacts.domain.dtos.request.CreateContactRequest;
 import com.nasa.nacontacts.domain.dtos.request.UpdateContactRequest;
+import com.nasa.nacontacts.domain.events.ChangeEvent;
+import com.nasa.nacontacts.domain.exceptions.ChangeTokenExpiredException;
 import com.nasa.nacontacts.domain.exceptions.EmailAlreadyInUseException;
 import com.nasa.nacontacts.domain.exceptions.EntityNotFoundException;
+import com.nasa.nacontacts.domain.exceptions.InvalidFieldException;
+import com.nasa.nacontacts.domain.exceptions.PreconditionFailedException;
+import com.nasa.nacontacts.domain.repositories.ContactFilter;
+import com.nasa.nacontacts.domain.repositories.ContactProjection;
 import com.nasa.nacontacts.domain.repositories.ContactRepository;
+import com.nasa.nacontacts.domain.repositories.ContactRepositoryCustom;
+import com.nasa.nacontacts.domain.repositories.ContactSort;
+import com.nasa.nacontacts.domain.repositories.ContactSpecifications;
+import com.nasa.nacontacts.domain.utils.ChangeTokens;
+import com.nasa.nacontacts.domain.utils.ETags;
+import com.nasa.nacontacts.domain.utils.PhoneNumbers;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
-import static com.nasa.nacontacts.domain.utils.StringUtils.removeAccents;
+import static com.nasa.nacontacts.domain.utils.JsonMergePatch.*;
 
 @Service
 public class ContactService {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "email", "phone", "category_id");
+
+    private static final ContactProjection SUGGESTION_FIELDS = ContactProjection.of("id,name,email");
+
     private final ContactRepository contactRepository;
 
     private final CategoryService categoryService;
 
-    private final StorageService storageService;
+    private final AsyncStorageService storageService;
+
+    private final PhotoUrlResolver photoUrlResolver;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SearchService searchService;
+
+    private final ContactSuggestIndex suggestIndex;
+
+    private final CallerIdIndex callerIdIndex;
+
+    private final TransactionOperations transactionOperations;
+
+    private final ContactGroupCommitWriter groupCommitWriter;
 
     public ContactService(ContactRepository contactRepository,
                           CategoryService categoryService,
-                          StorageService storageService
+                          AsyncStorageService storageService,
+                          PhotoUrlResolver photoUrlResolver,
+                          ApplicationEventPublisher eventPublisher,
+                          SearchService searchService,
+                          ContactSuggestIndex suggestIndex,
+                          CallerIdIndex callerIdIndex,
+                          TransactionOperations transactionOperations,
+                          @Nullable ContactGroupCommitWriter groupCommitWriter
     ) {
         this.contactRepository = contactRepository;
         this.categoryService = categoryService;
         this.storageService = storageService;
+        this.photoUrlResolver = photoUrlResolver;
+        this.eventPublisher = eventPublisher;
+        this.searchService = searchService;
+        this.suggestIndex = suggestIndex;
+        this.callerIdIndex = callerIdIndex;
+        this.transactionOperations = transactionOperations;
+        this.groupCommitWriter = groupCommitWriter;
     }
 
     public Page<Contact> list(Pageable pageable, String search) {
-        Page<Contact> contacts = contactRepository.findAll(
-               removeAccents(search),
-               pageable
-        );
+        Page<Contact> contacts = searchService.search(search, pageable);
 
         return contacts;
     }
 
+    public Page<Map<String, Object>> list(Pageable pageable, String search, ContactProjection projection) {
+        return searchService.search(search, pageable, projection);
+    }
+
+    /*
+        Só a busca textual passa pelo SearchService (fuzzy, telefone); com outros filtros a query é montada
+        com apenas os predicados pedidos.
+    */
+    public Page<Contact> list(Pageable pageable, ContactFilter filter) {
+        if(!filter.hasFilters()) {
+            return list(pageable, filter.search());
+        }
+
+        return contactRepository.findAll(ContactSpecifications.of(filter), pageable);
+    }
+
+    public Page<Map<String, Object>> list(Pageable pageable, ContactFilter filter, ContactProjection projection) {
+        if(!filter.hasFilters()) {
+            return list(pageable, filter.search(), projection);
+        }
+
+        return contactRepository.findAll(projection, filter, pageable);
+    }
+
+    /*
+        Enquanto o índice carrega (logo após o startup), a sugestão cai na busca no banco.
+    */
+    public List<ContactSuggestionDTO> suggest(String query, int limit) {
+        if(suggestIndex.isReady()) {
+            return suggestIndex.search(query, limit);
+        }
+
+        return contactRepository.findAll(SUGGESTION_FIELDS, ContactFilter.search(query), PageRequest.of(0, limit, ContactSort.byName(Sort.Direction.ASC)))
+                .map(row -> new ContactSuggestionDTO(
+                        (UUID) row.get("id"),
+                        (String) row.get("name"),
+                        (String) row.get("email")
+                ))
+                .getContent();
+    }
+
+    /*
+        Só com categoria (ou nada), as contagens vêm do agregado mantido pelo trigger do V16/V18;
+        com busca ou outros filtros, de um GROUP BY sobre as linhas filtradas.
+    */
+    public List<ContactRepositoryCustom.InitialCount> countByInitial(ContactFilter filter) {
+        if(filter.isCategoryOnly()) {
+            return contactRepository.countByInitial(filter.categoryId());
+        }
+
+        return contactRepository.countByInitialMatching(filter);
+    }
+
+    /*
+        O índice responde quase tudo; um miss (ou o índice ainda carregando) vai ao banco,
+        porque o contato pode ter sido criado por outro nó depois do último rebuild.
+        Um acerto só vale se a versão gravada no índice ainda é a do contato (uma busca pela chave primária);
+        senão a entrada está velha e a resposta também vem do banco.
+    */
+    public Optional<ContactLookupDTO> lookup(String phone) {
+        String canonical = PhoneNumbers.toE164(phone);
+
+        if(canonical == null) {
+            throw new InvalidFieldException("phone", "Phone is required");
+        }
+
+        String digits = PhoneNumbers.digitsOf(canonical);
+
+        if(callerIdIndex.isReady()) {
+            CallerIdIndex.Match match = callerIdIndex.lookup(CallerIdIndex.keyOf(digits));
+
+            if(match != null && contactRepository.findVersionById(match.id()).orElse(-1L) == match.version()) {
+                return Optional.of(match.toLookup());
+            }
+        }
+
+        return contactRepository.findFirstByPhoneDigits(digits)
+                .map(contact -> new ContactLookupDTO(contact.getId(), contact.getName()));
+    }
+
     public Contact findById(UUID id) {
         Contact contact = contactRepository.findById(id)
                 .orElseThrow(() ->  new EntityNotFoundException(id, Contact.class));
@@ -52,82 +185,216 @@ public class ContactService {
         return contact;
     }
 
+    public Map<String, Object> findById(UUID id, ContactProjection projection) {
+        return contactRepository.findById(projection, id)
+                .orElseThrow(() -> new EntityNotFoundException(id, Contact.class));
+    }
 
-    @Transactional
-    public Contact create(CreateContactRequest contact) {
-        Category categoryExists = categoryService.findById(contact.category_id());
+    public String findETag(UUID id, ContactProjection projection) {
+        String versionTag = contactRepository.findVersionTagById(id)
+                .orElseThrow(() -> new EntityNotFoundException(id, Contact.class));
 
-        Optional<Contact> contactByEmailExists = contactRepository.findByEmail(contact.email());
+        return projection == null
+                ? ETags.quote(versionTag)
+                : ETags.quote(versionTag + ";" + projection.getKey());
+    }
 
-        if(contactByEmailExists.isPresent()) {
-            throw new EmailAlreadyInUseException();
+    /*
+        Se já foram apagados tombstones depois de since, o cliente perderia remoções: precisa recomeçar do zero.
+    */
+    public ContactRepositoryCustom.ChangePage findChangesSince(ChangeTokens.Position since, int limit) {
+        ContactRepositoryCustom.ChangePage page = contactRepository.findChangesSince(since.xid(), since.sequence(), limit + 1);
+
+        if(!since.isStart() && since.xid() <= page.purged()) {
+            throw new ChangeTokenExpiredException();
         }
 
-        String photoName = handlePhoto(contact.photo());
+        return page;
+    }
+
+    public List<Contact> findAllById(List<UUID> ids) {
+        return contactRepository.findAllWithCategoryByIdIn(new LinkedHashSet<>(ids));
+    }
+
+
+    /*
+        Sem @Transactional: no group commit quem grava é o ContactGroupCommitWriter, e a requisição
+        não pode segurar uma conexão do pool enquanto espera o lote.
+    */
+    public Contact create(CreateContactRequest contact) {
+        String photoName = contact.photo() != null
+                ? StorageService.generateFileName(contact.photo().getOriginalFilename())
+                : null;
+
+        try (PhotoUpload upload = PhotoUpload.start(storageService, contact.photo(), photoName)) {
+            Contact newContact = CreateContactRequest.to(contact, photoName, null);
+            newContact.setPhone(PhoneNumbers.toE164(contact.phone()));
+
+            CompletableFuture<ContactRepository.InsertResult> grouped = null;
+
+            if(groupCommitWriter != null) {
+                // O lote é commitado por outra thread, então a foto precisa estar no storage antes;
+                // só é confirmada depois do insert, para ser removida se ele falhar.
+                upload.awaitUploaded();
+                grouped = groupCommitWriter.trySubmit(newContact, contact.category_id());
+            }
+
+            if(grouped != null) {
+                created(newContact, contact.category_id(), PhotoUpload.join(grouped));
+
+                upload.await();
+
+                return newContact;
+            }
+
+            return transactionOperations.execute(status -> {
+                ContactRepository.InsertResult result = contactRepository.insert(newContact, contact.category_id());
+
+                created(newContact, contact.category_id(), result);
 
-        Contact newContact = CreateContactRequest.to(contact, photoName, categoryExists);
+                upload.await();
 
-        return contactRepository.save(newContact);
+                eventPublisher.publishEvent(ChangeEvent.contact(ChangeEvent.Type.CREATED, result.id()));
+
+                return newContact;
+            });
+        }
     }
 
     @Transactional
     public void update(UUID id, UpdateContactRequest request) {
-        Contact existingContact = this.findById(id);
+        update(id, request, null);
+    }
+
+    @Transactional
+    public void update(UUID id, UpdateContactRequest request, List<Long> expectedVersions) {
+        String photoName = request.photo() != null
+                ? StorageService.generateFileName(request.photo().getOriginalFilename())
+                : null;
 
-        validateEmailUniqueness(request.email(), existingContact.getId());
+        try (PhotoUpload upload = PhotoUpload.start(storageService, request.photo(), photoName)) {
+            Contact existingContact = this.findById(id);
 
-        Category category = resolveCategory(existingContact, request.category_id());
+            checkVersion(existingContact, expectedVersions);
 
-        String photoName = handlePhoto(request.photo(), existingContact.getPhoto());
+            String existingPhotoName = existingContact.getPhoto();
 
-        Contact newContact = UpdateContactRequest.to(id, request, photoName, category);
+            Category category = resolveCategory(existingContact, request.category_id());
 
-        contactRepository.save(newContact);
+            existingContact.setName(request.name());
+            existingContact.setEmail(request.email());
+            existingContact.setPhone(PhoneNumbers.toE164(request.phone()));
+            existingContact.setPhoto(photoName != null ? photoName : existingPhotoName);
+            existingContact.setCategory(category);
+
+            contactRepository.saveAndFlush(existingContact);
+
+            upload.await();
+
+            if(photoName != null && existingPhotoName != null) {
+                PhotoUpload.join(storageService.deleteFile(existingPhotoName));
+            }
+        }
+
+        eventPublisher.publishEvent(ChangeEvent.contact(ChangeEvent.Type.UPDATED, id));
     }
 
     @Transactional
-    public void delete(UUID id) {
+    public void patch(UUID id, JsonNode patch) {
+        patch(id, patch, null);
+    }
+
+    @Transactional
+    public void patch(UUID id, JsonNode patch, List<Long> expectedVersions) {
+        validate(patch, PATCHABLE_FIELDS);
+
         Contact contact = this.findById(id);
 
-        if(contact.getPhoto() != null) {
-            storageService.deleteFile(contact.getPhoto());
+        checkVersion(contact, expectedVersions);
+
+        boolean changed = false;
+
+        if(patch.has("name")) {
+            String name = requiredText(patch, "name", "Name is required");
+            changed |= apply(contact.getName(), name, contact::setName);
         }
 
-        contactRepository.delete(contact);
-    }
+        if(patch.has("email")) {
+            String email = requiredText(patch, "email", "Email is required");
+            changed |= apply(contact.getEmail(), email, contact::setEmail);
+        }
+
+        if(patch.has("phone")) {
+            changed |= apply(contact.getPhone(), PhoneNumbers.toE164(nullableText(patch, "phone")), contact::setPhone);
+        }
 
-    private void validateEmailUniqueness(String email, UUID existingContactId) {
-        Optional<Contact> contactByEmailExists = contactRepository.findByEmail(email);
+        if(patch.has("category_id")) {
+            UUID categoryId = requiredUuid(patch, "category_id", "CategoryId is required");
 
-        contactByEmailExists.ifPresent((c) -> {
-            if(!c.getId().equals(existingContactId)) {
-                throw new EmailAlreadyInUseException();
+            if(!categoryId.equals(contact.getCategory().getId())) {
+                contact.setCategory(categoryService.findById(categoryId));
+                changed = true;
             }
-        });
+        }
+
+        if(!changed) {
+            return;
+        }
+
+        contactRepository.flush();
+
+        eventPublisher.publishEvent(ChangeEvent.contact(ChangeEvent.Type.UPDATED, id));
     }
 
-    private Category resolveCategory(Contact existingContact, UUID categoryId) {
-        return existingContact.getCategory().getId().equals(categoryId)
-                ? existingContact.getCategory()
-                : categoryService.findById(categoryId);
+    @Transactional
+    public void delete(UUID id) {
+        delete(id, null);
     }
 
-    private String handlePhoto(MultipartFile newFile, String existingPhotoName) {
-        if(newFile != null){
-            String newPhotoName = StorageService.generateFileName(newFile.getOriginalFilename());
-            storageService.saveFile(newFile, newPhotoName);
+    @Transactional
+    public void delete(UUID id, List<Long> expectedVersions) {
+        Contact contact = this.findById(id);
 
-            if(existingPhotoName != null) {
-                storageService.deleteFile(existingPhotoName);
-            }
+        checkVersion(contact, expectedVersions);
+
+        CompletableFuture<Void> photoDeletion = contact.getPhoto() != null
+                ? storageService.deleteFile(contact.getPhoto())
+                : CompletableFuture.completedFuture(null);
+
+        contactRepository.delete(contact);
 
-            return newPhotoName;
+        PhotoUpload.join(photoDeletion);
+
+        eventPublisher.publishEvent(ChangeEvent.contact(ChangeEvent.Type.DELETED, id));
+    }
+
+    private Contact created(Contact newContact, UUID categoryId, ContactRepository.InsertResult result) {
+        if(result.categoryName() == null) {
+            throw new EntityNotFoundException(categoryId, Category.class);
         }
 
-        return existingPhotoName;
+        if(result.id() == null) {
+            throw new EmailAlreadyInUseException();
+        }
+
+        newContact.setId(result.id());
+        newContact.setVersion(0L);
+        newContact.setCategory(new Category(categoryId, result.categoryName(), result.categoryVersion()));
+        newContact.setPhotoUrl(photoUrlResolver.resolve(newContact.getPhoto()));
+
+        return newContact;
     }
 
-    private String handlePhoto(MultipartFile newFile) {
-        return handlePhoto(newFile, null);
+    private void checkVersion(Contact contact, List<Long> expectedVersions) {
+        if(expectedVersions != null
+                && (contact.getVersion() == null || !expectedVersions.contains(contact.getVersion()))) {
+            throw new PreconditionFailedException();
+        }
+    }
+
+    private Category resolveCategory(Contact existingContact, UUID categoryId) {
+        return existingContact.getCategory().getId().equals(categoryId)
+                ? existingContact.getCategory()
+                : categoryService.findById(categoryId);
     }
     ;}
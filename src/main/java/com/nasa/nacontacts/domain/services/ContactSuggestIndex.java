@@ -0,0 +1,504 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.dtos.ContactSuggestionDTO;
+import com.nasa.nacontacts.domain.events.ChangeEvent;
+import com.nasa.nacontacts.domain.events.RemoteChangeEvent;
+import com.nasa.nacontacts.domain.repositories.ContactProjection;
+import com.nasa.nacontacts.domain.repositories.ContactRepository;
+import com.nasa.nacontacts.domain.utils.SearchNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Índice de prefixos para o autocomplete: chaves normalizadas (sem acento, minúsculas) do nome completo,
+    de cada sobrenome e do email, ordenadas num array e consultadas por busca binária.
+    Os dados ficam em arrays primitivos (chars e longs), sem um objeto por contato.
+    Escritas entram num delta pequeno que sobrepõe o snapshot e é compactado de tempos em tempos;
+    todas as mutações rodam numa única thread, e as leituras não travam.
+    Escritas de outros nós chegam pelo LISTEN/NOTIFY (RemoteChangeEvent); o rebuild periódico
+    cobre as notificações perdidas enquanto o listener reconectava.
+*/
+@Slf4j
+@Component
+public class ContactSuggestIndex implements SmartLifecycle {
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private static final int MAX_NAME_TOKENS = 4;
+
+    private static final Entry DELETED = new Entry(null, null, new String[0]);
+
+    private static final ContactProjection NAME_AND_EMAIL = ContactProjection.of("id,name,email");
+
+    private final ContactRepository contactRepository;
+
+    private final TransactionOperations transactionOperations;
+
+    private final int compactThreshold;
+
+    private final long rebuildIntervalMillis;
+
+    private final ScheduledExecutorService updater;
+
+    private volatile State state = new State(Snapshot.EMPTY, new ConcurrentHashMap<>());
+
+    private volatile boolean ready;
+
+    private volatile boolean running;
+
+    public ContactSuggestIndex(ContactRepository contactRepository,
+                               TransactionOperations transactionOperations,
+                               @Value("${contacts.suggest.compact-threshold:1024}") int compactThreshold,
+                               @Value("${contacts.suggest.rebuild-interval:10m}") Duration rebuildInterval
+    ) {
+        this.contactRepository = contactRepository;
+        this.transactionOperations = transactionOperations;
+        this.compactThreshold = compactThreshold;
+        this.rebuildIntervalMillis = rebuildInterval.toMillis();
+        this.updater = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "contact-suggest-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        State current = state;
+
+        return current.snapshot.contactCount() + current.delta.size();
+    }
+
+    public List<ContactSuggestionDTO> search(String query, int limit) {
+        String prefix = normalize(query);
+
+        if(prefix.isEmpty()) {
+            return List.of();
+        }
+
+        State current = state;
+        List<Match> matches = new ArrayList<>(limit);
+
+        current.snapshot.collect(prefix, limit, current.delta, matches);
+
+        current.delta.forEach((id, entry) -> {
+            String key = entry.matchingKey(prefix);
+
+            if(key != null) {
+                matches.add(new Match(key, new ContactSuggestionDTO(id, entry.name, entry.email)));
+            }
+        });
+
+        matches.sort(Comparator.comparing(Match::key));
+
+        return matches.stream()
+                .limit(limit)
+                .map(Match::suggestion)
+                .toList();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if(!"contact".equals(event.entity())) {
+            return;
+        }
+
+        try {
+            updater.execute(() -> refresh(event));
+        } catch (RejectedExecutionException e) {
+            log.debug("Suggest index is stopped, ignoring {}", event);
+        }
+    }
+
+    /*
+        As escritas deste nó chegam pelos dois caminhos; reler o contato duas vezes não muda o resultado.
+    */
+    @EventListener
+    public void onRemoteChange(RemoteChangeEvent event) {
+        onChange(event.change());
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        updater.scheduleWithFixedDelay(this::rebuild, 0, rebuildIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        updater.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /*
+        Relê o contato depois do commit em vez de confiar no que o request tinha na memória.
+    */
+    void refresh(ChangeEvent event) {
+        Entry entry = event.type() == ChangeEvent.Type.DELETED
+                ? DELETED
+                : contactRepository.findById(NAME_AND_EMAIL, event.id())
+                    .map(row -> Entry.of((String) row.get("name"), (String) row.get("email")))
+                    .orElse(DELETED);
+
+        State current = state;
+        current.delta.put(event.id(), entry);
+
+        if(current.delta.size() >= compactThreshold) {
+            compact();
+        }
+    }
+
+    void rebuild() {
+        try {
+            Snapshot.Builder builder = new Snapshot.Builder();
+
+            transactionOperations.execute(status -> {
+                contactRepository.scanNamesAndEmails(builder::add);
+                return null;
+            });
+
+            state = new State(builder.build(), new ConcurrentHashMap<>());
+            ready = true;
+
+            log.info("Suggest index built with {} contacts", state.snapshot.contactCount());
+        } catch (RuntimeException e) {
+            log.warn("Could not build the suggest index", e);
+        }
+    }
+
+    private void compact() {
+        State current = state;
+        Snapshot.Builder builder = new Snapshot.Builder();
+
+        current.snapshot.forEach((id, name, email) -> {
+            if(!current.delta.containsKey(id)) {
+                builder.add(id, name, email);
+            }
+        });
+
+        current.delta.forEach((id, entry) -> {
+            if(entry != DELETED) {
+                builder.add(id, entry.name, entry.email);
+            }
+        });
+
+        state = new State(builder.build(), new ConcurrentHashMap<>());
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : SearchNormalizer.normalize(value.trim());
+    }
+
+    static String[] keysOf(String name, String email) {
+        List<String> keys = new ArrayList<>(MAX_NAME_TOKENS + 1);
+        String normalizedName = normalize(name);
+
+        if(!normalizedName.isEmpty()) {
+            keys.add(truncate(normalizedName));
+
+            String[] tokens = normalizedName.split("\\s+");
+
+            for (int i = 1; i < tokens.length && i < MAX_NAME_TOKENS; i++) {
+                keys.add(truncate(tokens[i]));
+            }
+        }
+
+        String normalizedEmail = normalize(email);
+
+        if(!normalizedEmail.isEmpty()) {
+            keys.add(truncate(normalizedEmail));
+        }
+
+        return keys.toArray(String[]::new);
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private record State(Snapshot snapshot, Map<UUID, Entry> delta) {}
+
+    private record Match(String key, ContactSuggestionDTO suggestion) {}
+
+    private record Entry(String name, String email, String[] keys) {
+
+        static Entry of(String name, String email) {
+            return new Entry(name, email, keysOf(name, email));
+        }
+
+        String matchingKey(String prefix) {
+            for (String key : keys) {
+                if(key.startsWith(prefix)) {
+                    return key;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface ContactConsumer {
+        void accept(UUID id, String name, String email);
+    }
+
+    /*
+        Contatos: id em dois longs e nome + email concatenados em text, a partir de textStart[c].
+        Chaves: concatenadas em keys, a partir de keyStart[k], ordenadas, apontando para o contato keyContact[k].
+    */
+    static final class Snapshot {
+
+        static final Snapshot EMPTY = new Builder().build();
+
+        private final long[] idHigh;
+
+        private final long[] idLow;
+
+        private final char[] text;
+
+        private final int[] textStart;
+
+        private final int[] nameLength;
+
+        private final char[] keys;
+
+        private final int[] keyStart;
+
+        private final int[] keyContact;
+
+        private Snapshot(long[] idHigh, long[] idLow, char[] text, int[] textStart, int[] nameLength,
+                         char[] keys, int[] keyStart, int[] keyContact) {
+            this.idHigh = idHigh;
+            this.idLow = idLow;
+            this.text = text;
+            this.textStart = textStart;
+            this.nameLength = nameLength;
+            this.keys = keys;
+            this.keyStart = keyStart;
+            this.keyContact = keyContact;
+        }
+
+        int contactCount() {
+            return idHigh.length;
+        }
+
+        void collect(String prefix, int limit, Map<UUID, Entry> overridden, List<Match> out) {
+            int[] seen = new int[limit];
+            int found = 0;
+
+            for (int k = lowerBound(prefix); k < keyContact.length && found < limit && startsWith(k, prefix); k++) {
+                int contact = keyContact[k];
+
+                if(contains(seen, found, contact)) {
+                    continue;
+                }
+
+                UUID id = new UUID(idHigh[contact], idLow[contact]);
+
+                if(overridden.containsKey(id)) {
+                    continue;
+                }
+
+                seen[found++] = contact;
+                out.add(new Match(key(k), new ContactSuggestionDTO(id, name(contact), email(contact))));
+            }
+        }
+
+        void forEach(ContactConsumer consumer) {
+            for (int c = 0; c < idHigh.length; c++) {
+                consumer.accept(new UUID(idHigh[c], idLow[c]), name(c), email(c));
+            }
+        }
+
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = keyContact.length;
+
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+
+                if(compare(mid, prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            return low;
+        }
+
+        private int compare(int k, String value) {
+            int start = keyStart[k];
+            int length = keyStart[k + 1] - start;
+            int common = Math.min(length, value.length());
+
+            for (int i = 0; i < common; i++) {
+                int diff = keys[start + i] - value.charAt(i);
+
+                if(diff != 0) {
+                    return diff;
+                }
+            }
+
+            return length - value.length();
+        }
+
+        private boolean startsWith(int k, String prefix) {
+            int start = keyStart[k];
+
+            if(keyStart[k + 1] - start < prefix.length()) {
+                return false;
+            }
+
+            for (int i = 0; i < prefix.length(); i++) {
+                if(keys[start + i] != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private String key(int k) {
+            return new String(keys, keyStart[k], keyStart[k + 1] - keyStart[k]);
+        }
+
+        private String name(int c) {
+            return nameLength[c] < 0 ? null : new String(text, textStart[c], nameLength[c]);
+        }
+
+        private String email(int c) {
+            int start = textStart[c] + Math.max(0, nameLength[c]);
+
+            return new String(text, start, textStart[c + 1] - start);
+        }
+
+        private static boolean contains(int[] values, int count, int value) {
+            for (int i = 0; i < count; i++) {
+                if(values[i] == value) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /*
+            Só o build usa objetos temporários (as chaves como String, para ordenar).
+        */
+        static final class Builder {
+
+            private long[] idHigh = new long[64];
+
+            private long[] idLow = new long[64];
+
+            private int[] textStart = new int[65];
+
+            private int[] nameLength = new int[64];
+
+            private final StringBuilder text = new StringBuilder();
+
+            private final List<String> keyList = new ArrayList<>();
+
+            private int[] keyContactList = new int[64];
+
+            private int count;
+
+            void add(UUID id, String name, String email) {
+                if(count == idHigh.length) {
+                    idHigh = Arrays.copyOf(idHigh, count * 2);
+                    idLow = Arrays.copyOf(idLow, count * 2);
+                    textStart = Arrays.copyOf(textStart, count * 2 + 1);
+                    nameLength = Arrays.copyOf(nameLength, count * 2);
+                }
+
+                idHigh[count] = id.getMostSignificantBits();
+                idLow[count] = id.getLeastSignificantBits();
+                textStart[count] = text.length();
+                nameLength[count] = name == null ? -1 : name.length();
+
+                if(name != null) {
+                    text.append(name);
+                }
+
+                if(email != null) {
+                    text.append(email);
+                }
+
+                for (String key : keysOf(name, email)) {
+                    if(keyList.size() == keyContactList.length) {
+                        keyContactList = Arrays.copyOf(keyContactList, keyContactList.length * 2);
+                    }
+
+                    keyContactList[keyList.size()] = count;
+                    keyList.add(key);
+                }
+
+                count++;
+                textStart[count] = text.length();
+            }
+
+            Snapshot build() {
+                int keyCount = keyList.size();
+                Integer[] order = new Integer[keyCount];
+
+                for (int i = 0; i < keyCount; i++) {
+                    order[i] = i;
+                }
+
+                Arrays.sort(order, Comparator.comparing(keyList::get));
+
+                StringBuilder keys = new StringBuilder();
+                int[] keyStart = new int[keyCount + 1];
+                int[] keyContact = new int[keyCount];
+
+                for (int k = 0; k < keyCount; k++) {
+                    keyStart[k] = keys.length();
+                    keyContact[k] = keyContactList[order[k]];
+                    keys.append(keyList.get(order[k]));
+                }
+
+                keyStart[keyCount] = keys.length();
+
+                char[] textChars = new char[text.length()];
+                text.getChars(0, text.length(), textChars, 0);
+
+                char[] keyChars = new char[keys.length()];
+                keys.getChars(0, keys.length(), keyChars, 0);
+
+                return new Snapshot(
+                        Arrays.copyOf(idHigh, count),
+                        Arrays.copyOf(idLow, count),
+                        textChars,
+                        Arrays.copyOf(textStart, count + 1),
+                        Arrays.copyOf(nameLength, count),
+                        keyChars,
+                        keyStart,
+                        keyContact
+                );
+            }
+        }
+    }
+}
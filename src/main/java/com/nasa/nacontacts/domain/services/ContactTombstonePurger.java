@@ -0,0 +1,74 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.repositories.ContactRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Retenção dos tombstones do /contacts/changes: sem ela contact_tombstone cresce para sempre.
+    Clientes com token anterior ao que foi apagado recebem 410 e recomeçam a sincronização do zero.
+*/
+@Slf4j
+@Component
+public class ContactTombstonePurger implements SmartLifecycle {
+
+    private final ContactRepository contactRepository;
+
+    private final Duration retention;
+
+    private final long purgeIntervalMillis;
+
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean running;
+
+    public ContactTombstonePurger(ContactRepository contactRepository,
+                                  @Value("${contacts.changes.tombstone-retention:30d}") Duration retention,
+                                  @Value("${contacts.changes.purge-interval:1h}") Duration purgeInterval
+    ) {
+        this.contactRepository = contactRepository;
+        this.retention = retention;
+        this.purgeIntervalMillis = purgeInterval.toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "contact-tombstone-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        scheduler.scheduleWithFixedDelay(this::purge, purgeIntervalMillis, purgeIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void purge() {
+        try {
+            int purged = contactRepository.purgeTombstones(retention);
+
+            if(purged > 0) {
+                log.info("Purged {} contact tombstones older than {}", purged, retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not purge contact tombstones", e);
+        }
+    }
+}
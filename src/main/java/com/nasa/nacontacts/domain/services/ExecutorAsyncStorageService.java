@@ -0,0 +1,51 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.exceptions.StorageUnavailableException;
+import com.nasa.nacontacts.domain.utils.Deadline;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/*
+    Adapta um StorageService síncrono (ex.: LocalStorageService) rodando as chamadas num executor limitado.
+    Um upload que sai da fila depois do prazo da requisição nem começa.
+*/
+public class ExecutorAsyncStorageService implements AsyncStorageService {
+
+    private final StorageService storageService;
+
+    private final Executor executor;
+
+    public ExecutorAsyncStorageService(StorageService storageService, Executor executor) {
+        this.storageService = storageService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Void> saveFile(MultipartFile file, String fileName) {
+        Deadline deadline = Deadline.current().orElse(null);
+
+        return run(() -> {
+            if(deadline != null) {
+                deadline.check();
+            }
+
+            storageService.saveFile(file, fileName);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteFile(String fileName) {
+        return run(() -> storageService.deleteFile(fileName));
+    }
+
+    private CompletableFuture<Void> run(Runnable task) {
+        try {
+            return CompletableFuture.runAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new StorageUnavailableException("Storage is busy, please try again", 1, e));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.nasa.nacontacts.domain.services;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/*
+    Escopo do upload que roda em paralelo com a validação e a escrita no banco.
+    Usado com try-with-resources: se o bloco sair antes de await(), o objeto enviado é removido
+    assim que o upload terminar, então nenhuma saída (exceção ou retorno) deixa foto órfã.
+*/
+final class PhotoUpload implements AutoCloseable {
+
+    private static final PhotoUpload NONE = new PhotoUpload(null, null, CompletableFuture.completedFuture(null));
+
+    private final AsyncStorageService storageService;
+
+    private final String fileName;
+
+    private final CompletableFuture<Void> upload;
+
+    private boolean awaited;
+
+    private PhotoUpload(AsyncStorageService storageService, String fileName, CompletableFuture<Void> upload) {
+        this.storageService = storageService;
+        this.fileName = fileName;
+        this.upload = upload;
+    }
+
+    static PhotoUpload start(AsyncStorageService storageService, MultipartFile file, String fileName) {
+        if(file == null) {
+            return NONE;
+        }
+
+        return new PhotoUpload(storageService, fileName, storageService.saveFile(file, fileName));
+    }
+
+    /*
+        Espera o upload e confirma a foto: depois disso close() não a remove mais.
+    */
+    void await() {
+        awaited = true;
+
+        join(upload);
+    }
+
+    /*
+        Espera o upload sem confirmar a foto; se o bloco falhar depois, close() ainda a remove.
+    */
+    void awaitUploaded() {
+        join(upload);
+    }
+
+    /*
+        Espera uma operação de storage e relança a falha original em vez da CompletionException.
+    */
+    static <T> T join(CompletableFuture<T> operation) {
+        try {
+            return operation.join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if(awaited || fileName == null) {
+            return;
+        }
+
+        upload.thenCompose(uploaded -> storageService.deleteFile(fileName));
+    }
+}
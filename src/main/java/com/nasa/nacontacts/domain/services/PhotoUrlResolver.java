@@ -0,0 +1,35 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.config.StorageProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+@Component
+public class PhotoUrlResolver {
+
+    private final String cdnUrl;
+
+    private final StorageProperties.StorageType storageType;
+
+    public PhotoUrlResolver(StorageProperties storageProperties) {
+        this.cdnUrl = storageProperties.getCdnUrl();
+        this.storageType = storageProperties.getType();
+    }
+
+    public String resolve(String photo) {
+        if(photo == null) {
+            return null;
+        }
+
+        return switch (storageType) {
+            case Local:
+                yield ServletUriComponentsBuilder
+                        .fromCurrentContextPath()
+                        .path("contacts/image/")
+                        .path(photo)
+                        .toUriString();
+            case S3:
+                yield cdnUrl + photo;
+        };
+    }
+}
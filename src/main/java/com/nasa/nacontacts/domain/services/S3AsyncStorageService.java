@@ -0,0 +1,96 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.amazonaws.event.ProgressEventType;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.nasa.nacontacts.domain.config.StorageProperties;
+import com.nasa.nacontacts.domain.exceptions.FileStorageException;
+import com.nasa.nacontacts.domain.exceptions.StorageNotFoundException;
+import com.nasa.nacontacts.domain.exceptions.StorageUnavailableException;
+import com.nasa.nacontacts.domain.utils.Deadline;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/*
+    Uploads pelo TransferManager: a conclusão chega por ProgressListener, sem thread esperando o S3.
+    O conteúdo vai direto do multipart para o S3, sem cópia no diretório temporário;
+    por isso quem chama precisa aguardar o future antes de a requisição terminar.
+    Com prazo na requisição, o próprio SDK aborta o PUT quando o prazo passa.
+*/
+public class S3AsyncStorageService implements AsyncStorageService {
+
+    private final AmazonS3 s3Client;
+
+    private final TransferManager transferManager;
+
+    private final ExecutorService executor;
+
+    private final String bucketName;
+
+    public S3AsyncStorageService(AmazonS3 s3Client,
+                                 TransferManager transferManager,
+                                 ExecutorService executor,
+                                 StorageProperties storageProperties
+    ) {
+        this.s3Client = s3Client;
+        this.transferManager = transferManager;
+        this.executor = executor;
+        this.bucketName = storageProperties.getS3().getBucketName();
+    }
+
+    @Override
+    public CompletableFuture<Void> saveFile(MultipartFile file, String fileName) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        String errorMessage = "Error storing file " + file.getOriginalFilename() + ", please try again";
+
+        try {
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(file.getSize());
+            metadata.setContentType(file.getContentType());
+
+            PutObjectRequest request = new PutObjectRequest(bucketName, fileName, file.getInputStream(), metadata);
+
+            Deadline.current().ifPresent(deadline ->
+                    request.setSdkClientExecutionTimeout((int) Math.min(Integer.MAX_VALUE, Math.max(1, deadline.remainingMillis())))
+            );
+
+            request.setGeneralProgressListener(event -> {
+                if(event.getEventType() == ProgressEventType.TRANSFER_COMPLETED_EVENT) {
+                    future.complete(null);
+                } else if(event.getEventType() == ProgressEventType.TRANSFER_FAILED_EVENT
+                        || event.getEventType() == ProgressEventType.TRANSFER_CANCELED_EVENT) {
+                    future.completeExceptionally(new FileStorageException(errorMessage));
+                }
+            });
+
+            transferManager.upload(request);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new StorageUnavailableException("Storage is busy, please try again", 1, e));
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(new FileStorageException(errorMessage, e));
+        }
+
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteFile(String fileName) {
+        try {
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    s3Client.deleteObject(bucketName, fileName);
+                } catch (Exception e) {
+                    throw new StorageNotFoundException("Error when deleting file", e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new StorageUnavailableException("Storage is busy, please try again", 1, e));
+        }
+    }
+}
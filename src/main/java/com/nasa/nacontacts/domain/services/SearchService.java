@@ -0,0 +1,18 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.Entities.Contact;
+import com.nasa.nacontacts.domain.repositories.ContactProjection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Map;
+
+/*
+    Backend da busca de contatos (contacts.search.backend). search == null lista todos.
+*/
+public interface SearchService {
+
+    Page<Contact> search(String search, Pageable pageable);
+
+    Page<Map<String, Object>> search(String search, Pageable pageable, ContactProjection projection);
+}
@@ -0,0 +1,43 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.Entities.Contact;
+import com.nasa.nacontacts.domain.repositories.ContactFilter;
+import com.nasa.nacontacts.domain.repositories.ContactProjection;
+import com.nasa.nacontacts.domain.repositories.ContactRepository;
+import com.nasa.nacontacts.domain.repositories.ContactSpecifications;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/*
+    Busca por substring (LIKE) nas colunas normalizadas de nome, email e telefone.
+    Buscas que parecem um telefone vão direto para os índices de prefixo/sufixo de phone_digits (ContactFilter).
+    Com Specification, a ordenação segue o pageable (ContactSort). É o padrão e o fallback dos outros backends.
+*/
+@Service
+@ConditionalOnProperty(name = "contacts.search.backend", havingValue = "sql", matchIfMissing = true)
+public class SqlSearchService implements SearchService {
+
+    private final ContactRepository contactRepository;
+
+    public SqlSearchService(ContactRepository contactRepository) {
+        this.contactRepository = contactRepository;
+    }
+
+    @Override
+    public Page<Contact> search(String search, Pageable pageable) {
+        if(search == null) {
+            return contactRepository.findAll(pageable);
+        }
+
+        return contactRepository.findAll(ContactSpecifications.of(ContactFilter.search(search)), pageable);
+    }
+
+    @Override
+    public Page<Map<String, Object>> search(String search, Pageable pageable, ContactProjection projection) {
+        return contactRepository.findAll(projection, ContactFilter.search(search), pageable);
+    }
+}
@@ -0,0 +1,118 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.Entities.Contact;
+import com.nasa.nacontacts.domain.repositories.ContactProjection;
+import com.nasa.nacontacts.domain.repositories.ContactRepository;
+import com.nasa.nacontacts.domain.utils.PhoneNumbers;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.nasa.nacontacts.domain.utils.SearchNormalizer;
+
+/*
+    Busca com tolerância a erros de digitação e ranking por relevância, usando os índices GIN de trigramas
+    do pg_trgm sobre as colunas search_* (V8): "joao" encontra "João Silva" e "nivaldp" encontra "Nivaldo".
+    O índice é o próprio Postgres, então uma escrita aparece na busca assim que é commitada.
+    Buscas por telefone usam os índices de dígitos da busca SQL. Sem o pg_trgm instalado, cai na busca SQL.
+*/
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "contacts.search.backend", havingValue = "trigram")
+@ManagedResource(objectName = "nacontacts:type=Search", description = "Trigram contact search")
+public class TrigramSearchService implements SearchService {
+
+    private static final String[] INDEXES = { "contact_search_name_trgm_idx", "contact_search_email_trgm_idx" };
+
+    private final ContactRepository contactRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final SqlSearchService fallback;
+
+    public TrigramSearchService(ContactRepository contactRepository, JdbcTemplate jdbcTemplate) {
+        this.contactRepository = contactRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.fallback = new SqlSearchService(contactRepository);
+    }
+
+    @Override
+    public Page<Contact> search(String search, Pageable pageable) {
+        String normalized = normalize(search);
+
+        if(normalized == null) {
+            return fallback.search(null, pageable);
+        }
+
+        if(PhoneNumbers.searchPatterns(search) != null) {
+            return fallback.search(search, pageable);
+        }
+
+        return withFallback(
+                () -> contactRepository.findAllFuzzy(normalized, PhoneNumbers.digitsOf(search), unsorted(pageable)),
+                () -> fallback.search(search, pageable)
+        );
+    }
+
+    @Override
+    public Page<Map<String, Object>> search(String search, Pageable pageable, ContactProjection projection) {
+        String normalized = normalize(search);
+
+        if(normalized == null) {
+            return fallback.search(null, pageable, projection);
+        }
+
+        if(PhoneNumbers.searchPatterns(search) != null) {
+            return fallback.search(search, pageable, projection);
+        }
+
+        return withFallback(
+                () -> contactRepository.findAllFuzzy(projection, normalized, PhoneNumbers.digitsOf(search), pageable),
+                () -> fallback.search(search, pageable, projection)
+        );
+    }
+
+    /*
+        Reconstrói os índices de trigramas sem bloquear escritas (ex.: depois de uma carga grande).
+    */
+    @ManagedOperation(description = "Rebuild the trigram search indexes")
+    public void rebuild() {
+        for (String index : INDEXES) {
+            log.info("Rebuilding search index {}", index);
+            jdbcTemplate.execute("REINDEX INDEX CONCURRENTLY " + index);
+        }
+    }
+
+    private <T> T withFallback(Supplier<T> fuzzy, Supplier<T> sql) {
+        try {
+            return fuzzy.get();
+        } catch (InvalidDataAccessResourceUsageException e) {
+            log.warn("Trigram search is unavailable, falling back to SQL search", e);
+            return sql.get();
+        }
+    }
+
+    private static Pageable unsorted(Pageable pageable) {
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+                : pageable;
+    }
+
+    private static String normalize(String search) {
+        if(search == null || search.isBlank()) {
+            return null;
+        }
+
+        return SearchNormalizer.normalize(search.trim());
+    }
+}
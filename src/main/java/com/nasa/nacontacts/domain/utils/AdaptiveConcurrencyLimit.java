@@ -0,0 +1,122 @@
+package com.nasa.nacontacts.domain.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    Limite de concorrência por gradiente: compara a latência recente (média rápida) com a de referência
+    (média lenta). Se a recente sobe, há fila em algum lugar (Tomcat, Hikari, banco) e o limite cai;
+    se está estável, o limite cresce aos poucos. Chamadas acima do limite são recusadas, não enfileiradas.
+*/
+public final class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_WEIGHT = 0.1;
+
+    private static final double LONG_WEIGHT = 0.005;
+
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double lowPriorityShare;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile double limit;
+
+    private double shortRtt;
+
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double lowPriorityShare) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.lowPriorityShare = lowPriorityShare;
+    }
+
+    /*
+        Requisições de baixa prioridade só usam parte do limite, deixando folga para as baratas.
+    */
+    public boolean tryAcquire(boolean lowPriority) {
+        int allowed = lowPriority
+                ? Math.max(1, (int) (limit * lowPriorityShare))
+                : (int) limit;
+
+        while (true) {
+            int current = inFlight.get();
+
+            if(current >= allowed) {
+                dropped.increment();
+                return false;
+            }
+
+            if(inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void release(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+
+        lock.lock();
+        try {
+            update(rttNanos, current);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long rttNanos, int inFlightAtCompletion) {
+        if(longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+
+        shortRtt = shortRtt + SHORT_WEIGHT * (rttNanos - shortRtt);
+        longRtt = longRtt + LONG_WEIGHT * (rttNanos - longRtt);
+
+        // A referência acompanha rápido uma queda de latência, para não ficar presa num patamar antigo.
+        if(longRtt / shortRtt > 2) {
+            longRtt = longRtt * 0.95;
+        }
+
+        // Com pouca carga a latência não diz nada sobre o limite.
+        if(inFlightAtCompletion < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+        double queueAllowance = Math.sqrt(limit);
+        double newLimit = limit * gradient + queueAllowance;
+
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
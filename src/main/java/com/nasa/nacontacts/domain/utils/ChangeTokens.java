@@ -0,0 +1,64 @@
+package com.nasa.nacontacts.domain.utils;
+
+import com.nasa.nacontacts.domain.exceptions.ChangeTokenExpiredException;
+import com.nasa.nacontacts.domain.exceptions.InvalidFieldException;
+
+public final class ChangeTokens {
+
+    private static final int RADIX = Character.MAX_RADIX;
+
+    private static final char SEPARATOR = '.';
+
+    public static String encode(Position position) {
+        return Long.toString(position.xid(), RADIX) + SEPARATOR + Long.toString(position.sequence(), RADIX);
+    }
+
+    /*
+        Sem token, a sincronização começa do zero (carga completa paginada).
+        Tokens antigos, só com o change_seq, não dizem até onde o cliente viu: ele precisa recomeçar.
+    */
+    public static Position decode(String token) {
+        if(token == null || token.isBlank()) {
+            return Position.START;
+        }
+
+        int separator = token.indexOf(SEPARATOR);
+
+        try {
+            if(separator < 0) {
+                if(Long.parseLong(token, RADIX) >= 0) {
+                    throw new ChangeTokenExpiredException();
+                }
+            } else {
+                long xid = Long.parseLong(token.substring(0, separator), RADIX);
+                long sequence = Long.parseLong(token.substring(separator + 1), RADIX);
+
+                if(xid >= 0 && sequence >= 0) {
+                    return new Position(xid, sequence);
+                }
+            }
+        } catch (NumberFormatException ignored) {
+        }
+
+        throw new InvalidFieldException("since", "The change token " + token + " is not valid");
+    }
+
+    /*
+        Posição no feed de mudanças: tudo até (xid, sequence), nessa ordem, já foi entregue.
+    */
+    public record Position(long xid, long sequence) implements Comparable<Position> {
+
+        public static final Position START = new Position(0, 0);
+
+        public boolean isStart() {
+            return xid == 0 && sequence == 0;
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            int byXid = Long.compare(xid, other.xid);
+
+            return byXid != 0 ? byXid : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.nasa.nacontacts.domain.utils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/*
+    Abre após N falhas consecutivas; depois do intervalo deixa passar uma única chamada de teste
+    (meio-aberto) que fecha o circuito no sucesso ou o reabre na falha.
+*/
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final long CLOSED = -1;
+
+    private final int failureThreshold;
+
+    private final long openMillis;
+
+    private final LongSupplier clock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+    private volatile long openedAt = CLOSED;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    public CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    public boolean tryAcquire() {
+        long opened = openedAt;
+
+        if(opened == CLOSED) {
+            return true;
+        }
+
+        if(clock.getAsLong() - opened < openMillis) {
+            return false;
+        }
+
+        return trialInFlight.compareAndSet(false, true);
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        openedAt = CLOSED;
+        trialInFlight.set(false);
+    }
+
+    public void onFailure() {
+        if(consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = clock.getAsLong();
+        }
+
+        trialInFlight.set(false);
+    }
+
+    /*
+        A chamada liberada não chegou ao backend (ex.: rejeitada localmente): não conta como sucesso nem falha.
+    */
+    public void onIgnored() {
+        trialInFlight.set(false);
+    }
+
+    public State getState() {
+        long opened = openedAt;
+
+        if(opened == CLOSED) {
+            return State.CLOSED;
+        }
+
+        return clock.getAsLong() - opened < openMillis ? State.OPEN : State.HALF_OPEN;
+    }
+
+    public long getRetryAfterMillis() {
+        long opened = openedAt;
+
+        return opened == CLOSED ? 0 : Math.max(0, openMillis - (clock.getAsLong() - opened));
+    }
+}
@@ -0,0 +1,130 @@
+package com.nasa.nacontacts.domain.utils;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+
+/*
+    Chave binária de ordenação (coluna sort_key) calculada ao gravar, para a ordenação por nome vir
+    de um índice btree (comparação byte a byte) e não de uma collation aplicada em cada consulta.
+    Os bytes do CollationKey comparados sem sinal dão a mesma ordem do Collator do locale configurado
+    (contacts.collation.locale); trocar o locale recalcula as chaves no R__Compute_sort_keys.
+*/
+public final class CollationKeys {
+
+    public static final Locale DEFAULT_LOCALE = Locale.forLanguageTag("pt-BR");
+
+    /* Inicial dos nomes que vêm antes do "a" no locale (dígitos, símbolos). */
+    public static final String OTHER_INITIAL = "#";
+
+    /* Mantém a entrada bem abaixo do limite de ~2,7 KB por linha do btree; nomes maiores desempatam pelo id. */
+    private static final int MAX_KEY_BYTES = 1024;
+
+    private static volatile Config config = Config.of(DEFAULT_LOCALE);
+
+    private CollationKeys() {
+    }
+
+    public static void configure(Locale locale) {
+        config = Config.of(locale);
+    }
+
+    public static Locale locale() {
+        return config.locale;
+    }
+
+    public static byte[] of(String value) {
+        if(value == null) {
+            return null;
+        }
+
+        /* getCollationKey do RuleBasedCollator é synchronized: as entidades guardam o resultado (Cached). */
+        CollationKey key = config.collator.getCollationKey(value);
+        byte[] bytes = key.toByteArray();
+
+        return bytes.length > MAX_KEY_BYTES ? Arrays.copyOf(bytes, MAX_KEY_BYTES) : bytes;
+    }
+
+    /*
+        Letra A-Z (ou "#") cujo intervalo de chaves contém o nome: acentos e maiúsculas caem na letra base
+        e cada inicial é um trecho contínuo da ordenação por sort_key. "Z" inclui o que vem depois do "z"
+        (ex.: outros alfabetos).
+    */
+    public static String initialOf(String value) {
+        if(value == null) {
+            return null;
+        }
+
+        return initialOfKey(of(value));
+    }
+
+    private static String initialOfKey(byte[] key) {
+        byte[][] boundaries = config.initials;
+        int low = 0;
+        int high = boundaries.length - 1;
+        int initial = -1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+
+            if(Arrays.compareUnsigned(boundaries[middle], key) <= 0) {
+                initial = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return initial < 0 ? OTHER_INITIAL : String.valueOf((char) ('A' + initial));
+    }
+
+    /*
+        Chave e inicial do último valor visto. Os getters @Access(PROPERTY) das entidades rodam em todo dirty check,
+        flush e serialização, não só quando o nome muda; com isso o Collator só é chamado quando o nome muda.
+    */
+    public static final class Cached {
+
+        private volatile Entry entry;
+
+        public byte[] keyOf(String value) {
+            return entryOf(value).key;
+        }
+
+        public String initialOf(String value) {
+            return entryOf(value).initial;
+        }
+
+        private Entry entryOf(String value) {
+            Entry current = entry;
+
+            if(current == null || current.config != config || !Objects.equals(current.value, value)) {
+                byte[] key = of(value);
+                current = new Entry(config, value, key, key == null ? null : initialOfKey(key));
+                entry = current;
+            }
+
+            return current;
+        }
+
+        private record Entry(Config config, String value, byte[] key, String initial) {}
+    }
+
+    private record Config(Locale locale, Collator collator, byte[][] initials) {
+
+        static Config of(Locale locale) {
+            Collator collator = Collator.getInstance(locale);
+            collator.setStrength(Collator.TERTIARY);
+            collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+
+            byte[][] initials = new byte[26][];
+
+            for (int i = 0; i < initials.length; i++) {
+                initials[i] = collator.getCollationKey(String.valueOf((char) ('a' + i))).toByteArray();
+            }
+
+            return new Config(locale, collator, initials);
+        }
+    }
+}
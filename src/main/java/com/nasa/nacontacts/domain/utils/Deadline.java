@@ -0,0 +1,55 @@
+package com.nasa.nacontacts.domain.utils;
+
+import com.nasa.nacontacts.domain.exceptions.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/*
+    Prazo absoluto da requisição, guardado na thread que a atende (ver DeadlineFilter).
+    Quem entrega trabalho para outra thread precisa capturar o prazo antes, com current().
+*/
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    public static Optional<Deadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public static void set(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, Duration.ofNanos(remainingNanos()).toMillis());
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    public void check() {
+        if(isExpired()) {
+            throw new DeadlineExceededException();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.nasa.nacontacts.domain.utils;
+
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public final class ETags {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    public static String of(Long version) {
+        return quote(String.valueOf(orZero(version)));
+    }
+
+    public static String of(Long version, Long dependentVersion) {
+        return quote(orZero(version) + "." + orZero(dependentVersion));
+    }
+
+    public static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+
+    public static <T> String ofPage(Page<T> page, Function<T, String> tagOf) {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (T item : page) {
+            hash = fnv(hash, tagOf.apply(item));
+        }
+
+        hash = fnv(hash, page.getTotalElements() + ":" + page.getTotalPages());
+
+        return quote(Long.toHexString(hash));
+    }
+
+    /*
+        Versões da própria entidade listadas num If-Match: "3", "3.1" ou uma lista separada por vírgula (RFC 9110).
+        null quando não há pré-condição: ausente, ou "*", que só exige que o recurso exista.
+        If-Match usa comparação forte, então tags fracas (W/) nunca casam; elas e as tags que não são nossas
+        ficam de fora, e uma lista vazia faz a pré-condição falhar.
+    */
+    public static List<Long> parseVersions(String ifMatch) {
+        if(ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        List<Long> versions = new ArrayList<>();
+        int position = 0;
+
+        while (position < ifMatch.length()) {
+            char c = ifMatch.charAt(position);
+
+            if(c == ',' || Character.isWhitespace(c)) {
+                position++;
+                continue;
+            }
+
+            boolean weak = ifMatch.startsWith("W/", position);
+            int open = weak ? position + 2 : position;
+
+            if(open >= ifMatch.length() || ifMatch.charAt(open) != '"') {
+                return List.of();
+            }
+
+            int close = ifMatch.indexOf('"', open + 1);
+
+            if(close < 0) {
+                return List.of();
+            }
+
+            Long version = weak ? null : versionOf(ifMatch.substring(open + 1, close));
+
+            if(version != null) {
+                versions.add(version);
+            }
+
+            position = close + 1;
+        }
+
+        return versions;
+    }
+
+    private static Long versionOf(String tag) {
+        int separator = tag.indexOf('.');
+
+        try {
+            return Long.parseLong(separator >= 0 ? tag.substring(0, separator) : tag);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long orZero(Long version) {
+        return version == null ? 0 : version;
+    }
+
+    private static long fnv(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+}
@@ -0,0 +1,78 @@
+package com.nasa.nacontacts.domain.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nasa.nacontacts.domain.exceptions.InvalidFieldException;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public final class JsonMergePatch {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    public static void validate(JsonNode patch, Set<String> allowedFields) {
+        if(patch == null || !patch.isObject()) {
+            throw new InvalidFieldException("body", "The patch must be a JSON object");
+        }
+
+        Iterator<String> fields = patch.fieldNames();
+
+        while(fields.hasNext()) {
+            String field = fields.next();
+
+            if(!allowedFields.contains(field)) {
+                throw new InvalidFieldException(field);
+            }
+        }
+    }
+
+    public static String requiredText(JsonNode patch, String field, String message) {
+        JsonNode value = patch.get(field);
+
+        if(value == null || !value.isTextual() || value.asText().isEmpty()) {
+            throw new InvalidFieldException(field, message);
+        }
+
+        return value.asText();
+    }
+
+    public static String nullableText(JsonNode patch, String field) {
+        JsonNode value = patch.get(field);
+
+        if(value == null || value.isNull()) {
+            return null;
+        }
+
+        if(!value.isTextual()) {
+            throw new InvalidFieldException(field, String.format("The field %s must be a string", field));
+        }
+
+        return value.asText();
+    }
+
+    public static UUID requiredUuid(JsonNode patch, String field, String message) {
+        String value = requiredText(patch, field, message);
+
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidFieldException(field, String.format("The parameter %s is invalid", field));
+        }
+    }
+
+    /*
+        Só chama o setter quando o valor muda, para a entidade não ficar suja à toa.
+    */
+    public static <T> boolean apply(T current, T value, Consumer<T> setter) {
+        if(Objects.equals(current, value)) {
+            return false;
+        }
+
+        setter.accept(value);
+
+        return true;
+    }
+}
@@ -0,0 +1,147 @@
+package com.nasa.nacontacts.domain.utils;
+
+import com.nasa.nacontacts.domain.exceptions.InvalidFieldException;
+
+/*
+    Telefones são gravados em E.164 ("+5511999990000"). Números sem código de país são tratados como
+    nacionais (Brasil); não há validação de plano de numeração, só de formato e tamanho.
+*/
+public final class PhoneNumbers {
+
+    public static final String DEFAULT_COUNTRY_CODE = "55";
+
+    private static final int MIN_DIGITS = 8;
+
+    private static final int MAX_DIGITS = 15;
+
+    /* DDD + 9 dígitos; acima disso, um número que começa com 55 já traz o código do país. */
+    private static final int MAX_NATIONAL_DIGITS = 11;
+
+    /* Menos que isso numa busca é mais provável ser parte de um nome ou email. */
+    private static final int MIN_SEARCH_DIGITS = 4;
+
+    /*
+        Padrões LIKE para os índices de prefixo (V10): o número começa com os dígitos digitados,
+        começa com eles depois do código do país, ou termina com eles (prefixo dos dígitos invertidos).
+    */
+    public record SearchPatterns(String prefix, String nationalPrefix, String reversedPrefix) {
+    }
+
+    private PhoneNumbers() {
+    }
+
+    public static String toE164(String phone) {
+        if(phone == null || phone.isBlank()) {
+            return null;
+        }
+
+        String value = phone.trim();
+
+        if(!isPhoneLike(value)) {
+            throw invalid();
+        }
+
+        String digits = digitsOf(value);
+
+        if(!value.startsWith("+") && digits.startsWith("00")) {
+            digits = digits.substring(2);
+        } else if(!value.startsWith("+")) {
+            if(digits.startsWith("0")) {
+                digits = digits.substring(1);
+            }
+
+            if(digits.length() <= MAX_NATIONAL_DIGITS || !digits.startsWith(DEFAULT_COUNTRY_CODE)) {
+                digits = DEFAULT_COUNTRY_CODE + digits;
+            }
+        }
+
+        if(digits.length() < MIN_DIGITS || digits.length() > MAX_DIGITS) {
+            throw invalid();
+        }
+
+        return "+" + digits;
+    }
+
+    public static String digitsOf(String value) {
+        if(value == null) {
+            return null;
+        }
+
+        StringBuilder digits = new StringBuilder(value.length());
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if(c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+
+        return digits.toString();
+    }
+
+    public static String reversedDigitsOf(String value) {
+        String digits = digitsOf(value);
+
+        return digits == null ? null : new StringBuilder(digits).reverse().toString();
+    }
+
+    /*
+        null quando a busca não parece um telefone e deve seguir pelo nome/email.
+    */
+    public static SearchPatterns searchPatterns(String search) {
+        if(search == null) {
+            return null;
+        }
+
+        String value = search.trim();
+
+        if(!isPhoneLike(value)) {
+            return null;
+        }
+
+        String digits = digitsOf(value);
+
+        if(digits.length() < MIN_SEARCH_DIGITS) {
+            return null;
+        }
+
+        if(value.startsWith("+") || digits.startsWith("00")) {
+            String international = value.startsWith("+") ? digits : digits.substring(2);
+
+            return new SearchPatterns(international + "%", international + "%", null);
+        }
+
+        String national = digits.startsWith("0") ? digits.substring(1) : digits;
+
+        return new SearchPatterns(
+                digits + "%",
+                DEFAULT_COUNTRY_CODE + national + "%",
+                new StringBuilder(digits).reverse() + "%"
+        );
+    }
+
+    private static boolean isPhoneLike(String value) {
+        if(value.isEmpty()) {
+            return false;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            boolean allowed = (c >= '0' && c <= '9')
+                    || c == ' ' || c == '-' || c == '.' || c == '(' || c == ')' || c == '/'
+                    || (c == '+' && i == 0);
+
+            if(!allowed) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static InvalidFieldException invalid() {
+        return new InvalidFieldException("phone", "Phone must be a valid phone number");
+    }
+}
@@ -0,0 +1,86 @@
+package com.nasa.nacontacts.domain.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/*
+    Normalização das colunas search_* e das buscas: minúsculas e sem acentos.
+    Texto ASCII já minúsculo volta sem nenhuma alocação; Latin-1 e Latin Extended-A são trocados
+    por uma tabela montada uma vez. Só o que sobra (ex.: vietnamita) passa pelo Normalizer.
+*/
+public final class SearchNormalizer {
+
+    private static final int TABLE_SIZE = 0x180;
+
+    private static final char[] FOLD = new char[TABLE_SIZE];
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    static {
+        for (char c = 0; c < TABLE_SIZE; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            FOLD[c] = Character.toLowerCase(decomposed.charAt(0));
+        }
+    }
+
+    private SearchNormalizer() {
+    }
+
+    public static String normalize(String value) {
+        if(value == null) {
+            return null;
+        }
+
+        int length = value.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = value.charAt(i);
+
+            if(c >= 0x80 || (c >= 'A' && c <= 'Z')) {
+                break;
+            }
+
+            i++;
+        }
+
+        if(i == length) {
+            return value;
+        }
+
+        char[] folded = new char[length];
+        value.getChars(0, i, folded, 0);
+        int size = i;
+
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+
+            if(c < TABLE_SIZE) {
+                folded[size++] = FOLD[c];
+            } else if(isCombiningMark(c)) {
+                continue;
+            } else if(isPrecomposedLatin(c)) {
+                return slowPath(value);
+            } else {
+                folded[size++] = Character.toLowerCase(c);
+            }
+        }
+
+        return new String(folded, 0, size);
+    }
+
+    private static boolean isCombiningMark(char c) {
+        return c >= 0x0300 && c <= 0x036F;
+    }
+
+    private static boolean isPrecomposedLatin(char c) {
+        return (c >= 0x0180 && c <= 0x024F) || (c >= 0x1E00 && c <= 0x1EFF);
+    }
+
+    private static String slowPath(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
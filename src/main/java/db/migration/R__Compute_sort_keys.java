@@ -0,0 +1,93 @@
+package db.migration;
+
+import com.nasa.nacontacts.domain.utils.CollationKeys;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/*
+    Recalcula sort_key de contatos e categorias (e name_initial dos contatos, V16), em lotes
+    commitados um a um como no V11. O trigger do V16 acerta contact_initial_count a cada lote.
+    Migration repetível: o checksum é o locale, então o Flyway roda de novo quando
+    contacts.collation.locale muda (e na primeira vez, depois do V15).
+*/
+public class R__Compute_sort_keys extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    /* Incrementar quando mudar o cálculo das chaves em CollationKeys. */
+    private static final int REVISION = 2;
+
+    @Override
+    public Integer getChecksum() {
+        return (CollationKeys.locale().toLanguageTag() + "/" + REVISION).hashCode();
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try {
+            computeSortKeys(connection, "contact", true);
+            computeSortKeys(connection, "category", false);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void computeSortKeys(Connection connection, String table, boolean withInitial) throws SQLException {
+        String selectBatch = "SELECT id, name FROM " + table + " WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE;
+        String updateRow = withInitial
+                ? "UPDATE " + table + " SET sort_key = ?, name_initial = ? WHERE id = ?"
+                : "UPDATE " + table + " SET sort_key = ? WHERE id = ?";
+
+        try (PreparedStatement select = connection.prepareStatement(selectBatch);
+             PreparedStatement update = connection.prepareStatement(updateRow)) {
+            UUID last = new UUID(0L, 0L);
+            int updated;
+
+            do {
+                updated = 0;
+                select.setObject(1, last);
+
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        last = rs.getObject("id", UUID.class);
+                        String name = rs.getString("name");
+                        int parameter = 1;
+
+                        update.setBytes(parameter++, CollationKeys.of(name));
+
+                        if(withInitial) {
+                            update.setString(parameter++, CollationKeys.initialOf(name));
+                        }
+
+                        update.setObject(parameter, last);
+                        update.addBatch();
+                        updated++;
+                    }
+                }
+
+                if(updated > 0) {
+                    update.executeBatch();
+                    connection.commit();
+                }
+            } while (updated == BATCH_SIZE);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package db.migration;
+
+import com.nasa.nacontacts.domain.exceptions.InvalidFieldException;
+import com.nasa.nacontacts.domain.utils.PhoneNumbers;
+import com.nasa.nacontacts.domain.utils.SearchNormalizer;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/*
+    Converte os telefones existentes para E.164 e preenche phone_digits/phone_digits_rev, em lotes
+    commitados um a um como no V9. Telefones que não dá para converter ficam como estão,
+    mas ganham os dígitos para continuarem aparecendo na busca.
+*/
+public class V11__Canonicalize_contact_phones extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String SELECT_PENDING = "SELECT id, phone FROM contact " +
+            "WHERE phone IS NOT NULL AND phone_digits IS NULL AND id > ? ORDER BY id LIMIT " + BATCH_SIZE;
+
+    private static final String UPDATE_CONTACT = "UPDATE contact " +
+            "SET phone = ?, search_phone = ?, phone_digits = ?, phone_digits_rev = ? " +
+            "WHERE id = ?";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement select = connection.prepareStatement(SELECT_PENDING);
+             PreparedStatement update = connection.prepareStatement(UPDATE_CONTACT)) {
+            UUID last = new UUID(0L, 0L);
+            int updated;
+
+            do {
+                updated = 0;
+                select.setObject(1, last);
+
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        last = rs.getObject("id", UUID.class);
+                        String phone = canonicalize(rs.getString("phone"));
+
+                        update.setString(1, phone);
+                        update.setString(2, SearchNormalizer.normalize(phone));
+                        update.setString(3, PhoneNumbers.digitsOf(phone));
+                        update.setString(4, PhoneNumbers.reversedDigitsOf(phone));
+                        update.setObject(5, last);
+                        update.addBatch();
+                        updated++;
+                    }
+                }
+
+                if(updated > 0) {
+                    update.executeBatch();
+                    connection.commit();
+                }
+            } while (updated == BATCH_SIZE);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static String canonicalize(String phone) {
+        try {
+            String canonical = PhoneNumbers.toE164(phone);
+
+            return canonical != null ? canonical : phone;
+        } catch (InvalidFieldException e) {
+            return phone;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/*
+    Preenche email_domain a partir de search_email (já normalizado), em lotes commitados um a um
+    (autocommit) como no V9.
+*/
+public class V13__Backfill_contact_email_domain extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String UPDATE_BATCH = "UPDATE contact SET email_domain = substring(search_email FROM '@([^@]*)$') " +
+            "WHERE id IN (" +
+            "SELECT id FROM contact WHERE email_domain IS NULL AND search_email LIKE '%@%' LIMIT " + BATCH_SIZE +
+            ")";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+
+        try (PreparedStatement update = connection.prepareStatement(UPDATE_BATCH)) {
+            int updated;
+
+            do {
+                updated = update.executeUpdate();
+            } while (updated > 0);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package db.migration;
+
+import com.nasa.nacontacts.domain.utils.SearchNormalizer;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/*
+    Preenche as colunas search_* dos contatos existentes com a mesma normalização usada pela aplicação.
+    Roda fora de uma transação única e commita a cada lote, para não travar a tabela inteira
+    nem segurar um WAL enorme em bases grandes. Se for interrompida, continua de onde parou.
+*/
+public class V9__Backfill_contact_search_columns extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String SELECT_PENDING = "SELECT id, name, email, phone FROM contact " +
+            "WHERE search_name IS NULL AND id > ? ORDER BY id LIMIT " + BATCH_SIZE;
+
+    private static final String UPDATE_CONTACT = "UPDATE contact " +
+            "SET search_name = ?, search_email = ?, search_phone = ? " +
+            "WHERE id = ?";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement select = connection.prepareStatement(SELECT_PENDING);
+             PreparedStatement update = connection.prepareStatement(UPDATE_CONTACT)) {
+            UUID last = new UUID(0L, 0L);
+            int updated;
+
+            do {
+                updated = 0;
+                select.setObject(1, last);
+
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        last = rs.getObject("id", UUID.class);
+
+                        update.setString(1, SearchNormalizer.normalize(rs.getString("name")));
+                        update.setString(2, SearchNormalizer.normalize(rs.getString("email")));
+                        update.setString(3, SearchNormalizer.normalize(rs.getString("phone")));
+                        update.setObject(4, last);
+                        update.addBatch();
+                        updated++;
+                    }
+                }
+
+                if(updated > 0) {
+                    update.executeBatch();
+                    connection.commit();
+                }
+            } while (updated == BATCH_SIZE);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
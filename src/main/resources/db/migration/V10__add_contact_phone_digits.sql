@@ -0,0 +1,6 @@
+-- Dígitos do telefone em E.164 (sem o "+") e invertidos, para buscas por prefixo e por sufixo via B-tree.
+ALTER TABLE contact ADD phone_digits VARCHAR;
+ALTER TABLE contact ADD phone_digits_rev VARCHAR;
+
+CREATE INDEX IF NOT EXISTS contact_phone_digits_idx ON contact (phone_digits text_pattern_ops);
+CREATE INDEX IF NOT EXISTS contact_phone_digits_rev_idx ON contact (phone_digits_rev text_pattern_ops);
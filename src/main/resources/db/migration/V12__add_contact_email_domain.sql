@@ -0,0 +1,5 @@
+-- Domínio do email normalizado, para o filtro emailDomain por igualdade; o backfill é o V13.
+ALTER TABLE contact ADD email_domain VARCHAR;
+
+CREATE INDEX IF NOT EXISTS contact_email_domain_idx ON contact (email_domain);
+CREATE INDEX IF NOT EXISTS contact_category_id_idx ON contact (category_id);
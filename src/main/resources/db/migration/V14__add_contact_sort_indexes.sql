@@ -0,0 +1,11 @@
+ALTER TABLE contact ADD created_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+-- Um índice por ordenação aceita em ContactSort, sempre com o id no fim (desempate estável).
+CREATE INDEX IF NOT EXISTS contact_name_id_idx ON contact (name, id);
+CREATE INDEX IF NOT EXISTS contact_name_email_id_idx ON contact (name, email, id);
+CREATE INDEX IF NOT EXISTS contact_email_id_idx ON contact (email, id);
+CREATE INDEX IF NOT EXISTS contact_category_name_id_idx ON contact (category_id, name, id);
+CREATE INDEX IF NOT EXISTS contact_created_at_id_idx ON contact (created_at, id);
+
+-- Coberto por contact_category_name_id_idx.
+DROP INDEX IF EXISTS contact_category_id_idx;
@@ -0,0 +1,13 @@
+-- Chaves de ordenação por collation (CollationKeys); preenchidas pelo R__Compute_sort_keys.
+ALTER TABLE contact ADD sort_key BYTEA;
+ALTER TABLE category ADD sort_key BYTEA;
+
+-- As ordenações por nome de ContactSort passam a usar sort_key no lugar de name.
+CREATE INDEX IF NOT EXISTS contact_sort_key_id_idx ON contact (sort_key, id);
+CREATE INDEX IF NOT EXISTS contact_sort_key_email_id_idx ON contact (sort_key, email, id);
+CREATE INDEX IF NOT EXISTS contact_category_sort_key_id_idx ON contact (category_id, sort_key, id);
+CREATE INDEX IF NOT EXISTS category_sort_key_id_idx ON category (sort_key, id);
+
+DROP INDEX IF EXISTS contact_name_id_idx;
+DROP INDEX IF EXISTS contact_name_email_id_idx;
+DROP INDEX IF EXISTS contact_category_name_id_idx;
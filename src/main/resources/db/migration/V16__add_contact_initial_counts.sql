@@ -0,0 +1,69 @@
+-- Inicial do nome no locale das sort_key (CollationKeys.initialOf); preenchida pelo R__Compute_sort_keys.
+ALTER TABLE contact ADD name_initial VARCHAR(1);
+
+-- Contagem de contatos por categoria e inicial, para /contacts/index não agrupar a tabela inteira.
+-- Contatos sem categoria ficam sob o UUID zero (a chave primária não aceita NULL).
+CREATE TABLE IF NOT EXISTS contact_initial_count(
+    category_id UUID NOT NULL,
+    initial VARCHAR(1) NOT NULL,
+    total BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (category_id, initial)
+);
+
+-- Trigger por statement com tabelas de transição: um INSERT de vários contatos (group commit)
+-- vira um upsert por inicial, e UPDATEs que não mudam inicial nem categoria não tocam no agregado.
+CREATE OR REPLACE FUNCTION contact_count_initials() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO contact_initial_count AS t (category_id, initial, total)
+        SELECT COALESCE(category_id, '00000000-0000-0000-0000-000000000000'), name_initial, COUNT(*)
+        FROM new_rows
+        WHERE name_initial IS NOT NULL
+        GROUP BY 1, 2
+        ORDER BY 1, 2
+        ON CONFLICT (category_id, initial) DO UPDATE SET total = t.total + EXCLUDED.total;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO contact_initial_count AS t (category_id, initial, total)
+        SELECT COALESCE(category_id, '00000000-0000-0000-0000-000000000000'), name_initial, -COUNT(*)
+        FROM old_rows
+        WHERE name_initial IS NOT NULL
+        GROUP BY 1, 2
+        ORDER BY 1, 2
+        ON CONFLICT (category_id, initial) DO UPDATE SET total = t.total + EXCLUDED.total;
+    ELSE
+        INSERT INTO contact_initial_count AS t (category_id, initial, total)
+        SELECT category_id, initial, SUM(delta)
+        FROM (
+            SELECT COALESCE(category_id, '00000000-0000-0000-0000-000000000000') AS category_id,
+                   name_initial AS initial, -1 AS delta
+            FROM old_rows
+            WHERE name_initial IS NOT NULL
+            UNION ALL
+            SELECT COALESCE(category_id, '00000000-0000-0000-0000-000000000000'), name_initial, 1
+            FROM new_rows
+            WHERE name_initial IS NOT NULL
+        ) changes
+        GROUP BY 1, 2
+        HAVING SUM(delta) <> 0
+        ORDER BY 1, 2
+        ON CONFLICT (category_id, initial) DO UPDATE SET total = t.total + EXCLUDED.total;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER contact_count_initials_insert
+    AFTER INSERT ON contact
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION contact_count_initials();
+
+CREATE TRIGGER contact_count_initials_update
+    AFTER UPDATE ON contact
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION contact_count_initials();
+
+CREATE TRIGGER contact_count_initials_delete
+    AFTER DELETE ON contact
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION contact_count_initials();
@@ -0,0 +1,53 @@
+-- change_seq sai do nextval() antes do commit: uma transação lenta pode gravar um change_seq menor que o
+-- de outra que já commitou e foi entregue pelo /contacts/changes, e o cliente que avançou o token nunca a vê.
+-- O sync passa a andar por (change_xid, change_seq) e só entrega xids abaixo do xmin do snapshot:
+-- tudo abaixo dele já terminou, e qualquer escrita nova recebe um xid maior.
+-- As linhas existentes ficam com o primeiro xid normal (3), abaixo de qualquer xmin.
+ALTER TABLE contact ADD change_xid xid8 NOT NULL DEFAULT '3';
+ALTER TABLE contact ALTER change_xid SET DEFAULT pg_current_xact_id();
+
+ALTER TABLE contact_tombstone ADD change_xid xid8 NOT NULL DEFAULT '3';
+ALTER TABLE contact_tombstone ALTER change_xid SET DEFAULT pg_current_xact_id();
+
+DROP INDEX IF EXISTS contact_change_seq_idx;
+DROP INDEX IF EXISTS contact_tombstone_change_seq_idx;
+
+CREATE INDEX IF NOT EXISTS contact_change_xid_idx ON contact(change_xid, change_seq);
+CREATE INDEX IF NOT EXISTS contact_tombstone_change_xid_idx ON contact_tombstone(change_xid, change_seq);
+
+CREATE OR REPLACE FUNCTION contact_track_change() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND (OLD.name, OLD.email, OLD.phone, OLD.photo, OLD.category_id, OLD.version, OLD.updated_at)
+            IS NOT DISTINCT FROM
+            (NEW.name, NEW.email, NEW.phone, NEW.photo, NEW.category_id, NEW.version, NEW.updated_at) THEN
+        RETURN NEW;
+    END IF;
+
+    NEW.change_xid := pg_current_xact_id();
+    NEW.change_seq := nextval('contact_change_seq');
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION contact_track_delete() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO contact_tombstone (id) VALUES (OLD.id)
+    ON CONFLICT (id) DO UPDATE SET change_xid = pg_current_xact_id(),
+        change_seq = nextval('contact_change_seq'),
+        deleted_at = now();
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Tombstones mais velhos que a retenção são apagados (ContactTombstonePurger); purged_xid guarda o maior
+-- change_xid apagado, e tokens que ainda não passaram dele precisam recomeçar a sincronização do zero.
+CREATE TABLE IF NOT EXISTS contact_change_horizon(
+    id BOOLEAN NOT NULL PRIMARY KEY DEFAULT TRUE CHECK (id),
+    purged_xid xid8 NOT NULL DEFAULT '0'
+);
+
+INSERT INTO contact_change_horizon (id) VALUES (TRUE) ON CONFLICT DO NOTHING;
+
+CREATE INDEX IF NOT EXISTS contact_tombstone_deleted_at_idx ON contact_tombstone(deleted_at);
@@ -0,0 +1,52 @@
+-- Com uma linha por (categoria, inicial), escritas concorrentes de contatos com a mesma inicial
+-- esperavam umas pelas outras no lock da linha do contador até o commit.
+-- O contador passa a ter 16 linhas por (categoria, inicial); cada conexão escreve na do seu pid,
+-- e a leitura (/contacts/index) já soma as linhas com SUM(total) ... GROUP BY initial.
+ALTER TABLE contact_initial_count ADD shard SMALLINT NOT NULL DEFAULT 0;
+
+ALTER TABLE contact_initial_count DROP CONSTRAINT contact_initial_count_pkey;
+ALTER TABLE contact_initial_count ADD PRIMARY KEY (category_id, initial, shard);
+
+-- A mesma transação cai sempre no mesmo shard, então continua travando as linhas na ordem de (categoria, inicial).
+CREATE OR REPLACE FUNCTION contact_count_initials() RETURNS TRIGGER AS $$
+DECLARE
+    target SMALLINT := pg_backend_pid() % 16;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO contact_initial_count AS t (category_id, initial, shard, total)
+        SELECT COALESCE(category_id, '00000000-0000-0000-0000-000000000000'), name_initial, target, COUNT(*)
+        FROM new_rows
+        WHERE name_initial IS NOT NULL
+        GROUP BY 1, 2
+        ORDER BY 1, 2
+        ON CONFLICT (category_id, initial, shard) DO UPDATE SET total = t.total + EXCLUDED.total;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO contact_initial_count AS t (category_id, initial, shard, total)
+        SELECT COALESCE(category_id, '00000000-0000-0000-0000-000000000000'), name_initial, target, -COUNT(*)
+        FROM old_rows
+        WHERE name_initial IS NOT NULL
+        GROUP BY 1, 2
+        ORDER BY 1, 2
+        ON CONFLICT (category_id, initial, shard) DO UPDATE SET total = t.total + EXCLUDED.total;
+    ELSE
+        INSERT INTO contact_initial_count AS t (category_id, initial, shard, total)
+        SELECT category_id, initial, target, SUM(delta)
+        FROM (
+            SELECT COALESCE(category_id, '00000000-0000-0000-0000-000000000000') AS category_id,
+                   name_initial AS initial, -1 AS delta
+            FROM old_rows
+            WHERE name_initial IS NOT NULL
+            UNION ALL
+            SELECT COALESCE(category_id, '00000000-0000-0000-0000-000000000000'), name_initial, 1
+            FROM new_rows
+            WHERE name_initial IS NOT NULL
+        ) changes
+        GROUP BY 1, 2
+        HAVING SUM(delta) <> 0
+        ORDER BY 1, 2
+        ON CONFLICT (category_id, initial, shard) DO UPDATE SET total = t.total + EXCLUDED.total;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,2 @@
+ALTER TABLE category ADD version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE contact ADD version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,51 @@
+CREATE SEQUENCE IF NOT EXISTS contact_change_seq;
+
+ALTER TABLE contact ADD updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+ALTER TABLE contact ADD change_seq BIGINT NOT NULL DEFAULT nextval('contact_change_seq');
+
+CREATE UNIQUE INDEX IF NOT EXISTS contact_change_seq_idx ON contact(change_seq);
+
+CREATE TABLE IF NOT EXISTS contact_tombstone(
+    id UUID NOT NULL PRIMARY KEY,
+    change_seq BIGINT NOT NULL DEFAULT nextval('contact_change_seq'),
+    deleted_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS contact_tombstone_change_seq_idx ON contact_tombstone(change_seq);
+
+CREATE OR REPLACE FUNCTION contact_track_change() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_seq := nextval('contact_change_seq');
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER contact_track_change
+    BEFORE INSERT OR UPDATE ON contact
+    FOR EACH ROW EXECUTE FUNCTION contact_track_change();
+
+CREATE OR REPLACE FUNCTION contact_track_delete() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO contact_tombstone (id) VALUES (OLD.id)
+    ON CONFLICT (id) DO UPDATE SET change_seq = nextval('contact_change_seq'), deleted_at = now();
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER contact_track_delete
+    AFTER DELETE ON contact
+    FOR EACH ROW EXECUTE FUNCTION contact_track_delete();
+
+-- O contato embute o nome da categoria, então renomear a categoria também é uma mudança do contato.
+CREATE OR REPLACE FUNCTION category_track_rename() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE contact SET updated_at = now() WHERE category_id = NEW.id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER category_track_rename
+    AFTER UPDATE OF name ON category
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION category_track_rename();
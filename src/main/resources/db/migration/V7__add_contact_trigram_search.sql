@@ -0,0 +1,10 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- unaccent não é IMMUTABLE (depende do search_path), então não pode ser usada num índice diretamente.
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT public.unaccent('public.unaccent', $1) $$;
+
+CREATE INDEX IF NOT EXISTS contact_name_trgm_idx ON contact USING gin (f_unaccent(LOWER(name)) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS contact_email_trgm_idx ON contact USING gin (LOWER(email) gin_trgm_ops);
@@ -0,0 +1,28 @@
+-- Preenchidas pela aplicação (SearchNormalizer) a cada escrita; o backfill é o V9.
+ALTER TABLE contact ADD search_name VARCHAR;
+ALTER TABLE contact ADD search_email VARCHAR;
+ALTER TABLE contact ADD search_phone VARCHAR;
+
+DROP INDEX IF EXISTS contact_name_trgm_idx;
+DROP INDEX IF EXISTS contact_email_trgm_idx;
+
+CREATE INDEX IF NOT EXISTS contact_search_name_trgm_idx ON contact USING gin (search_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS contact_search_email_trgm_idx ON contact USING gin (search_email gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS contact_search_phone_trgm_idx ON contact USING gin (search_phone gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS contact_search_name_prefix_idx ON contact (search_name text_pattern_ops);
+
+-- Atualizar só as colunas de busca não é uma mudança do contato para o sync (/contacts/changes).
+CREATE OR REPLACE FUNCTION contact_track_change() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND (OLD.name, OLD.email, OLD.phone, OLD.photo, OLD.category_id, OLD.version, OLD.updated_at)
+            IS NOT DISTINCT FROM
+            (NEW.name, NEW.email, NEW.phone, NEW.photo, NEW.category_id, NEW.version, NEW.updated_at) THEN
+        RETURN NEW;
+    END IF;
+
+    NEW.change_seq := nextval('contact_change_seq');
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
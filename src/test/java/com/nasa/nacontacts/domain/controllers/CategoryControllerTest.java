@@ -9,6 +9,7 @@ import com.nasa.nacontacts.domain.dtos.request.CreateCategoryRequest;
 import com.nasa.nacontacts.domain.dtos.request.UpdateCategoryRequest;
 import com.nasa.nacontacts.domain.exceptions.EntityNotFoundException;
 import com.nasa.nacontacts.domain.exceptions.GlobalExceptionHandler;
+import com.nasa.nacontacts.domain.exceptions.PreconditionFailedException;
 import com.nasa.nacontacts.domain.services.CategoryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -187,6 +189,21 @@ public class CategoryControllerTest {
         verifyNoMoreInteractions(categoryService);
     }
 
+    @Test
+    void shouldReturn304WhenCategoryETagMatches() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        when(categoryService.findETag(id)).thenReturn("\"4\"");
+
+        mockMvc.perform(get(url + "/" + id)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+                .andExpect(status().isNotModified());
+
+        verify(categoryService).findETag(id);
+        verifyNoMoreInteractions(categoryService);
+    }
+
     @Test
     void shouldGet404WhenCategoryNoExists() throws Exception {
         UUID id = UUID.randomUUID();
@@ -264,7 +281,26 @@ public class CategoryControllerTest {
                 .content(json))
                 .andExpect(status().isNoContent());
 
-        verify(categoryService).update(id, mockRequest);
+        verify(categoryService).update(id, mockRequest, null);
+        verifyNoMoreInteractions(categoryService);
+    }
+
+    @Test
+    void shouldGet412WhenUpdatingCategoryWithStaleIfMatch() throws Exception {
+        UUID id = UUID.randomUUID();
+        UpdateCategoryRequest mockRequest = UpdateCategoryRequest.fromCategory(new Category(null, "Facebook"));
+
+        doThrow(new PreconditionFailedException()).when(categoryService).update(id, mockRequest, List.of(1L));
+
+        json = objectMapper.writeValueAsString(mockRequest);
+
+        mockMvc.perform(put(url + "/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .content(json))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(categoryService).update(id, mockRequest, List.of(1L));
         verifyNoMoreInteractions(categoryService);
     }
 
@@ -274,7 +310,7 @@ public class CategoryControllerTest {
         Category category = new Category(null, "Facebook");
         UpdateCategoryRequest mockRequest = UpdateCategoryRequest.fromCategory(category);
 
-        doThrow(new EntityNotFoundException(id, Category.class)).when(categoryService).update(id, mockRequest);
+        doThrow(new EntityNotFoundException(id, Category.class)).when(categoryService).update(id, mockRequest, null);
 
         json = objectMapper.writeValueAsString(mockRequest);
 
@@ -284,7 +320,7 @@ public class CategoryControllerTest {
                         .content(json))
                 .andExpect(status().isNotFound());
 
-        verify(categoryService).update(id, mockRequest);
+        verify(categoryService).update(id, mockRequest, null);
         verifyNoMoreInteractions(categoryService);
     }
 
@@ -317,7 +353,7 @@ public class CategoryControllerTest {
                 .param("id", String.valueOf(id)))
                 .andExpect(status().isNoContent());
 
-        verify(categoryService).delete(id);
+        verify(categoryService).delete(id, null);
         verifyNoMoreInteractions(categoryService);
     }
 
@@ -325,7 +361,7 @@ public class CategoryControllerTest {
     void shouldThrowErrorWhenDeletingNonexistentCategoryById() throws Exception {
         UUID id = UUID.randomUUID();
 
-        doThrow(new EntityNotFoundException(id, Category.class)).when(categoryService).delete(id);
+        doThrow(new EntityNotFoundException(id, Category.class)).when(categoryService).delete(id, null);
 
         String message = Category.class.getSimpleName() + " with id = " + id + " not found";
 
@@ -336,7 +372,7 @@ public class CategoryControllerTest {
                 .andExpect(jsonPath("$.message").value(message));
 
 
-        verify(categoryService).delete(id);
+        verify(categoryService).delete(id, null);
         verifyNoMoreInteractions(categoryService);
     }
 
@@ -5,14 +5,24 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nasa.nacontacts.domain.Entities.Category;
 import com.nasa.nacontacts.domain.Entities.Contact;
 import com.nasa.nacontacts.domain.dtos.ContactDTO;
+import com.nasa.nacontacts.domain.dtos.ContactLookupDTO;
+import com.nasa.nacontacts.domain.dtos.ContactSuggestionDTO;
 import com.nasa.nacontacts.domain.dtos.ListContactDTO;
+import com.nasa.nacontacts.domain.dtos.request.BatchGetContactRequest;
 import com.nasa.nacontacts.domain.dtos.request.CreateContactRequest;
 import com.nasa.nacontacts.domain.dtos.request.UpdateContactRequest;
+import com.nasa.nacontacts.domain.exceptions.ChangeTokenExpiredException;
 import com.nasa.nacontacts.domain.exceptions.EmailAlreadyInUseException;
 import com.nasa.nacontacts.domain.exceptions.EntityNotFoundException;
 import com.nasa.nacontacts.domain.exceptions.GlobalExceptionHandler;
+import com.nasa.nacontacts.domain.exceptions.PreconditionFailedException;
+import com.nasa.nacontacts.domain.repositories.ContactFilter;
+import com.nasa.nacontacts.domain.repositories.ContactProjection;
+import com.nasa.nacontacts.domain.repositories.ContactRepositoryCustom;
+import com.nasa.nacontacts.domain.services.ChangeStreamService;
 import com.nasa.nacontacts.domain.services.ContactService;
 import com.nasa.nacontacts.domain.services.StorageService;
+import com.nasa.nacontacts.domain.utils.ChangeTokens;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,9 +30,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
@@ -32,6 +44,8 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasItems;
@@ -52,6 +66,9 @@ public class ContactControllerTest {
     @Mock
     StorageService storageService;
 
+    @Mock
+    ChangeStreamService changeStreamService;
+
     private MockMvc mockMvc;
 
     private String url;
@@ -158,7 +175,7 @@ public class ContactControllerTest {
     void shouldShowListContacts() throws Exception {
         Page<Contact> mockedContacts = new PageImpl<>(List.of(contact));
 
-        when(contactService.list(any(Pageable.class), eq(null))).thenReturn(mockedContacts);
+        when(contactService.list(any(Pageable.class), eq(ContactFilter.NONE))).thenReturn(mockedContacts);
 
         String expectedContacts = objectMapper.writeValueAsString(ListContactDTO.from(mockedContacts));
 
@@ -167,7 +184,7 @@ public class ContactControllerTest {
                .andExpect(status().isOk())
                .andExpect(content().json(expectedContacts));
 
-        verify(contactService).list(any(Pageable.class), eq(null));
+        verify(contactService).list(any(Pageable.class), eq(ContactFilter.NONE));
         verifyNoMoreInteractions(contactService);
     }
 
@@ -175,7 +192,7 @@ public class ContactControllerTest {
     void shouldShowAscendingListContacts() throws Exception {
         Page<Contact> mockedContacts = new PageImpl<>(List.of(contact));
 
-        when(contactService.list(any(Pageable.class), eq(null))).thenReturn(mockedContacts);
+        when(contactService.list(any(Pageable.class), eq(ContactFilter.NONE))).thenReturn(mockedContacts);
 
         String expectedContacts = objectMapper.writeValueAsString(ListContactDTO.from(mockedContacts));
 
@@ -186,7 +203,7 @@ public class ContactControllerTest {
                 .andExpect(content().json(expectedContacts));
 
 
-        verify(contactService).list(any(Pageable.class), eq(null));
+        verify(contactService).list(any(Pageable.class), eq(ContactFilter.NONE));
         verifyNoMoreInteractions(contactService);
     }
 
@@ -194,7 +211,7 @@ public class ContactControllerTest {
     void shouldShowDescendingListContacts() throws Exception {
         Page<Contact> mockedContacts = new PageImpl<>(List.of(contact));
 
-        when(contactService.list(any(Pageable.class), eq(null))).thenReturn(mockedContacts);
+        when(contactService.list(any(Pageable.class), eq(ContactFilter.NONE))).thenReturn(mockedContacts);
 
         String expectedContacts = objectMapper.writeValueAsString(ListContactDTO.from(mockedContacts));
 
@@ -205,7 +222,7 @@ public class ContactControllerTest {
                 .andExpect(content().json(expectedContacts));
 
 
-        verify(contactService).list(any(Pageable.class), eq(null));
+        verify(contactService).list(any(Pageable.class), eq(ContactFilter.NONE));
         verifyNoMoreInteractions(contactService);
     }
 
@@ -214,7 +231,7 @@ public class ContactControllerTest {
 
         Page<Contact> mockedContacts = new PageImpl<>(List.of(contact));
 
-        when(contactService.list(any(Pageable.class), any(String.class))).thenReturn(mockedContacts);
+        when(contactService.list(any(Pageable.class), eq(ContactFilter.search("contact")))).thenReturn(mockedContacts);
 
         String expectedContacts = objectMapper.writeValueAsString(ListContactDTO.from(mockedContacts));
 
@@ -224,7 +241,7 @@ public class ContactControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(expectedContacts));
 
-        verify(contactService).list(any(Pageable.class), any(String.class));
+        verify(contactService).list(any(Pageable.class), eq(ContactFilter.search("contact")));
         verifyNoMoreInteractions(contactService);
     }
 
@@ -232,32 +249,162 @@ public class ContactControllerTest {
     void shouldReturnEmptyList() throws Exception {
         Page<Contact> mockedContacts = new PageImpl<>(Collections.emptyList());
 
-        when(contactService.list(any(Pageable.class), eq(null))).thenReturn(mockedContacts);
+        when(contactService.list(any(Pageable.class), eq(ContactFilter.NONE))).thenReturn(mockedContacts);
 
         mockMvc.perform(get(url)
                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.totalItems").value(0));
 
-        verify(contactService).list(any(Pageable.class), eq(null));
+        verify(contactService).list(any(Pageable.class), eq(ContactFilter.NONE));
+        verifyNoMoreInteractions(contactService);
+    }
+
+    @Test
+    void shouldPassOnlyRequestedFiltersToTheService() throws Exception {
+        UUID categoryId = UUID.randomUUID();
+        Page<Contact> mockedContacts = new PageImpl<>(List.of(contact));
+        ContactFilter filter = new ContactFilter(categoryId, true, "NASA.gov", null, null);
+
+        when(contactService.list(any(Pageable.class), eq(filter))).thenReturn(mockedContacts);
+
+        mockMvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON)
+                .param("category_id", categoryId.toString())
+                .param("hasPhoto", "true")
+                .param("emailDomain", "@nasa.gov"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalItems").value(1));
+
+        verify(contactService).list(any(Pageable.class), eq(filter));
+        verifyNoMoreInteractions(contactService);
+    }
+
+    @Test
+    void shouldShowListContactsWithOnlyRequestedFields() throws Exception {
+        Map<String, Object> partialContact = Map.of("id", id, "name", contact.getName());
+        Page<Map<String, Object>> mockedContacts = new PageImpl<>(List.of(partialContact));
+
+        when(contactService.list(any(Pageable.class), eq(ContactFilter.NONE), any(ContactProjection.class)))
+                .thenReturn(mockedContacts);
+
+        mockMvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON)
+                .param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contacts[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.contacts[0].name").value(contact.getName()))
+                .andExpect(jsonPath("$.contacts[0].email").doesNotExist())
+                .andExpect(jsonPath("$.totalItems").value(1));
+
+        verify(contactService).list(any(Pageable.class), eq(ContactFilter.NONE), any(ContactProjection.class));
+        verifyNoMoreInteractions(contactService);
+    }
+
+    @Test
+    void shouldGet400WhenListingContactsWithUnknownField() throws Exception {
+        mockMvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON)
+                .param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("The field password is not supported"));
+
+        verifyNoInteractions(contactService);
+    }
+
+    @Test
+    void shouldListContactsWithIndexedSort() throws Exception {
+        Page<Contact> mockedContacts = new PageImpl<>(List.of(contact));
+        Sort expectedSort = Sort.by(Sort.Direction.DESC, "categoryId", "sortKey", "id");
+
+        when(contactService.list(argThat(pageable -> pageable.getSort().equals(expectedSort)), eq(ContactFilter.NONE)))
+                .thenReturn(mockedContacts);
+
+        mockMvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON)
+                .param("sort", "category:desc,name:desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalItems").value(1));
+
+        verify(contactService).list(any(Pageable.class), eq(ContactFilter.NONE));
         verifyNoMoreInteractions(contactService);
     }
 
+    @Test
+    void shouldGet400WhenSortIsNotIndexed() throws Exception {
+        mockMvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON)
+                .param("sort", "email,name"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(contactService);
+    }
+
     @Test
     void shouldShowContactById() throws Exception {
         when(contactService.findById(id)).thenReturn(contact);
 
-        String expectedJson = objectMapper.writeValueAsString(contact);
+        String expectedJson = objectMapper.writeValueAsString(ContactDTO.from(contact));
 
         mockMvc.perform(get(url + "/" + id)
                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(content().json(expectedJson));
+                .andExpect(content().json(expectedJson))
+                .andExpect(jsonPath("$.category.name").value(contact.getCategory().getName()))
+                .andExpect(jsonPath("$.category.sortKey").doesNotExist())
+                .andExpect(jsonPath("$.category.version").doesNotExist());
 
         verify(contactService).findById(id);
         verifyNoMoreInteractions(contactService);
     }
 
+    @Test
+    void shouldShowContactByIdWithOnlyRequestedFields() throws Exception {
+        Map<String, Object> partialContact = Map.of("name", contact.getName());
+
+        when(contactService.findETag(eq(id), any(ContactProjection.class))).thenReturn("\"1.0;2\"");
+        when(contactService.findById(eq(id), any(ContactProjection.class))).thenReturn(partialContact);
+
+        mockMvc.perform(get(url + "/" + id)
+                .accept(MediaType.APPLICATION_JSON)
+                .param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.0;2\""))
+                .andExpect(jsonPath("$.name").value(contact.getName()))
+                .andExpect(jsonPath("$.id").doesNotExist());
+
+        verify(contactService).findETag(eq(id), any(ContactProjection.class));
+        verify(contactService).findById(eq(id), any(ContactProjection.class));
+        verifyNoMoreInteractions(contactService);
+    }
+
+    @Test
+    void shouldReturnETagWhenShowingContact() throws Exception {
+        when(contactService.findById(id)).thenReturn(contact);
+
+        mockMvc.perform(get(url + "/" + id)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0.0\""));
+
+        verify(contactService).findById(id);
+        verifyNoMoreInteractions(contactService);
+    }
+
+    @Test
+    void shouldReturn304WhenContactETagMatches() throws Exception {
+        when(contactService.findETag(id, null)).thenReturn("\"3.1\"");
+
+        mockMvc.perform(get(url + "/" + id)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3.1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(contactService).findETag(id, null);
+        verifyNoMoreInteractions(contactService);
+    }
+
     @Test
     void shouldGet404WhenContactNoExists() throws Exception {
         when(contactService.findById(id)).thenThrow(new EntityNotFoundException(id, Contact.class));
@@ -273,6 +420,211 @@ public class ContactControllerTest {
         verifyNoMoreInteractions(contactService);
     }
 
+    @Test
+    void shouldGetContactChangesSinceToken() throws Exception {
+        UUID deletedId = UUID.randomUUID();
+        ChangeTokens.Position since = new ChangeTokens.Position(700, 41);
+        ContactRepositoryCustom.ChangePage changes = new ContactRepositoryCustom.ChangePage(800, 0, List.of(
+                new ContactRepositoryCustom.Change(700, 42, id, contact),
+                new ContactRepositoryCustom.Change(705, 43, deletedId, null),
+                new ContactRepositoryCustom.Change(706, 44, UUID.randomUUID(), null)
+        ));
+
+        when(contactService.findChangesSince(since, 2)).thenReturn(changes);
+
+        mockMvc.perform(get(url + "/changes")
+                .param("since", ChangeTokens.encode(since))
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upserted[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.deleted.length()").value(1))
+                .andExpect(jsonPath("$.deleted[0]").value(deletedId.toString()))
+                .andExpect(jsonPath("$.nextToken").value(ChangeTokens.encode(new ChangeTokens.Position(705, 43))))
+                .andExpect(jsonPath("$.hasMore").value(true));
+
+        verify(contactService).findChangesSince(since, 2);
+        verifyNoMoreInteractions(contactService);
+    }
+
+    @Test
+    void shouldMoveTokenToHorizonOnLastPage() throws Exception {
+        ChangeTokens.Position since = new ChangeTokens.Position(700, 41);
+        ContactRepositoryCustom.ChangePage changes = new ContactRepositoryCustom.ChangePage(800, 0, List.of(
+                new ContactRepositoryCustom.Change(700, 42, id, contact)
+        ));
+
+        when(contactService.findChangesSince(since, 500)).thenReturn(changes);
+
+        mockMvc.perform(get(url + "/changes")
+                .param("since", ChangeTokens.encode(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upserted.length()").value(1))
+                .andExpect(jsonPath("$.nextToken").value(ChangeTokens.encode(new ChangeTokens.Position(800, 0))))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void shouldKeepTokenWhenThereAreNoContactChanges() throws Exception {
+        ChangeTokens.Position since = new ChangeTokens.Position(800, 0);
+
+        when(contactService.findChangesSince(since, 500))
+                .thenReturn(new ContactRepositoryCustom.ChangePage(800, 0, List.of()));
+
+        mockMvc.perform(get(url + "/changes")
+                .param("since", ChangeTokens.encode(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upserted").isEmpty())
+                .andExpect(jsonPath("$.deleted").isEmpty())
+                .andExpect(jsonPath("$.nextToken").value(ChangeTokens.encode(since)))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void shouldReturnGoneWhenChangeTokenHasExpired() throws Exception {
+        ChangeTokens.Position since = new ChangeTokens.Position(700, 41);
+
+        when(contactService.findChangesSince(since, 500)).thenThrow(new ChangeTokenExpiredException());
+
+        mockMvc.perform(get(url + "/changes")
+                .param("since", ChangeTokens.encode(since)))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void shouldReturnGoneForSequenceOnlyChangeToken() throws Exception {
+        mockMvc.perform(get(url + "/changes")
+                .param("since", "15"))
+                .andExpect(status().isGone());
+
+        verifyNoInteractions(contactService);
+    }
+
+    @Test
+    void shouldThrowErrorWhenChangeTokenIsInvalid() throws Exception {
+        mockMvc.perform(get(url + "/changes")
+                .param("since", "-not-a-token"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(contactService);
+    }
+
+    @Test
+    void shouldSuggestContactsByPrefix() throws Exception {
+        when(contactService.suggest("con", 10))
+                .thenReturn(List.of(new ContactSuggestionDTO(id, contact.getName(), contact.getEmail())));
+
+        mockMvc.perform(get(url + "/suggest")
+                .param("q", "con"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(id.toString()))
+                .andExpect(jsonPath("$[0].name").value(contact.getName()));
+
+        verify(contactService).suggest("con", 10);
+        verifyNoMoreInteractions(contactService);
+    }
+
+    @Test
+    void shouldThrowErrorWhenSuggestLimitIsTooLarge() throws Exception {
+        mockMvc.perform(get(url + "/suggest")
+                .param("q", "con")
+                .param("limit", "500"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(contactService);
+    }
+
+    @Test
+    void shouldLookUpContactByPhone() throws Exception {
+        when(contactService.lookup("+5511999990000"))
+                .thenReturn(Optional.of(new ContactLookupDTO(id, contact.getName())));
+
+        mockMvc.perform(get(url + "/lookup")
+                .param("phone", "+5511999990000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.name").value(contact.getName()));
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenLookupMisses() throws Exception {
+        when(contactService.lookup("+5511999990000")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get(url + "/lookup")
+                .param("phone", "+5511999990000"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldShowAlphabetIndexWithOffsetsAndPages() throws Exception {
+        UUID categoryId = UUID.randomUUID();
+        ContactFilter filter = new ContactFilter(categoryId, null, null, null, null);
+
+        when(contactService.countByInitial(filter)).thenReturn(List.of(
+                new ContactRepositoryCustom.InitialCount("M", 4),
+                new ContactRepositoryCustom.InitialCount("A", 12),
+                new ContactRepositoryCustom.InitialCount("#", 3)
+        ));
+
+        mockMvc.perform(get(url + "/index")
+                .param("category_id", categoryId.toString())
+                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalItems").value(19))
+                .andExpect(jsonPath("$.letters[0].letter").value("#"))
+                .andExpect(jsonPath("$.letters[1].letter").value("A"))
+                .andExpect(jsonPath("$.letters[1].offset").value(3))
+                .andExpect(jsonPath("$.letters[2].letter").value("M"))
+                .andExpect(jsonPath("$.letters[2].count").value(4))
+                .andExpect(jsonPath("$.letters[2].offset").value(15))
+                .andExpect(jsonPath("$.letters[2].page").value(1));
+    }
+
+    @Test
+    void shouldShowDescendingAlphabetIndex() throws Exception {
+        when(contactService.countByInitial(ContactFilter.search("ana"))).thenReturn(List.of(
+                new ContactRepositoryCustom.InitialCount("A", 2),
+                new ContactRepositoryCustom.InitialCount("J", 1)
+        ));
+
+        mockMvc.perform(get(url + "/index")
+                .param("search", "ana")
+                .param("orderBy", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.letters[0].letter").value("J"))
+                .andExpect(jsonPath("$.letters[0].offset").value(0))
+                .andExpect(jsonPath("$.letters[1].letter").value("A"))
+                .andExpect(jsonPath("$.letters[1].offset").value(1));
+    }
+
+    @Test
+    void shouldBatchGetContactsInRequestedOrder() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        BatchGetContactRequest request = new BatchGetContactRequest(List.of(missingId, id));
+
+        when(contactService.findAllById(request.ids())).thenReturn(List.of(contact));
+
+        mockMvc.perform(post(url + "/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contacts[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.missingIds[0]").value(missingId.toString()));
+
+        verify(contactService).findAllById(request.ids());
+        verifyNoMoreInteractions(contactService);
+    }
+
+    @Test
+    void shouldThrowErrorWhenBatchGetHasNoIds() throws Exception {
+        mockMvc.perform(post(url + "/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors[*].field").value(hasItems("ids")));
+
+        verifyNoInteractions(contactService);
+    }
+
     @Test
     void shouldCreateNewContact() throws Exception {
         CreateContactRequest contactRequest = CreateContactRequest.fromContact(contact, mockedFile);
@@ -297,6 +649,33 @@ public class ContactControllerTest {
         verifyNoMoreInteractions(contactService);
     }
 
+    @Test
+    void shouldNotExposeDerivedColumnsWhenCreatingContact() throws Exception {
+        CreateContactRequest contactRequest = CreateContactRequest.fromContact(contact, mockedFile);
+
+        when(contactService.create(contactRequest)).thenReturn(contact);
+
+        mockMvc.perform(multipart(url)
+                .file(mockedFile)
+                .param("name", contactRequest.name())
+                .param("email", contactRequest.email())
+                .param("phone", contactRequest.phone())
+                .param("category_id", String.valueOf(contactRequest.category_id())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name").value(contact.getName()))
+                .andExpect(jsonPath("$.searchName").doesNotExist())
+                .andExpect(jsonPath("$.searchEmail").doesNotExist())
+                .andExpect(jsonPath("$.searchPhone").doesNotExist())
+                .andExpect(jsonPath("$.phoneDigits").doesNotExist())
+                .andExpect(jsonPath("$.phoneDigitsReversed").doesNotExist())
+                .andExpect(jsonPath("$.emailDomain").doesNotExist())
+                .andExpect(jsonPath("$.categoryId").doesNotExist())
+                .andExpect(jsonPath("$.sortKey").doesNotExist())
+                .andExpect(jsonPath("$.nameInitial").doesNotExist())
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andExpect(jsonPath("$.category.sortKey").doesNotExist());
+    }
+
     @Test
     void shouldThrowErrorWhenCreatingContactWithDuplicateEmail() throws  Exception {
         CreateContactRequest contactRequest = CreateContactRequest.fromContact(contact, mockedFile);
@@ -362,7 +741,7 @@ public class ContactControllerTest {
                 .andExpect(status().isNoContent());
 
 
-        verify(contactService).update(id, contactRequest);
+        verify(contactService).update(id, contactRequest, null);
         verifyNoMoreInteractions(contactService);
     }
 
@@ -371,7 +750,7 @@ public class ContactControllerTest {
         UpdateContactRequest contactRequest = UpdateContactRequest.fromContact(contact, mockedFile);
 
         doThrow(new EntityNotFoundException(id, Contact.class))
-                .when(contactService).update(id, contactRequest);
+                .when(contactService).update(id, contactRequest, null);
 
         String message = Contact.class.getSimpleName() + " with id = " + id + " not found";
 
@@ -384,7 +763,7 @@ public class ContactControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value(message));;
 
-        verify(contactService).update(id, contactRequest);
+        verify(contactService).update(id, contactRequest, null);
         verifyNoMoreInteractions(contactService);
     }
 
@@ -393,7 +772,7 @@ public class ContactControllerTest {
         UpdateContactRequest contactRequest = UpdateContactRequest.fromContact(contact, mockedFile);
 
         doThrow(new EmailAlreadyInUseException())
-                .when(contactService).update(id, contactRequest);
+                .when(contactService).update(id, contactRequest, null);
 
         mockMvc.perform(multipart(HttpMethod.PUT, url + "/" + id)
                 .file(mockedFile)
@@ -404,7 +783,28 @@ public class ContactControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value(emailAlreadyInUseMessage));;
 
-        verify(contactService).update(id, contactRequest);
+        verify(contactService).update(id, contactRequest, null);
+        verifyNoMoreInteractions(contactService);
+    }
+
+    @Test
+    void shouldMapEmailConstraintViolationToBadRequest() throws Exception {
+        UpdateContactRequest contactRequest = UpdateContactRequest.fromContact(contact, mockedFile);
+
+        doThrow(new DataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"" + EmailAlreadyInUseException.CONSTRAINT_NAME + "\""
+        )).when(contactService).update(id, contactRequest, null);
+
+        mockMvc.perform(multipart(HttpMethod.PUT, url + "/" + id)
+                .file(mockedFile)
+                .param("name", contactRequest.name())
+                .param("email", contactRequest.email())
+                .param("phone", contactRequest.phone())
+                .param("category_id", String.valueOf(contactRequest.category_id())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(emailAlreadyInUseMessage));
+
+        verify(contactService).update(id, contactRequest, null);
         verifyNoMoreInteractions(contactService);
     }
 
@@ -415,7 +815,7 @@ public class ContactControllerTest {
         UpdateContactRequest contactRequest = UpdateContactRequest.fromContact(contact, mockedFile);
 
         doThrow(new EntityNotFoundException(categoryId, Category.class))
-                .when(contactService).update(id, contactRequest);
+                .when(contactService).update(id, contactRequest, null);
 
         String message = Category.class.getSimpleName() + " with id = " + categoryId + " not found";
 
@@ -428,7 +828,7 @@ public class ContactControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value(message));;
 
-        verify(contactService).update(id, contactRequest);
+        verify(contactService).update(id, contactRequest, null);
         verifyNoMoreInteractions(contactService);
     }
 
@@ -445,6 +845,34 @@ public class ContactControllerTest {
         verifyNoInteractions(contactService);
     }
 
+    @Test
+    void shouldPatchContact() throws Exception {
+        String patch = "{\"phone\": \"11999990000\"}";
+
+        mockMvc.perform(patch(url + "/" + id)
+                .contentType("application/merge-patch+json")
+                .content(patch))
+                .andExpect(status().isNoContent());
+
+        verify(contactService).patch(eq(id), any(), isNull());
+        verifyNoMoreInteractions(contactService);
+    }
+
+    @Test
+    void shouldGet412WhenPatchingContactWithStaleIfMatch() throws Exception {
+        doThrow(new PreconditionFailedException())
+                .when(contactService).patch(eq(id), any(), eq(List.of(2L)));
+
+        mockMvc.perform(patch(url + "/" + id)
+                .contentType("application/merge-patch+json")
+                .header(HttpHeaders.IF_MATCH, "\"2.0\"")
+                .content("{\"phone\": \"11999990000\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(contactService).patch(eq(id), any(), eq(List.of(2L)));
+        verifyNoMoreInteractions(contactService);
+    }
+
     @Test
     void shouldDeleteContact() throws Exception {
 
@@ -453,14 +881,14 @@ public class ContactControllerTest {
                 .andExpect(status().isNoContent());
 
 
-        verify(contactService).delete(id);
+        verify(contactService).delete(id, null);
         verifyNoMoreInteractions(contactService);
     }
 
     @Test
     void shouldThrowErrorWhenDeletingContactNonExists() throws Exception {
 
-        doThrow(new EntityNotFoundException(id, Contact.class)).when(contactService).delete(id);
+        doThrow(new EntityNotFoundException(id, Contact.class)).when(contactService).delete(id, null);
 
         String message = Contact.class.getSimpleName() + " with id = " + id + " not found";
 
@@ -469,7 +897,7 @@ public class ContactControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value(message));
 
-        verify(contactService).delete(id);
+        verify(contactService).delete(id, null);
         verifyNoMoreInteractions(contactService);
     }
 }
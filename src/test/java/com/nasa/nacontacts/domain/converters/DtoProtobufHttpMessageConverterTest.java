@@ -0,0 +1,131 @@
+package com.nasa.nacontacts.domain.converters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.nasa.nacontacts.domain.dtos.CategoryDTO;
+import com.nasa.nacontacts.domain.dtos.ContactDTO;
+import com.nasa.nacontacts.domain.dtos.ListContactDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DtoProtobufHttpMessageConverterTest {
+
+    private final DtoProtobufHttpMessageConverter converter = new DtoProtobufHttpMessageConverter();
+
+    @Test
+    void shouldWriteCategoryAsProtobuf() throws Exception {
+        UUID id = UUID.randomUUID();
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        converter.write(new CategoryDTO(id, "Work"), DtoProtobufHttpMessageConverter.APPLICATION_PROTOBUF, outputMessage);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(0x0A);
+        expected.write(36);
+        expected.writeBytes(id.toString().getBytes(StandardCharsets.US_ASCII));
+        expected.write(0x12);
+        expected.write(4);
+        expected.writeBytes("Work".getBytes(StandardCharsets.UTF_8));
+
+        assertArrayEquals(expected.toByteArray(), outputMessage.getBodyAsBytes());
+        assertEquals(DtoProtobufHttpMessageConverter.APPLICATION_PROTOBUF, outputMessage.getHeaders().getContentType());
+    }
+
+    @Test
+    void shouldWriteMultiByteCharactersAsUtf8() throws Exception {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        converter.write(new CategoryDTO(null, "João 😀"), DtoProtobufHttpMessageConverter.APPLICATION_PROTOBUF, outputMessage);
+
+        byte[] name = "João 😀".getBytes(StandardCharsets.UTF_8);
+        byte[] body = outputMessage.getBodyAsBytes();
+
+        assertEquals(0x12, body[0]);
+        assertEquals(name.length, body[1]);
+        assertArrayEquals(name, Arrays.copyOfRange(body, 2, body.length));
+    }
+
+    @Test
+    void shouldOnlyWriteSupportedTypes() {
+        assertTrue(converter.canWrite(ListContactDTO.class, DtoProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+        assertFalse(converter.canWrite(String.class, DtoProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+        assertFalse(converter.canRead(ContactDTO.class, DtoProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+    }
+
+    @Test
+    void shouldWriteContactListAsProtobuf() throws Exception {
+        UUID id = UUID.randomUUID();
+        UUID categoryId = UUID.randomUUID();
+        ContactDTO contact = new ContactDTO(id, "Ana", "ana@email.com", null, null, null,
+                new CategoryDTO(categoryId, "Work"));
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        converter.write(new ListContactDTO(List.of(contact), 1L, 1),
+                DtoProtobufHttpMessageConverter.APPLICATION_PROTOBUF, outputMessage);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(0x0A);
+        expected.write(104);
+        expected.write(0x0A);
+        expected.write(36);
+        expected.writeBytes(id.toString().getBytes(StandardCharsets.US_ASCII));
+        expected.write(0x12);
+        expected.write(3);
+        expected.writeBytes("Ana".getBytes(StandardCharsets.UTF_8));
+        expected.write(0x1A);
+        expected.write(13);
+        expected.writeBytes("ana@email.com".getBytes(StandardCharsets.UTF_8));
+        expected.write(0x3A);
+        expected.write(44);
+        expected.write(0x0A);
+        expected.write(36);
+        expected.writeBytes(categoryId.toString().getBytes(StandardCharsets.US_ASCII));
+        expected.write(0x12);
+        expected.write(4);
+        expected.writeBytes("Work".getBytes(StandardCharsets.UTF_8));
+        expected.write(0x10);
+        expected.write(1);
+        expected.write(0x18);
+        expected.write(1);
+
+        assertArrayEquals(expected.toByteArray(), outputMessage.getBodyAsBytes());
+    }
+
+    @Test
+    void shouldRoundTripContactListThroughCbor() throws Exception {
+        ListContactDTO list = contacts(3);
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+        byte[] cbor = cborMapper.writeValueAsBytes(list);
+
+        assertEquals(list, cborMapper.readValue(cbor, ListContactDTO.class));
+    }
+
+    private static ListContactDTO contacts(int size) {
+        CategoryDTO category = new CategoryDTO(UUID.randomUUID(), "Work");
+        List<ContactDTO> contacts = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            contacts.add(new ContactDTO(
+                    UUID.randomUUID(),
+                    "Contact " + i,
+                    "contact" + i + "@email.com",
+                    "+55 11 99999-" + String.format("%04d", i),
+                    null,
+                    null,
+                    category
+            ));
+        }
+
+        return new ListContactDTO(contacts, (long) size, 1);
+    }
+}
@@ -0,0 +1,99 @@
+package com.nasa.nacontacts.domain.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nasa.nacontacts.domain.config.ConcurrencyLimitProperties;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConcurrencyLimitFilterTest {
+
+    @Mock
+    FilterChain filterChain;
+
+    ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setRead(new ConcurrencyLimitProperties.Limit(2, 1, 10));
+        properties.setWrite(new ConcurrencyLimitProperties.Limit(1, 1, 10));
+        properties.setLowPriorityShare(0.5);
+
+        filter = new ConcurrencyLimitFilter(properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void shouldPassRequestsUnderTheLimit() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/contacts"), response, filterChain);
+
+        verify(filterChain).doFilter(any(), any());
+        assertEquals(200, response.getStatus());
+        assertEquals(0, filter.getReadInFlight());
+    }
+
+    @Test
+    void shouldShedWritesAboveTheLimitWithRetryAfter() throws Exception {
+        AtomicReference<MockHttpServletResponse> rejected = new AtomicReference<>();
+
+        doAnswer(invocation -> {
+            MockHttpServletResponse nested = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("POST", "/contacts"), nested, mock(FilterChain.class));
+            rejected.set(nested);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/contacts"), new MockHttpServletResponse(), filterChain);
+
+        assertEquals(503, rejected.get().getStatus());
+        assertEquals("1", rejected.get().getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, filter.getWriteDropped());
+        assertEquals(0, filter.getWriteInFlight());
+    }
+
+    @Test
+    void shouldShedSearchesBeforeCheapReads() throws Exception {
+        AtomicReference<MockHttpServletResponse> search = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> show = new AtomicReference<>();
+
+        doAnswer(invocation -> {
+            MockHttpServletRequest searchRequest = new MockHttpServletRequest("GET", "/contacts");
+            searchRequest.setParameter("search", "ana");
+            search.set(new MockHttpServletResponse());
+            filter.doFilter(searchRequest, search.get(), mock(FilterChain.class));
+
+            show.set(new MockHttpServletResponse());
+            filter.doFilter(new MockHttpServletRequest("GET", "/contacts/1"), show.get(), mock(FilterChain.class));
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/contacts"), new MockHttpServletResponse(), filterChain);
+
+        assertEquals(503, search.get().getStatus());
+        assertEquals(200, show.get().getStatus());
+    }
+
+    @Test
+    void shouldNotLimitTheChangeStream() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/contacts/stream"), new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain).doFilter(any(), any());
+        assertEquals(0, filter.getReadDropped());
+    }
+}
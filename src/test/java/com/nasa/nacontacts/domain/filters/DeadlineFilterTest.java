@@ -0,0 +1,94 @@
+package com.nasa.nacontacts.domain.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nasa.nacontacts.domain.config.DeadlineProperties;
+import com.nasa.nacontacts.domain.utils.Deadline;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DeadlineFilterTest {
+
+    @Mock
+    FilterChain filterChain;
+
+    DeadlineFilter filter;
+
+    AtomicLong remainingMillis;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DeadlineProperties.Endpoint upload = new DeadlineProperties.Endpoint();
+        upload.setMethod("POST");
+        upload.setPath("/contacts");
+        upload.setTimeout(Duration.ofSeconds(30));
+
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setDefaultTimeout(Duration.ofSeconds(5));
+        properties.setMaxTimeout(Duration.ofSeconds(60));
+        properties.setEndpoints(List.of(upload));
+
+        filter = new DeadlineFilter(properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+        remainingMillis = new AtomicLong(-1);
+
+        lenient().doAnswer(invocation -> {
+            remainingMillis.set(Deadline.current().orElseThrow().remainingMillis());
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void shouldUseTheEndpointDefaultWithoutHeader() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("POST", "/contacts"), new MockHttpServletResponse(), filterChain);
+
+        assertTrue(remainingMillis.get() > 5_000 && remainingMillis.get() <= 30_000);
+        assertTrue(Deadline.current().isEmpty());
+    }
+
+    @Test
+    void shouldUseTheTimeoutHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/contacts");
+        request.addHeader(DeadlineFilter.TIMEOUT_HEADER, "2000");
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertTrue(remainingMillis.get() > 0 && remainingMillis.get() <= 2_000);
+    }
+
+    @Test
+    void shouldCapTheRequestedTimeout() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/contacts");
+        request.addHeader(DeadlineFilter.TIMEOUT_HEADER, "3600000");
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertTrue(remainingMillis.get() <= 60_000);
+    }
+
+    @Test
+    void shouldRejectAnExpiredDeadline() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/contacts");
+        request.addHeader(DeadlineFilter.DEADLINE_HEADER, String.valueOf(System.currentTimeMillis() - 1_000));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        assertEquals(504, response.getStatus());
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+}
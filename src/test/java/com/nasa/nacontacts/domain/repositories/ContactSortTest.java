@@ -0,0 +1,42 @@
+package com.nasa.nacontacts.domain.repositories;
+
+import com.nasa.nacontacts.domain.exceptions.InvalidFieldException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContactSortTest {
+
+    @Test
+    void shouldSortByNameWithIdTiebreaker() {
+        assertEquals(Sort.by(Sort.Direction.DESC, "sortKey", "id"), ContactSort.byName(Sort.Direction.DESC));
+    }
+
+    @Test
+    void shouldParseIndexedCombination() {
+        assertEquals(
+                Sort.by(Sort.Direction.ASC, "categoryId", "sortKey", "id"),
+                ContactSort.parse("category, name:asc")
+        );
+        assertEquals(Sort.by(Sort.Direction.DESC, "createdAt", "id"), ContactSort.parse("createdAt:DESC"));
+    }
+
+    @Test
+    void shouldRejectUnknownField() {
+        InvalidFieldException exception = assertThrows(InvalidFieldException.class, () -> ContactSort.parse("phone"));
+
+        assertEquals("The sort field phone is not supported", exception.getMessage());
+    }
+
+    @Test
+    void shouldRejectMixedDirections() {
+        assertThrows(InvalidFieldException.class, () -> ContactSort.parse("name:asc,email:desc"));
+    }
+
+    @Test
+    void shouldRejectCombinationWithoutIndex() {
+        assertThrows(InvalidFieldException.class, () -> ContactSort.parse("email,name"));
+        assertThrows(InvalidFieldException.class, () -> ContactSort.parse("name:up"));
+    }
+}
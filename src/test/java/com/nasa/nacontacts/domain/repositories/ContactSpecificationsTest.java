@@ -0,0 +1,56 @@
+package com.nasa.nacontacts.domain.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContactSpecificationsTest {
+
+    @Test
+    void shouldOmitWhereWithoutFilters() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        assertEquals("", ContactSpecifications.where(ContactFilter.NONE, params));
+        assertEquals(0, params.getValues().size());
+    }
+
+    @Test
+    void shouldGenerateOnlyRequestedPredicates() {
+        UUID categoryId = UUID.randomUUID();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        String where = ContactSpecifications.where(
+                new ContactFilter(categoryId, false, null, "Jo_ão", null),
+                params
+        );
+
+        assertEquals(" WHERE c.category_id = :categoryId AND c.photo IS NULL AND c.search_name LIKE :namePrefix", where);
+        assertEquals(categoryId, params.getValue("categoryId"));
+        assertEquals("jo\\_ao%", params.getValue("namePrefix"));
+    }
+
+    @Test
+    void shouldRouteNumericSearchToPhoneDigits() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        String where = ContactSpecifications.where(new ContactFilter(null, null, "nasa.gov", null, "11 9999"), params);
+
+        assertEquals(" WHERE c.email_domain = :emailDomain AND " + ContactRepositoryCustom.PHONE_CONDITION, where);
+        assertEquals("nasa.gov", params.getValue("emailDomain"));
+        assertEquals("119999%", params.getValue("prefix"));
+        assertEquals("999911%", params.getValue("reversedPrefix"));
+    }
+
+    @Test
+    void shouldReuseTheSameShapeForTheSameFilters() {
+        String first = ContactSpecifications.where(
+                new ContactFilter(null, true, null, null, "ana"), new MapSqlParameterSource());
+        String second = ContactSpecifications.where(
+                new ContactFilter(null, true, null, null, "bruno"), new MapSqlParameterSource());
+
+        assertSame(first, second);
+    }
+}
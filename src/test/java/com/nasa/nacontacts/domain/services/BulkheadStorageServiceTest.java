@@ -0,0 +1,224 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.config.StorageProperties;
+import com.nasa.nacontacts.domain.exceptions.DeadlineExceededException;
+import com.nasa.nacontacts.domain.exceptions.FileStorageException;
+import com.nasa.nacontacts.domain.exceptions.StorageUnavailableException;
+import com.nasa.nacontacts.domain.utils.CircuitBreaker;
+import com.nasa.nacontacts.domain.utils.Deadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkheadStorageServiceTest {
+
+    @Mock
+    AsyncStorageService delegate;
+
+    @Mock
+    ThreadPoolExecutor executor;
+
+    StorageProperties.Bulkhead bulkhead;
+
+    long now;
+
+    CircuitBreaker circuitBreaker;
+
+    BulkheadStorageService bulkheadStorageService;
+
+    @BeforeEach
+    void setUp() {
+        bulkhead = new StorageProperties().new Bulkhead();
+        bulkhead.setMaxConcurrentCalls(1);
+        bulkhead.setSaveTimeout(Duration.ofMillis(100));
+        bulkhead.setFailureThreshold(2);
+        bulkhead.setOpenDuration(Duration.ofSeconds(30));
+
+        circuitBreaker = new CircuitBreaker(2, 30_000, () -> now);
+        bulkheadStorageService = new BulkheadStorageService(delegate, executor, bulkhead, circuitBreaker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Deadline.clear();
+    }
+
+    @Test
+    void shouldRejectWhenAllPermitsAreInUse() {
+        MultipartFile file = mock(MultipartFile.class);
+
+        when(delegate.saveFile(file, "first.png")).thenReturn(new CompletableFuture<>());
+
+        bulkheadStorageService.saveFile(file, "first.png");
+        CompletableFuture<Void> second = bulkheadStorageService.saveFile(file, "second.png");
+
+        CompletionException e = assertThrows(CompletionException.class, second::join);
+
+        assertInstanceOf(StorageUnavailableException.class, e.getCause());
+        assertEquals(1, bulkheadStorageService.getInFlight());
+        assertEquals(1, bulkheadStorageService.getRejections());
+        verify(delegate, never()).saveFile(file, "second.png");
+    }
+
+    @Test
+    void shouldFailFastOnSaveWhenCircuitIsOpen() {
+        MultipartFile file = mock(MultipartFile.class);
+
+        when(delegate.saveFile(eq(file), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new FileStorageException("Error storing file")));
+
+        assertThrows(CompletionException.class, () -> bulkheadStorageService.saveFile(file, "a.png").join());
+        assertThrows(CompletionException.class, () -> bulkheadStorageService.saveFile(file, "b.png").join());
+
+        CompletionException e = assertThrows(
+                CompletionException.class,
+                () -> bulkheadStorageService.saveFile(file, "c.png").join()
+        );
+
+        StorageUnavailableException cause = assertInstanceOf(StorageUnavailableException.class, e.getCause());
+        assertEquals(30, cause.getRetryAfterSeconds());
+        assertEquals("OPEN", bulkheadStorageService.getCircuitState());
+        assertEquals(2, bulkheadStorageService.getFailures());
+        verify(delegate, times(2)).saveFile(eq(file), anyString());
+    }
+
+    @Test
+    void shouldCloseCircuitAfterSuccessfulTrial() {
+        MultipartFile file = mock(MultipartFile.class);
+
+        when(delegate.saveFile(eq(file), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new FileStorageException("Error storing file")))
+                .thenReturn(CompletableFuture.failedFuture(new FileStorageException("Error storing file")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThrows(CompletionException.class, () -> bulkheadStorageService.saveFile(file, "a.png").join());
+        assertThrows(CompletionException.class, () -> bulkheadStorageService.saveFile(file, "b.png").join());
+
+        now += 30_000;
+
+        assertEquals("HALF_OPEN", bulkheadStorageService.getCircuitState());
+        assertDoesNotThrow(() -> bulkheadStorageService.saveFile(file, "c.png").join());
+        assertEquals("CLOSED", bulkheadStorageService.getCircuitState());
+    }
+
+    @Test
+    void shouldTimeOutAndRemoveLateUpload() {
+        MultipartFile file = mock(MultipartFile.class);
+        CompletableFuture<Void> slowUpload = new CompletableFuture<>();
+
+        when(delegate.saveFile(file, "late.png")).thenReturn(slowUpload);
+        when(delegate.deleteFile("late.png")).thenReturn(CompletableFuture.completedFuture(null));
+
+        CompletableFuture<Void> result = bulkheadStorageService.saveFile(file, "late.png");
+
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+
+        assertInstanceOf(StorageUnavailableException.class, e.getCause());
+        assertEquals(1, bulkheadStorageService.getTimeouts());
+        assertEquals(1, bulkheadStorageService.getInFlight());
+
+        slowUpload.complete(null);
+
+        assertEquals(0, bulkheadStorageService.getInFlight());
+        verify(delegate).deleteFile("late.png");
+    }
+
+    @Test
+    void shouldNotStartUploadAfterTheDeadline() {
+        MultipartFile file = mock(MultipartFile.class);
+
+        Deadline.set(Deadline.after(Duration.ZERO));
+
+        CompletionException e = assertThrows(
+                CompletionException.class,
+                () -> bulkheadStorageService.saveFile(file, "a.png").join()
+        );
+
+        assertInstanceOf(DeadlineExceededException.class, e.getCause());
+        assertEquals(1, bulkheadStorageService.getDeadlinesExceeded());
+        verify(delegate, never()).saveFile(any(), anyString());
+    }
+
+    @Test
+    void shouldGiveUpAtTheDeadlineWithoutOpeningTheCircuit() {
+        MultipartFile file = mock(MultipartFile.class);
+        CompletableFuture<Void> slowUpload = new CompletableFuture<>();
+
+        bulkhead.setSaveTimeout(Duration.ofSeconds(30));
+        bulkheadStorageService = new BulkheadStorageService(delegate, executor, bulkhead, circuitBreaker);
+
+        when(delegate.saveFile(file, "late.png")).thenReturn(slowUpload);
+        when(delegate.deleteFile("late.png")).thenReturn(CompletableFuture.completedFuture(null));
+
+        Deadline.set(Deadline.after(Duration.ofMillis(50)));
+
+        CompletionException e = assertThrows(
+                CompletionException.class,
+                () -> bulkheadStorageService.saveFile(file, "late.png").join()
+        );
+
+        assertInstanceOf(DeadlineExceededException.class, e.getCause());
+        assertEquals(0, bulkheadStorageService.getTimeouts());
+        assertEquals("CLOSED", bulkheadStorageService.getCircuitState());
+
+        slowUpload.complete(null);
+
+        verify(delegate).deleteFile("late.png");
+    }
+
+    @Test
+    void shouldAdmitNextCallAfterHalfOpenTrialIsAbandonedAtTheDeadline() {
+        MultipartFile file = mock(MultipartFile.class);
+
+        /* O upload abandonado continua segurando um permit até terminar. */
+        bulkhead.setMaxConcurrentCalls(2);
+        bulkhead.setSaveTimeout(Duration.ofSeconds(30));
+        bulkheadStorageService = new BulkheadStorageService(delegate, executor, bulkhead, circuitBreaker);
+
+        when(delegate.saveFile(eq(file), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new FileStorageException("Error storing file")))
+                .thenReturn(CompletableFuture.failedFuture(new FileStorageException("Error storing file")))
+                .thenReturn(new CompletableFuture<>())
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThrows(CompletionException.class, () -> bulkheadStorageService.saveFile(file, "a.png").join());
+        assertThrows(CompletionException.class, () -> bulkheadStorageService.saveFile(file, "b.png").join());
+
+        now += 30_000;
+        Deadline.set(Deadline.after(Duration.ofMillis(50)));
+
+        CompletionException e = assertThrows(
+                CompletionException.class,
+                () -> bulkheadStorageService.saveFile(file, "trial.png").join()
+        );
+
+        assertInstanceOf(DeadlineExceededException.class, e.getCause());
+
+        Deadline.clear();
+
+        assertDoesNotThrow(() -> bulkheadStorageService.saveFile(file, "next.png").join());
+        assertEquals("CLOSED", bulkheadStorageService.getCircuitState());
+        verify(delegate).saveFile(file, "next.png");
+    }
+
+    @Test
+    void shouldReportExecutorQueueDepth() {
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(4);
+        queue.add(() -> {});
+
+        when(executor.getQueue()).thenReturn(queue);
+
+        assertEquals(1, bulkheadStorageService.getQueueDepth());
+    }
+}
@@ -0,0 +1,106 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.Entities.Contact;
+import com.nasa.nacontacts.domain.events.ChangeEvent;
+import com.nasa.nacontacts.domain.repositories.ContactRepository;
+import com.nasa.nacontacts.domain.repositories.ContactRepositoryCustom.PhoneConsumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CallerIdIndexTest {
+
+    @Mock
+    ContactRepository contactRepository;
+
+    CallerIdIndex callerIdIndex;
+
+    UUID ana = UUID.randomUUID();
+
+    UUID bruno = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            PhoneConsumer consumer = invocation.getArgument(0);
+            consumer.accept(ana, "Ana Silva", "5511999990000", 1);
+            consumer.accept(bruno, "Bruno Andrade", "14155550100", 3);
+            return null;
+        }).when(contactRepository).scanPhones(any());
+
+        callerIdIndex = new CallerIdIndex(
+                contactRepository,
+                TransactionOperations.withoutTransaction(),
+                2,
+                Duration.ofMinutes(10)
+        );
+        callerIdIndex.rebuild();
+    }
+
+    @Test
+    void shouldLookUpContactsByPhone() {
+        assertTrue(callerIdIndex.isReady());
+        assertEquals(new CallerIdIndex.Match(ana, "Ana Silva", 1), callerIdIndex.lookup(5511999990000L));
+        assertEquals(new CallerIdIndex.Match(bruno, "Bruno Andrade", 3), callerIdIndex.lookup(14155550100L));
+        assertNull(callerIdIndex.lookup(5511999990001L));
+        assertNull(callerIdIndex.lookup(0));
+    }
+
+    @Test
+    void shouldApplyPhoneChangesAndDeletes() {
+        when(contactRepository.findById(ana)).thenReturn(Optional.of(Contact.builder()
+                .id(ana)
+                .name("Ana Silva")
+                .phone("+5511888880000")
+                .version(2L)
+                .build()));
+
+        callerIdIndex.refresh(ChangeEvent.contact(ChangeEvent.Type.UPDATED, ana));
+
+        assertNull(callerIdIndex.lookup(5511999990000L));
+        assertEquals(new CallerIdIndex.Match(ana, "Ana Silva", 2), callerIdIndex.lookup(5511888880000L));
+
+        callerIdIndex.refresh(ChangeEvent.contact(ChangeEvent.Type.DELETED, bruno));
+
+        assertNull(callerIdIndex.lookup(14155550100L));
+        assertEquals(1, callerIdIndex.size());
+        assertEquals(new CallerIdIndex.Match(ana, "Ana Silva", 2), callerIdIndex.lookup(5511888880000L));
+        verify(contactRepository, times(1)).scanPhones(any());
+    }
+
+    @Test
+    void shouldKeepManyPhonesWithoutCollisions() {
+        CallerIdIndex.Table.Builder builder = new CallerIdIndex.Table.Builder();
+
+        for (long i = 0; i < 10_000; i++) {
+            builder.add(new UUID(0, i), "contact" + i, 5511900000000L + i, 1);
+        }
+
+        CallerIdIndex.Table table = builder.build(false);
+
+        for (long i = 0; i < 10_000; i++) {
+            assertEquals("contact" + i, table.name(table.find(5511900000000L + i)));
+        }
+
+        assertEquals(-1, table.find(5511800000000L));
+    }
+
+    @Test
+    void shouldParseDigitsAsKeys() {
+        assertEquals(5511999990000L, CallerIdIndex.keyOf("5511999990000"));
+        assertEquals(0, CallerIdIndex.keyOf("55-11"));
+        assertEquals(0, CallerIdIndex.keyOf(""));
+        assertEquals(0, CallerIdIndex.keyOf(null));
+    }
+}
@@ -1,17 +1,22 @@
 package com.nasa.nacontacts.domain.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.nasa.nacontacts.domain.Entities.Category;
 import com.nasa.nacontacts.domain.dtos.request.CreateCategoryRequest;
 import com.nasa.nacontacts.domain.dtos.request.UpdateCategoryRequest;
+import com.nasa.nacontacts.domain.events.ChangeEvent;
 import com.nasa.nacontacts.domain.exceptions.CategoryExistsException;
 import com.nasa.nacontacts.domain.exceptions.EntityNotFoundException;
+import com.nasa.nacontacts.domain.exceptions.PreconditionFailedException;
 import com.nasa.nacontacts.domain.repositories.CategoryRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 
 import java.util.List;
@@ -33,6 +38,9 @@ public class CategoryServiceTest {
     @Mock
     CategoryRepository categoryRepository;
 
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @Test
     void shouldShowListCategories() {
         Category facebook = new Category(null, "Facebook");
@@ -153,27 +161,28 @@ public class CategoryServiceTest {
 
     @Test
     void shouldCreateNewCategory() {
+        UUID id = UUID.randomUUID();
         Category mockCategory = new Category(null, "Facebook");
 
-        when(categoryRepository.save(mockCategory)).thenReturn(mockCategory);
+        when(categoryRepository.insertIfNameAbsent(mockCategory.getName())).thenReturn(Optional.of(id));
 
         CreateCategoryRequest createCategoryRequest = CreateCategoryRequest.fromCategory(mockCategory);
 
         Category categoryReturn = categoryService.create(createCategoryRequest);
 
-        assertEquals(categoryReturn, mockCategory);
-        verify(categoryRepository).save(mockCategory);
+        assertEquals(id, categoryReturn.getId());
+        assertEquals(mockCategory.getName(), categoryReturn.getName());
+        verify(categoryRepository).insertIfNameAbsent(mockCategory.getName());
+        verifyNoMoreInteractions(categoryRepository);
     }
 
     @Test
     void shouldThrowErrorWhenCreatingCategoryExists() {
         String categoryName = "Facebook";
         Category category = new Category(null, categoryName);
-        Category categoryExists = mock(Category.class);
-        categoryExists.setName(categoryName);
         CreateCategoryRequest mockRequest = CreateCategoryRequest.fromCategory(category);
 
-        when(categoryRepository.findByName(categoryName)).thenReturn(Optional.of(categoryExists));
+        when(categoryRepository.insertIfNameAbsent(categoryName)).thenReturn(Optional.empty());
 
         CategoryExistsException e = assertThrows(
                 CategoryExistsException.class,
@@ -183,7 +192,7 @@ public class CategoryServiceTest {
         String errorMessage = "The category is already exists";
 
         assertEquals(e.getMessage(), errorMessage);
-        verify(categoryRepository).findByName(categoryName);
+        verify(categoryRepository).insertIfNameAbsent(categoryName);
         verifyNoMoreInteractions(categoryRepository);
     }
 
@@ -192,19 +201,15 @@ public class CategoryServiceTest {
         UUID id = UUID.randomUUID();
 
         Category requestCategory = new Category(null, "Facebook+1");
-        Category existingCategory = new Category(id,"Facebook");
 
-        when(categoryRepository.findById(id)).thenReturn(Optional.of(existingCategory));
-        when(categoryRepository.findByName(any(String.class)))
-                .thenReturn(Optional.empty());
+        when(categoryRepository.updateName(id, requestCategory.getName())).thenReturn(1);
 
         UpdateCategoryRequest updateCategoryRequest = UpdateCategoryRequest.fromCategory(requestCategory);
 
         categoryService.update(id, updateCategoryRequest);
 
-        assertThat(existingCategory.getName(), is(requestCategory.getName()));
-
-        verify(categoryRepository).save(existingCategory);
+        verify(categoryRepository).updateName(id, requestCategory.getName());
+        verify(eventPublisher).publishEvent(ChangeEvent.category(ChangeEvent.Type.UPDATED, id));
         verifyNoMoreInteractions(categoryRepository);
     }
 
@@ -213,7 +218,8 @@ public class CategoryServiceTest {
         UUID id = UUID.randomUUID();
         Category requestCategory = new Category(null, "Facebook");
 
-        when(categoryRepository.findById(id)).thenThrow(new EntityNotFoundException(id, Category.class));
+        when(categoryRepository.updateName(id, requestCategory.getName())).thenReturn(0);
+        when(categoryRepository.findVersionById(id)).thenReturn(Optional.empty());
 
         UpdateCategoryRequest updateCategoryRequest = UpdateCategoryRequest.fromCategory(requestCategory);
 
@@ -223,35 +229,129 @@ public class CategoryServiceTest {
         );
 
         assertThat(e.getMessage(), is(Category.class.getSimpleName() + " with id = " + id + " not found"));
+        verify(categoryRepository).updateName(id, requestCategory.getName());
+        verify(categoryRepository).findVersionById(id);
         verifyNoMoreInteractions(categoryRepository);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void shouldThrowErrorWhenUpdatingCategoryWithNameAlreadyInUse() {
         UUID id = UUID.randomUUID();
-        Category category = new Category(id, "Facebook");
-
         String categoryNameExists = "Twitter";
-        Category mockedCategory = mock(Category.class);
-        mockedCategory.setName(categoryNameExists);
 
-        when(categoryRepository.findById(id)).thenReturn(Optional.of(category));
-        when(categoryRepository.findByName(categoryNameExists))
-                .thenReturn(Optional.of(mockedCategory));
+        when(categoryRepository.updateName(id, categoryNameExists))
+                .thenThrow(new DataIntegrityViolationException(CategoryExistsException.CONSTRAINT_NAME));
 
         UpdateCategoryRequest mockRequest = UpdateCategoryRequest
                 .fromCategory(new Category(null, categoryNameExists));
 
-        CategoryExistsException e = assertThrows(
-                CategoryExistsException.class,
+        assertThrows(
+                DataIntegrityViolationException.class,
                 () -> categoryService.update(id, mockRequest)
         );
 
-        String errorMessage = "The category is already exists";
+        verify(categoryRepository).updateName(id, categoryNameExists);
+        verifyNoMoreInteractions(categoryRepository);
+    }
+
+    @Test
+    void shouldThrowPreconditionFailedWhenCategoryVersionIsStale() {
+        UUID id = UUID.randomUUID();
+        UpdateCategoryRequest updateCategoryRequest = UpdateCategoryRequest.fromCategory(new Category(null, "Facebook"));
+
+        when(categoryRepository.updateName(id, "Facebook", List.of(1L))).thenReturn(0);
+        when(categoryRepository.findVersionById(id)).thenReturn(Optional.of(2L));
+
+        assertThrows(
+                PreconditionFailedException.class,
+                () -> categoryService.update(id, updateCategoryRequest, List.of(1L))
+        );
+
+        verify(categoryRepository).updateName(id, "Facebook", List.of(1L));
+        verify(categoryRepository).findVersionById(id);
+        verifyNoMoreInteractions(categoryRepository);
+    }
+
+    @Test
+    void shouldKeepCategoryVersionWhenPutDoesNotChangeTheName() {
+        UUID id = UUID.randomUUID();
+        UpdateCategoryRequest updateCategoryRequest = UpdateCategoryRequest.fromCategory(new Category(null, "Facebook"));
+
+        when(categoryRepository.updateName(id, "Facebook", List.of(2L))).thenReturn(0);
+        when(categoryRepository.findVersionById(id)).thenReturn(Optional.of(2L));
+
+        categoryService.update(id, updateCategoryRequest, List.of(2L));
+
+        verify(categoryRepository).updateName(id, "Facebook", List.of(2L));
+        verify(categoryRepository).findVersionById(id);
+        verifyNoMoreInteractions(categoryRepository);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldNotDeleteCategoryWhenVersionIsStale() {
+        UUID id = UUID.randomUUID();
+        Category existingCategory = new Category(id, "Facebook", 2L);
+
+        when(categoryRepository.findById(id)).thenReturn(Optional.of(existingCategory));
+
+        assertThrows(PreconditionFailedException.class, () -> categoryService.delete(id, List.of(1L)));
+
+        verify(categoryRepository, never()).delete(any());
+    }
+
+    @Test
+    void shouldDeleteCategoryWhenAnyIfMatchVersionMatches() {
+        UUID id = UUID.randomUUID();
+        Category existingCategory = new Category(id, "Facebook", 2L);
+
+        when(categoryRepository.findById(id)).thenReturn(Optional.of(existingCategory));
+
+        categoryService.delete(id, List.of(1L, 2L));
+
+        verify(categoryRepository).delete(existingCategory);
+    }
+
+    @Test
+    void shouldNotUpdateCategoryWhenNoIfMatchTagIsOurs() {
+        UUID id = UUID.randomUUID();
+        UpdateCategoryRequest updateCategoryRequest = UpdateCategoryRequest.fromCategory(new Category(null, "Facebook"));
+
+        when(categoryRepository.findVersionById(id)).thenReturn(Optional.of(2L));
+
+        assertThrows(
+                PreconditionFailedException.class,
+                () -> categoryService.update(id, updateCategoryRequest, List.of())
+        );
+
+        verify(categoryRepository).findVersionById(id);
+        verifyNoMoreInteractions(categoryRepository);
+    }
+
+    @Test
+    void shouldPatchCategoryName() throws Exception {
+        UUID id = UUID.randomUUID();
+        Category existingCategory = new Category(id, "Facebook");
+
+        when(categoryRepository.findById(id)).thenReturn(Optional.of(existingCategory));
+
+        categoryService.patch(id, new ObjectMapper().readTree("{\"name\": \"Instagram\"}"));
+
+        assertThat(existingCategory.getName(), is("Instagram"));
+        verify(categoryRepository).flush();
+    }
+
+    @Test
+    void shouldSkipWriteWhenCategoryPatchChangesNothing() throws Exception {
+        UUID id = UUID.randomUUID();
+        Category existingCategory = new Category(id, "Facebook");
+
+        when(categoryRepository.findById(id)).thenReturn(Optional.of(existingCategory));
+
+        categoryService.patch(id, new ObjectMapper().readTree("{\"name\": \"Facebook\"}"));
 
-        assertEquals(e.getMessage(), errorMessage);
         verify(categoryRepository).findById(id);
-        verify(categoryRepository).findByName(categoryNameExists);
         verifyNoMoreInteractions(categoryRepository);
     }
 
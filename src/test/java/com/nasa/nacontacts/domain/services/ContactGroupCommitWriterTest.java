@@ -0,0 +1,185 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.Entities.Contact;
+import com.nasa.nacontacts.domain.events.ChangeEvent;
+import com.nasa.nacontacts.domain.repositories.ContactRepository;
+import com.nasa.nacontacts.domain.repositories.ContactRepositoryCustom.InsertResult;
+import com.nasa.nacontacts.domain.repositories.ContactRepositoryCustom.NewContact;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ContactGroupCommitWriterTest {
+
+    @Mock
+    ContactRepository contactRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    ContactGroupCommitWriter writer;
+
+    UUID categoryId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        writer = new ContactGroupCommitWriter(
+                contactRepository,
+                TransactionOperations.withoutTransaction(),
+                eventPublisher,
+                Duration.ofMillis(200),
+                64,
+                16
+        );
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldInsertConcurrentCreatesInOneStatement() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        when(contactRepository.insertAll(anyList())).thenReturn(List.of(
+                new InsertResult(first, "Facebook", 0L),
+                new InsertResult(second, "Facebook", 0L)
+        ));
+
+        CompletableFuture<InsertResult> a = writer.trySubmit(contact("a@email.com"), categoryId);
+        CompletableFuture<InsertResult> b = writer.trySubmit(contact("b@email.com"), categoryId);
+
+        assertEquals(first, a.join().id());
+        assertEquals(second, b.join().id());
+
+        ArgumentCaptor<List<NewContact>> batch = ArgumentCaptor.forClass(List.class);
+        verify(contactRepository).insertAll(batch.capture());
+        assertEquals(2, batch.getValue().size());
+        verify(eventPublisher).publishEvent(ChangeEvent.contact(ChangeEvent.Type.CREATED, first));
+        verify(eventPublisher).publishEvent(ChangeEvent.contact(ChangeEvent.Type.CREATED, second));
+    }
+
+    @Test
+    void shouldCommitOneTransactionPerBatchOfAtMostMaxBatchSize() throws Exception {
+        AtomicInteger commits = new AtomicInteger();
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+
+        TransactionOperations countingTransactions = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                T result = action.doInTransaction(null);
+                commits.incrementAndGet();
+                return result;
+            }
+        };
+
+        when(contactRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<NewContact> rows = invocation.getArgument(0);
+            batchSizes.add(rows.size());
+
+            if(batchSizes.size() == 1) {
+                firstBatchStarted.countDown();
+                releaseFirstBatch.await(5, TimeUnit.SECONDS);
+            }
+
+            return rows.stream().map(row -> new InsertResult(UUID.randomUUID(), "Facebook", 0L)).toList();
+        });
+
+        writer.stop();
+        writer = new ContactGroupCommitWriter(contactRepository, countingTransactions, eventPublisher,
+                Duration.ofMillis(50), 2, 16);
+        writer.start();
+
+        List<CompletableFuture<InsertResult>> results = new ArrayList<>();
+        results.add(writer.trySubmit(contact("first@email.com"), categoryId));
+
+        /* Com o primeiro lote preso, os próximos cinco já estão na fila quando o writer volta. */
+        assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 5; i++) {
+            results.add(writer.trySubmit(contact("queued" + i + "@email.com"), categoryId));
+        }
+
+        releaseFirstBatch.countDown();
+        results.forEach(CompletableFuture::join);
+
+        assertEquals(List.of(1, 2, 2, 1), batchSizes);
+        assertEquals(4, commits.get());
+        verify(eventPublisher, times(6)).publishEvent(any(ChangeEvent.class));
+    }
+
+    @Test
+    void shouldFailOnlyTheRowThatBrokeTheBatch() {
+        UUID valid = UUID.randomUUID();
+        Contact broken = contact("broken@email.com");
+        Contact ok = contact("ok@email.com");
+
+        when(contactRepository.insertAll(anyList())).thenThrow(new DataIntegrityViolationException("value too long"));
+        when(contactRepository.insert(same(broken), eq(categoryId))).thenThrow(new DataIntegrityViolationException("value too long"));
+        when(contactRepository.insert(same(ok), eq(categoryId))).thenReturn(new InsertResult(valid, "Facebook", 0L));
+
+        CompletableFuture<InsertResult> failed = writer.trySubmit(broken, categoryId);
+        CompletableFuture<InsertResult> inserted = writer.trySubmit(ok, categoryId);
+
+        CompletionException e = assertThrows(CompletionException.class, failed::join);
+
+        assertInstanceOf(DataIntegrityViolationException.class, e.getCause());
+        assertEquals(valid, inserted.join().id());
+    }
+
+    @Test
+    void shouldMoveRepeatedEmailsToTheNextBatch() {
+        UUID id = UUID.randomUUID();
+
+        when(contactRepository.insertAll(anyList()))
+                .thenReturn(List.of(new InsertResult(id, "Facebook", 0L)))
+                .thenReturn(List.of(new InsertResult(null, "Facebook", 0L)));
+
+        CompletableFuture<InsertResult> first = writer.trySubmit(contact("same@email.com"), categoryId);
+        CompletableFuture<InsertResult> second = writer.trySubmit(contact("same@email.com"), categoryId);
+
+        assertEquals(id, first.join().id());
+        assertNull(second.join().id());
+        verify(contactRepository, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    void shouldRejectWhenStopped() {
+        writer.stop();
+
+        assertNull(writer.trySubmit(contact("a@email.com"), categoryId));
+    }
+
+    private Contact contact(String email) {
+        return Contact.builder().name("contact").email(email).build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.Entities.Category;
+import com.nasa.nacontacts.domain.Entities.Contact;
+import com.nasa.nacontacts.domain.dtos.request.CreateContactRequest;
+import com.nasa.nacontacts.domain.repositories.ContactRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+    Mede latência com tempo de relógio: fica fora da suíte padrão (mvn -Pperf test).
+*/
+@Tag("perf")
+public class ContactServiceLatencyTest {
+
+    private static final long STORAGE_LATENCY_MILLIS = 300;
+
+    private static final long DB_LATENCY_MILLIS = 200;
+
+    private static final int ITERATIONS = 5;
+
+    private final AsyncStorageService slowStorage = new AsyncStorageService() {
+        @Override
+        public CompletableFuture<Void> saveFile(MultipartFile file, String fileName) {
+            return CompletableFuture.runAsync(() -> sleep(STORAGE_LATENCY_MILLIS));
+        }
+
+        @Override
+        public CompletableFuture<Void> deleteFile(String fileName) {
+            return CompletableFuture.completedFuture(null);
+        }
+    };
+
+    @Test
+    void shouldOverlapPhotoUploadWithDatabaseWork() {
+        UUID categoryId = UUID.randomUUID();
+        ContactRepository contactRepository = mock(ContactRepository.class);
+
+        when(contactRepository.insert(any(Contact.class), eq(categoryId))).thenAnswer(invocation -> {
+            sleep(DB_LATENCY_MILLIS);
+
+            return new ContactRepository.InsertResult(UUID.randomUUID(), "Facebook", 0L);
+        });
+
+        ContactService contactService = new ContactService(
+                contactRepository,
+                mock(CategoryService.class),
+                slowStorage,
+                mock(PhotoUrlResolver.class),
+                mock(ApplicationEventPublisher.class),
+                mock(SearchService.class),
+                mock(ContactSuggestIndex.class),
+                mock(CallerIdIndex.class),
+                TransactionOperations.withoutTransaction(),
+                null
+        );
+
+        Contact contact = new Contact(null, "contact", "contact@email.com", "123456789", null, null,
+                new Category(categoryId, "Facebook"));
+        MockMultipartFile photo = new MockMultipartFile("photo", "photo.jpg", "image/jpeg", new byte[1024]);
+        CreateContactRequest request = CreateContactRequest.fromContact(contact, photo);
+
+        long total = 0;
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            contactService.create(request);
+            total += System.nanoTime() - start;
+        }
+
+        long averageMillis = total / ITERATIONS / 1_000_000;
+        long sequentialMillis = STORAGE_LATENCY_MILLIS + DB_LATENCY_MILLIS;
+
+        assertTrue(averageMillis < sequentialMillis - DB_LATENCY_MILLIS / 2);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,28 +1,50 @@
 package com.nasa.nacontacts.domain.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nasa.nacontacts.domain.Entities.Category;
 import com.nasa.nacontacts.domain.Entities.Contact;
+import com.nasa.nacontacts.domain.dtos.ContactLookupDTO;
+import com.nasa.nacontacts.domain.dtos.ContactSuggestionDTO;
 import com.nasa.nacontacts.domain.dtos.request.CreateContactRequest;
 import com.nasa.nacontacts.domain.dtos.request.UpdateContactRequest;
+import com.nasa.nacontacts.domain.events.ChangeEvent;
+import com.nasa.nacontacts.domain.exceptions.ChangeTokenExpiredException;
 import com.nasa.nacontacts.domain.exceptions.EmailAlreadyInUseException;
 import com.nasa.nacontacts.domain.exceptions.EntityNotFoundException;
+import com.nasa.nacontacts.domain.exceptions.FileStorageException;
+import com.nasa.nacontacts.domain.exceptions.InvalidFieldException;
+import com.nasa.nacontacts.domain.exceptions.PreconditionFailedException;
+import com.nasa.nacontacts.domain.repositories.ContactFilter;
+import com.nasa.nacontacts.domain.repositories.ContactProjection;
 import com.nasa.nacontacts.domain.repositories.ContactRepository;
+import com.nasa.nacontacts.domain.repositories.ContactRepositoryCustom;
+import com.nasa.nacontacts.domain.utils.ChangeTokens;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -39,7 +61,25 @@ public class ContactServiceTest {
     CategoryService categoryService;
 
     @Mock
-    StorageService storageService;
+    AsyncStorageService storageService;
+
+    @Mock
+    PhotoUrlResolver photoUrlResolver;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    SearchService searchService;
+
+    @Mock
+    ContactSuggestIndex suggestIndex;
+
+    @Mock
+    CallerIdIndex callerIdIndex;
+
+    @Mock
+    TransactionOperations transactionOperations;
 
     private Contact contact1;
 
@@ -47,6 +87,10 @@ public class ContactServiceTest {
 
     @BeforeEach
     void setUpd() {
+        lenient().when(transactionOperations.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+
         contact1 = new Contact(
                 null,
                 "contact1",
@@ -72,13 +116,13 @@ public class ContactServiceTest {
     void shouldShowListContacts() {
         Page<Contact> contacts = new PageImpl<>(List.of(contact1, contact2));
 
-        when(contactRepository.findAll(any(String.class), any(Pageable.class))).thenReturn(contacts);
+        when(searchService.search(any(String.class), any(Pageable.class))).thenReturn(contacts);
 
         Page<Contact> contactsReturn = contactService.list(Pageable.unpaged(), "");
 
         assertEquals(contacts, contactsReturn);
-        verify(contactRepository).findAll(any(String.class), any(Pageable.class));
-        verifyNoMoreInteractions(contactRepository);
+        verify(searchService).search(any(String.class), any(Pageable.class));
+        verifyNoInteractions(contactRepository);
     }
 
     @Test
@@ -87,7 +131,7 @@ public class ContactServiceTest {
         Pageable pageable = PageRequest.of(0, 10, sort);
         Page<Contact> contacts = new PageImpl<>(List.of(contact1, contact2));
 
-        when(contactRepository.findAll(any(String.class), any(Pageable.class))).thenReturn(contacts);
+        when(searchService.search(any(String.class), any(Pageable.class))).thenReturn(contacts);
 
         List<Contact> expectedContacts = List.of(contact1, contact2);
 
@@ -98,8 +142,8 @@ public class ContactServiceTest {
         assertEquals(contacts.getSize(), contactsReturn.getSize());
         assertEquals(contacts.getTotalPages(), contactsReturn.getTotalPages());
 
-        verify(contactRepository).findAll(any(String.class), eq(pageable));
-        verifyNoMoreInteractions(contactRepository);
+        verify(searchService).search(any(String.class), eq(pageable));
+        verifyNoInteractions(contactRepository);
     }
 
     @Test
@@ -108,7 +152,7 @@ public class ContactServiceTest {
         Pageable pageable = PageRequest.of(0, 10, sort);
         Page<Contact> contacts = new PageImpl<>(List.of(contact2, contact1));
 
-        when(contactRepository.findAll(any(String.class), any(Pageable.class))).thenReturn(contacts);
+        when(searchService.search(any(String.class), any(Pageable.class))).thenReturn(contacts);
 
         List<Contact> expectedContacts = List.of(contact2, contact1);
 
@@ -119,15 +163,15 @@ public class ContactServiceTest {
         assertEquals(contacts.getSize(), contactsReturn.getSize());
         assertEquals(contacts.getTotalPages(), contactsReturn.getTotalPages());
 
-        verify(contactRepository).findAll(any(String.class), eq(pageable));
-        verifyNoMoreInteractions(contactRepository);
+        verify(searchService).search(any(String.class), eq(pageable));
+        verifyNoInteractions(contactRepository);
     }
 
     @Test
     void shouldShowFilteredListContacts() {
         Page<Contact> mockedContacts = new PageImpl<>(List.of(contact1));
 
-        when(contactRepository.findAll(any(String.class), any(Pageable.class))).thenReturn(mockedContacts);
+        when(searchService.search(any(String.class), any(Pageable.class))).thenReturn(mockedContacts);
 
         List<Contact> expectedContacts = List.of(contact1);
 
@@ -135,8 +179,52 @@ public class ContactServiceTest {
 
         assertEquals(expectedContacts, contactsReturn.toList());
 
-        verify(contactRepository).findAll(any(String.class), any(Pageable.class));
-        verifyNoMoreInteractions(contactRepository);
+        verify(searchService).search(any(String.class), any(Pageable.class));
+        verifyNoInteractions(contactRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldListWithSpecificationWhenFiltersAreGiven() {
+        Page<Contact> mockedContacts = new PageImpl<>(List.of(contact1));
+        ContactFilter filter = new ContactFilter(UUID.randomUUID(), true, null, null, "contact1");
+
+        when(contactRepository.findAll(any(Specification.class), eq(Pageable.unpaged()))).thenReturn(mockedContacts);
+
+        assertEquals(List.of(contact1), contactService.list(Pageable.unpaged(), filter).toList());
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    void shouldCountInitialsFromAggregateWhenOnlyCategoryIsGiven() {
+        UUID categoryId = UUID.randomUUID();
+        List<ContactRepositoryCustom.InitialCount> counts = List.of(new ContactRepositoryCustom.InitialCount("A", 2));
+
+        when(contactRepository.countByInitial(categoryId)).thenReturn(counts);
+
+        assertEquals(counts, contactService.countByInitial(new ContactFilter(categoryId, null, null, null, null)));
+        verify(contactRepository, never()).countByInitialMatching(any(ContactFilter.class));
+    }
+
+    @Test
+    void shouldCountInitialsOfMatchingContactsWhenSearching() {
+        ContactFilter filter = ContactFilter.search("ana");
+        List<ContactRepositoryCustom.InitialCount> counts = List.of(new ContactRepositoryCustom.InitialCount("A", 1));
+
+        when(contactRepository.countByInitialMatching(filter)).thenReturn(counts);
+
+        assertEquals(counts, contactService.countByInitial(filter));
+        verify(contactRepository, never()).countByInitial(any());
+    }
+
+    @Test
+    void shouldListWithSearchServiceWhenOnlySearchIsGiven() {
+        Page<Contact> mockedContacts = new PageImpl<>(List.of(contact1));
+
+        when(searchService.search("contact1", Pageable.unpaged())).thenReturn(mockedContacts);
+
+        assertEquals(List.of(contact1), contactService.list(Pageable.unpaged(), ContactFilter.search("contact1")).toList());
+        verifyNoInteractions(contactRepository);
     }
 
     @Test
@@ -168,45 +256,243 @@ public class ContactServiceTest {
         verifyNoMoreInteractions(contactRepository);
     }
 
+    @Test
+    void shouldFindByIdContactWithProjection() {
+        UUID contactId = UUID.randomUUID();
+        ContactProjection projection = ContactProjection.of("id,name");
+        Map<String, Object> partialContact = Map.of("id", contactId, "name", contact1.getName());
+
+        when(contactRepository.findById(projection, contactId)).thenReturn(Optional.of(partialContact));
+
+        Map<String, Object> contactReturn = contactService.findById(contactId, projection);
+
+        assertEquals(partialContact, contactReturn);
+        verify(contactRepository).findById(projection, contactId);
+        verifyNoMoreInteractions(contactRepository);
+    }
+
+    @Test
+    void shouldThrowErrorWhenProjectedContactIdNotFound() {
+        UUID contactId = UUID.randomUUID();
+        ContactProjection projection = ContactProjection.of("name");
+
+        when(contactRepository.findById(projection, contactId)).thenReturn(Optional.empty());
+
+        assertThrows(
+                EntityNotFoundException.class,
+                () -> contactService.findById(contactId, projection)
+        );
+
+        verify(contactRepository).findById(projection, contactId);
+        verifyNoMoreInteractions(contactRepository);
+    }
+
+    @Test
+    void shouldReuseCompiledProjectionForSameFieldSet() {
+        assertEquals(
+                ContactProjection.of("id,name,photoUrl"),
+                ContactProjection.of("photoUrl, name,id")
+        );
+    }
+
+    @Test
+    void shouldFindAllContactsByIdInOneQuery() {
+        UUID contactId = UUID.randomUUID();
+        contact1.setId(contactId);
+
+        when(contactRepository.findAllWithCategoryByIdIn(any())).thenReturn(List.of(contact1));
+
+        List<Contact> contactsReturn = contactService.findAllById(List.of(contactId, contactId));
+
+        assertEquals(List.of(contact1), contactsReturn);
+        verify(contactRepository).findAllWithCategoryByIdIn(new LinkedHashSet<>(List.of(contactId)));
+        verifyNoMoreInteractions(contactRepository);
+    }
+
+    @Test
+    void shouldAskOneExtraChangeToDetectMorePages() {
+        when(contactRepository.findChangesSince(700, 10, 51))
+                .thenReturn(new ContactRepositoryCustom.ChangePage(800, 0, List.of()));
+
+        contactService.findChangesSince(new ChangeTokens.Position(700, 10), 50);
+
+        verify(contactRepository).findChangesSince(700, 10, 51);
+        verifyNoMoreInteractions(contactRepository);
+    }
+
+    @Test
+    void shouldThrowErrorWhenTombstonesAfterTokenWerePurged() {
+        when(contactRepository.findChangesSince(700, 10, 51))
+                .thenReturn(new ContactRepositoryCustom.ChangePage(800, 700, List.of()));
+
+        assertThrows(ChangeTokenExpiredException.class,
+                () -> contactService.findChangesSince(new ChangeTokens.Position(700, 10), 50));
+    }
+
+    @Test
+    void shouldSyncFromScratchEvenAfterTombstonesWerePurged() {
+        when(contactRepository.findChangesSince(0, 0, 51))
+                .thenReturn(new ContactRepositoryCustom.ChangePage(800, 700, List.of()));
+
+        contactService.findChangesSince(ChangeTokens.Position.START, 50);
+
+        verify(contactRepository).findChangesSince(0, 0, 51);
+    }
+
     @Test
     void shouldCreateNewContact() {
         UUID categoryId = UUID.randomUUID();
         Category category = new Category(categoryId, "Facebook");
+        UUID contactId = UUID.randomUUID();
 
         contact1.setCategory(category);
 
-        when(categoryService.findById(categoryId)).thenReturn(category);
-        when(contactRepository.findByEmail(contact1.getEmail())).thenReturn(Optional.empty());
-        when(contactRepository.save(contact1)).thenReturn(contact1);
+        when(contactRepository.insert(any(Contact.class), eq(categoryId)))
+                .thenReturn(new ContactRepository.InsertResult(contactId, category.getName(), 4L));
+        when(storageService.saveFile(any(MultipartFile.class), any(String.class))).thenReturn(done());
 
         CreateContactRequest createContactRequest = CreateContactRequest.fromContact(contact1, mock(MultipartFile.class));
         Contact contactReturn = contactService.create(createContactRequest);
 
-        assertEquals(contact1, contactReturn);
-        verify(categoryService).findById(categoryId);
-        verify(contactRepository).findByEmail(contact1.getEmail());
-        verify(contactRepository).save(contact1);
+        assertEquals(contactId, contactReturn.getId());
+        assertEquals(category.getName(), contactReturn.getCategory().getName());
+        assertEquals(4L, contactReturn.getCategory().getVersion());
+        verify(contactRepository).insert(any(Contact.class), eq(categoryId));
         verify(storageService).saveFile(any(MultipartFile.class), any(String.class));
+        verify(eventPublisher).publishEvent(ChangeEvent.contact(ChangeEvent.Type.CREATED, contactId));
         verifyNoMoreInteractions(contactRepository);
+        verifyNoInteractions(categoryService);
+    }
+
+    @Test
+    void shouldFailCreateWhenPhotoUploadFails() {
+        UUID categoryId = UUID.randomUUID();
+
+        contact1.setCategory(new Category(categoryId, "Facebook"));
+
+        when(contactRepository.insert(any(Contact.class), eq(categoryId)))
+                .thenReturn(new ContactRepository.InsertResult(UUID.randomUUID(), "Facebook", 0L));
+        when(storageService.saveFile(any(MultipartFile.class), any(String.class)))
+                .thenReturn(CompletableFuture.failedFuture(new FileStorageException("Error storing file")));
+
+        CreateContactRequest createContactRequest = CreateContactRequest.fromContact(contact1, mock(MultipartFile.class));
+
+        assertThrows(FileStorageException.class, () -> contactService.create(createContactRequest));
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldCreateContactThroughGroupCommitAfterUpload() {
+        UUID categoryId = UUID.randomUUID();
+        UUID contactId = UUID.randomUUID();
+        ContactGroupCommitWriter groupCommitWriter = mock(ContactGroupCommitWriter.class);
+        ContactService groupedService = new ContactService(
+                contactRepository,
+                categoryService,
+                storageService,
+                photoUrlResolver,
+                eventPublisher,
+                searchService,
+                suggestIndex,
+                callerIdIndex,
+                transactionOperations,
+                groupCommitWriter
+        );
+
+        contact1.setCategory(new Category(categoryId, "Facebook"));
+
+        when(storageService.saveFile(any(MultipartFile.class), any(String.class))).thenReturn(done());
+        when(groupCommitWriter.trySubmit(any(Contact.class), eq(categoryId)))
+                .thenReturn(CompletableFuture.completedFuture(new ContactRepository.InsertResult(contactId, "Facebook", 0L)));
+
+        CreateContactRequest createContactRequest = CreateContactRequest.fromContact(contact1, mock(MultipartFile.class));
+        Contact contactReturn = groupedService.create(createContactRequest);
+
+        assertEquals(contactId, contactReturn.getId());
+        assertEquals("Facebook", contactReturn.getCategory().getName());
+        verify(storageService).saveFile(any(MultipartFile.class), any(String.class));
+        verifyNoInteractions(contactRepository, eventPublisher);
+    }
+
+    @Test
+    void shouldDeleteUploadedPhotoWhenGroupCommitFindsDuplicateEmail() {
+        UUID categoryId = UUID.randomUUID();
+        ContactGroupCommitWriter groupCommitWriter = mock(ContactGroupCommitWriter.class);
+        ContactService groupedService = new ContactService(
+                contactRepository,
+                categoryService,
+                storageService,
+                photoUrlResolver,
+                eventPublisher,
+                searchService,
+                suggestIndex,
+                callerIdIndex,
+                transactionOperations,
+                groupCommitWriter
+        );
+
+        contact1.setCategory(new Category(categoryId, "Facebook"));
+
+        when(storageService.saveFile(any(MultipartFile.class), any(String.class))).thenReturn(done());
+        when(storageService.deleteFile(any(String.class))).thenReturn(done());
+        when(groupCommitWriter.trySubmit(any(Contact.class), eq(categoryId)))
+                .thenReturn(CompletableFuture.completedFuture(new ContactRepository.InsertResult(null, "Facebook", 0L)));
+
+        CreateContactRequest createContactRequest = CreateContactRequest.fromContact(contact1, mock(MultipartFile.class));
+
+        assertThrows(EmailAlreadyInUseException.class, () -> groupedService.create(createContactRequest));
+
+        ArgumentCaptor<String> uploadedName = ArgumentCaptor.forClass(String.class);
+
+        verify(storageService).saveFile(any(MultipartFile.class), uploadedName.capture());
+        verify(storageService).deleteFile(uploadedName.getValue());
+        verifyNoInteractions(contactRepository, eventPublisher);
+    }
+
+    @Test
+    void shouldFallBackToDirectInsertWhenGroupCommitIsFull() {
+        UUID categoryId = UUID.randomUUID();
+        ContactGroupCommitWriter groupCommitWriter = mock(ContactGroupCommitWriter.class);
+        ContactService groupedService = new ContactService(
+                contactRepository,
+                categoryService,
+                storageService,
+                photoUrlResolver,
+                eventPublisher,
+                searchService,
+                suggestIndex,
+                callerIdIndex,
+                transactionOperations,
+                groupCommitWriter
+        );
+
+        contact1.setCategory(new Category(categoryId, "Facebook"));
+
+        when(groupCommitWriter.trySubmit(any(Contact.class), eq(categoryId))).thenReturn(null);
+        when(contactRepository.insert(any(Contact.class), eq(categoryId)))
+                .thenReturn(new ContactRepository.InsertResult(UUID.randomUUID(), "Facebook", 0L));
+
+        groupedService.create(CreateContactRequest.fromContact(contact1, null));
+
+        verify(contactRepository).insert(any(Contact.class), eq(categoryId));
+        verify(eventPublisher).publishEvent(any(ChangeEvent.class));
     }
 
     @Test
     void shouldCreateContactWithoutPhoto() {
-        Category mockedCategory = mock(Category.class);
-        mockedCategory.setId(UUID.randomUUID());
+        UUID categoryId = UUID.randomUUID();
 
-        contact1.setCategory(mockedCategory);
+        contact1.setCategory(new Category(categoryId, "Facebook"));
         CreateContactRequest createContactRequest = CreateContactRequest.fromContact(contact1, null);
 
-        when(categoryService.findById(mockedCategory.getId())).thenReturn(mockedCategory);
-        when(contactRepository.findByEmail(any(String.class))).thenReturn(Optional.empty());
-        when(contactRepository.save(contact1)).thenReturn(contact1);
+        when(contactRepository.insert(any(Contact.class), eq(categoryId)))
+                .thenReturn(new ContactRepository.InsertResult(UUID.randomUUID(), "Facebook", 0L));
 
-        contactService.create(createContactRequest);
+        Contact contactReturn = contactService.create(createContactRequest);
 
-        verify(categoryService).findById(mockedCategory.getId());
-        verify(contactRepository).findByEmail(any(String.class));
-        verify(contactRepository).save(contact1);
+        assertNull(contactReturn.getPhoto());
+        verify(contactRepository).insert(any(Contact.class), eq(categoryId));
         verifyNoInteractions(storageService);
         verifyNoMoreInteractions(contactRepository);
 
@@ -219,20 +505,44 @@ public class ContactServiceTest {
 
         contact1.setCategory(category);
 
-        when(categoryService.findById(categoryId)).thenReturn(category);
-        when(contactRepository.findByEmail(contact1.getEmail())).thenReturn(Optional.of(contact1));
+        when(contactRepository.insert(any(Contact.class), eq(categoryId)))
+                .thenReturn(new ContactRepository.InsertResult(null, category.getName(), 0L));
+        when(storageService.saveFile(any(MultipartFile.class), any(String.class))).thenReturn(done());
+        when(storageService.deleteFile(any(String.class))).thenReturn(done());
 
-        CreateContactRequest createContactRequest = CreateContactRequest.fromContact(contact1, null);
+        CreateContactRequest createContactRequest = CreateContactRequest.fromContact(contact1, mock(MultipartFile.class));
 
         EmailAlreadyInUseException e = assertThrows(
                 EmailAlreadyInUseException.class,
                 () -> contactService.create(createContactRequest)
         );
 
+        ArgumentCaptor<String> uploadedName = ArgumentCaptor.forClass(String.class);
+
         assertEquals(e.getMessage(), "Email is already in use");
-        verify(categoryService).findById(categoryId);
-        verify(contactRepository).findByEmail(contact1.getEmail());
-        verifyNoMoreInteractions(contactRepository);
+        verify(contactRepository).insert(any(Contact.class), eq(categoryId));
+        verify(storageService).saveFile(any(MultipartFile.class), uploadedName.capture());
+        verify(storageService).deleteFile(uploadedName.getValue());
+        verifyNoMoreInteractions(contactRepository, storageService);
+    }
+
+    @Test
+    void shouldThrowErrorWhenCreateContactWithCategoryNonExists() {
+        UUID categoryId = UUID.randomUUID();
+
+        contact1.setCategory(new Category(categoryId, null));
+
+        when(contactRepository.insert(any(Contact.class), eq(categoryId)))
+                .thenReturn(new ContactRepository.InsertResult(null, null, null));
+
+        CreateContactRequest createContactRequest = CreateContactRequest.fromContact(contact1, null);
+
+        EntityNotFoundException e = assertThrows(
+                EntityNotFoundException.class,
+                () -> contactService.create(createContactRequest)
+        );
+
+        assertThat(e.getMessage(), is(Category.class.getSimpleName() + " with id = " + categoryId + " not found"));
         verifyNoInteractions(storageService);
     }
 
@@ -248,20 +558,59 @@ public class ContactServiceTest {
         UpdateContactRequest updateContactRequest = UpdateContactRequest.fromContact(contact1,  mock(MultipartFile.class));
         contact1.setId(contactId);
 
+        String existingPhoto = contact1.getPhoto();
+
         when(contactRepository.findById(contactId)).thenReturn(Optional.of(contact1));
-        when(contactRepository.findByEmail(updateContactRequest.email())).thenReturn(Optional.of(contact1));
-        when(contactRepository.save(contact1)).thenReturn(contact1);
+        when(contactRepository.saveAndFlush(contact1)).thenReturn(contact1);
+        when(storageService.saveFile(any(MultipartFile.class), any(String.class))).thenReturn(done());
+        when(storageService.deleteFile(existingPhoto)).thenReturn(done());
 
         contactService.update(contactId ,updateContactRequest);
 
         verify(contactRepository).findById(contactId);
-        verify(contactRepository).findByEmail(updateContactRequest.email());
         verify(storageService).saveFile(any(MultipartFile.class), any(String.class));
-        verify(contactRepository).save(contact1);
+        verify(storageService).deleteFile(existingPhoto);
+        verify(contactRepository).saveAndFlush(contact1);
         verifyNoInteractions(categoryService);
         verifyNoMoreInteractions(contactRepository);
     }
 
+    @Test
+    void shouldThrowPreconditionFailedWhenContactVersionIsStale() {
+        UUID contactId = UUID.randomUUID();
+
+        contact1.setId(contactId);
+        contact1.setVersion(3L);
+        contact1.setCategory(new Category(UUID.randomUUID(), "Facebook"));
+        UpdateContactRequest updateContactRequest = UpdateContactRequest.fromContact(contact1, mock(MultipartFile.class));
+
+        when(contactRepository.findById(contactId)).thenReturn(Optional.of(contact1));
+        when(storageService.saveFile(any(MultipartFile.class), any(String.class))).thenReturn(done());
+        when(storageService.deleteFile(any(String.class))).thenReturn(done());
+
+        assertThrows(
+                PreconditionFailedException.class,
+                () -> contactService.update(contactId, updateContactRequest, List.of(2L))
+        );
+
+        ArgumentCaptor<String> uploadedName = ArgumentCaptor.forClass(String.class);
+
+        verify(contactRepository).findById(contactId);
+        verifyNoMoreInteractions(contactRepository);
+        verify(storageService).saveFile(any(MultipartFile.class), uploadedName.capture());
+        verify(storageService).deleteFile(uploadedName.getValue());
+        verifyNoMoreInteractions(storageService);
+    }
+
+    @Test
+    void shouldBuildContactETagFromContactAndCategoryVersions() {
+        UUID contactId = UUID.randomUUID();
+
+        when(contactRepository.findVersionTagById(contactId)).thenReturn(Optional.of("3.1"));
+
+        assertEquals("\"3.1\"", contactService.findETag(contactId, null));
+    }
+
     @Test
     void shouldUpdateContactWithoutPhoto() {
         Category category = new Category(UUID.randomUUID(), "Facebook");
@@ -272,11 +621,10 @@ public class ContactServiceTest {
         contact1.setId(id);
 
         when(contactRepository.findById(id)).thenReturn(Optional.of(contact1));
-        when(contactRepository.findByEmail(updateContactRequest.email())).thenReturn(Optional.of(contact1));
 
         contactService.update(id, updateContactRequest);
 
-        verify(contactRepository).save(contact1);
+        verify(contactRepository).saveAndFlush(contact1);
         verifyNoMoreInteractions(contactRepository);
         verifyNoInteractions(storageService);
         verifyNoInteractions(categoryService);
@@ -299,43 +647,125 @@ public class ContactServiceTest {
         existingContact.setCategory(existingContactWithCategory);
 
         when(contactRepository.findById(contact1Id)).thenReturn(Optional.of(existingContact));
-        when(contactRepository.findByEmail(any(String.class))).thenReturn(Optional.of(contactRequest));
         when(categoryService.findById(any(UUID.class))).thenReturn(mock(Category.class));
 
         contactService.update(contact1Id, updateContactRequest);
 
-        verify(contactRepository).save(existingContact);
+        verify(contactRepository).saveAndFlush(existingContact);
         verify(categoryService).findById(any(UUID.class));
     }
 
     @Test
-    void shouldThrowErrorWhenUpdateContactWithDuplicateEmail() {
+    void shouldDiscardUploadedPhotoWhenUpdateViolatesEmailConstraint() {
         UUID categoryId = UUID.randomUUID();
         Category category = new Category(categoryId, "Facebook");
 
         UUID contact1Id = UUID.randomUUID();
         contact1.setCategory(category);
-        contact2.setCategory(category);
+        contact1.setPhoto("uuid-photo.png");
 
-        UpdateContactRequest updateContactRequest = UpdateContactRequest.fromContact(contact1, null);
+        UpdateContactRequest updateContactRequest = UpdateContactRequest.fromContact(contact1, mock(MultipartFile.class));
         contact1.setId(contact1Id);
-        contact2.setId(UUID.randomUUID());
 
         when(contactRepository.findById(any(UUID.class))).thenReturn(Optional.of(contact1));
-        when(contactRepository.findByEmail(any(String.class))).thenReturn(Optional.of(contact2));
+        when(contactRepository.saveAndFlush(any(Contact.class)))
+                .thenThrow(new DataIntegrityViolationException(EmailAlreadyInUseException.CONSTRAINT_NAME));
+        when(storageService.saveFile(any(MultipartFile.class), any(String.class))).thenReturn(done());
+        when(storageService.deleteFile(any(String.class))).thenReturn(done());
 
-        EmailAlreadyInUseException e = assertThrows(
-                EmailAlreadyInUseException.class,
+        assertThrows(
+                DataIntegrityViolationException.class,
                 () -> contactService.update(contact1Id ,updateContactRequest)
         );
 
-        assertEquals(e.getMessage(), "Email is already in use");
+        ArgumentCaptor<String> uploadedName = ArgumentCaptor.forClass(String.class);
+
         verify(contactRepository).findById(contact1Id);
-        verify(contactRepository).findByEmail(updateContactRequest.email());
+        verify(contactRepository).saveAndFlush(any(Contact.class));
+        verify(storageService).saveFile(any(MultipartFile.class), uploadedName.capture());
+        verify(storageService).deleteFile(uploadedName.getValue());
+        verify(storageService, never()).deleteFile("uuid-photo.png");
         verifyNoMoreInteractions(contactRepository);
         verifyNoInteractions(categoryService);
     }
 
+    @Test
+    void shouldPatchOnlyChangedFields() throws Exception {
+        UUID id = UUID.randomUUID();
+        contact1.setId(id);
+        contact1.setCategory(new Category(UUID.randomUUID(), "Facebook"));
+
+        when(contactRepository.findById(id)).thenReturn(Optional.of(contact1));
+
+        contactService.patch(id, new ObjectMapper().readTree("{\"phone\": \"11999990000\"}"));
+
+        assertEquals("+5511999990000", contact1.getPhone());
+        assertEquals("contact1@email.com", contact1.getEmail());
+        verify(contactRepository).flush();
+        verifyNoInteractions(storageService);
+        verifyNoInteractions(categoryService);
+    }
+
+    @Test
+    void shouldSkipWriteWhenPatchChangesNothing() throws Exception {
+        UUID id = UUID.randomUUID();
+        contact1.setId(id);
+
+        when(contactRepository.findById(id)).thenReturn(Optional.of(contact1));
+
+        contactService.patch(id, new ObjectMapper().readTree("{\"name\": \"contact1\"}"));
+
+        verify(contactRepository).findById(id);
+        verifyNoMoreInteractions(contactRepository);
+        verifyNoInteractions(storageService, eventPublisher);
+    }
+
+    @Test
+    void shouldThrowErrorWhenPatchHasInvalidPhone() throws Exception {
+        UUID id = UUID.randomUUID();
+        contact1.setId(id);
+
+        when(contactRepository.findById(id)).thenReturn(Optional.of(contact1));
+
+        InvalidFieldException e = assertThrows(
+                InvalidFieldException.class,
+                () -> contactService.patch(id, new ObjectMapper().readTree("{\"phone\": \"call me\"}"))
+        );
+
+        assertEquals("phone", e.getField());
+        verify(contactRepository, never()).flush();
+    }
+
+    @Test
+    void shouldThrowErrorWhenPatchHasUnknownField() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        InvalidFieldException e = assertThrows(
+                InvalidFieldException.class,
+                () -> contactService.patch(id, new ObjectMapper().readTree("{\"photo\": \"x.png\"}"))
+        );
+
+        assertEquals("photo", e.getField());
+        verifyNoInteractions(contactRepository);
+    }
+
+    @Test
+    void shouldThrowErrorWhenPatchRemovesRequiredField() throws Exception {
+        UUID id = UUID.randomUUID();
+        contact1.setId(id);
+
+        when(contactRepository.findById(id)).thenReturn(Optional.of(contact1));
+
+        InvalidFieldException e = assertThrows(
+                InvalidFieldException.class,
+                () -> contactService.patch(id, new ObjectMapper().readTree("{\"email\": null}"))
+        );
+
+        assertEquals("Email is required", e.getMessage());
+        verify(contactRepository).findById(id);
+        verifyNoMoreInteractions(contactRepository);
+    }
+
     @Test
     void shouldDeleteContact() {
         UUID contactId = UUID.randomUUID();
@@ -346,6 +776,7 @@ public class ContactServiceTest {
 
         verify(contactRepository).findById(contactId);
         verify(contactRepository).delete(contact1);
+        verify(eventPublisher).publishEvent(ChangeEvent.contact(ChangeEvent.Type.DELETED, contactId));
         verifyNoMoreInteractions(contactRepository);
     }
 
@@ -354,6 +785,7 @@ public class ContactServiceTest {
         contact1.setPhoto("uuid-photo.png");
 
         when(contactRepository.findById(any(UUID.class))).thenReturn(Optional.of(contact1));
+        when(storageService.deleteFile(contact1.getPhoto())).thenReturn(done());
 
         contactService.delete(UUID.randomUUID());
 
@@ -361,4 +793,88 @@ public class ContactServiceTest {
         verify(storageService).deleteFile(contact1.getPhoto());
 
     }
+
+    @Test
+    void shouldSuggestFromTheIndexWhenReady() {
+        List<ContactSuggestionDTO> suggestions = List.of(
+                new ContactSuggestionDTO(UUID.randomUUID(), "Ana Silva", "ana@email.com")
+        );
+
+        when(suggestIndex.isReady()).thenReturn(true);
+        when(suggestIndex.search("an", 10)).thenReturn(suggestions);
+
+        assertEquals(suggestions, contactService.suggest("an", 10));
+        verifyNoInteractions(contactRepository);
+    }
+
+    @Test
+    void shouldSuggestFromTheDatabaseWhileTheIndexLoads() {
+        UUID id = UUID.randomUUID();
+        Map<String, Object> row = Map.of("id", id, "name", "Ana Silva", "email", "ana@email.com");
+
+        when(suggestIndex.isReady()).thenReturn(false);
+        when(contactRepository.findAll(any(ContactProjection.class), eq(ContactFilter.search("an")), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(row)));
+
+        List<ContactSuggestionDTO> suggestions = contactService.suggest("an", 10);
+
+        assertEquals(List.of(new ContactSuggestionDTO(id, "Ana Silva", "ana@email.com")), suggestions);
+        verify(suggestIndex, never()).search(any(), anyInt());
+    }
+
+    @Test
+    void shouldLookUpPhoneInTheIndex() {
+        UUID id = UUID.randomUUID();
+
+        when(callerIdIndex.isReady()).thenReturn(true);
+        when(callerIdIndex.lookup(5511999990000L)).thenReturn(new CallerIdIndex.Match(id, "Ana Silva", 2));
+        when(contactRepository.findVersionById(id)).thenReturn(Optional.of(2L));
+
+        assertEquals(Optional.of(new ContactLookupDTO(id, "Ana Silva")), contactService.lookup("(11) 99999-0000"));
+        verify(contactRepository, never()).findFirstByPhoneDigits(any());
+    }
+
+    @Test
+    void shouldLookUpPhoneInTheDatabaseWhenTheIndexEntryIsStale() {
+        UUID id = UUID.randomUUID();
+        contact1.setId(id);
+        contact1.setName("Ana Souza");
+
+        when(callerIdIndex.isReady()).thenReturn(true);
+        when(callerIdIndex.lookup(5511999990000L)).thenReturn(new CallerIdIndex.Match(id, "Ana Silva", 2));
+        when(contactRepository.findVersionById(id)).thenReturn(Optional.of(3L));
+        when(contactRepository.findFirstByPhoneDigits("5511999990000")).thenReturn(Optional.of(contact1));
+
+        assertEquals(
+                Optional.of(new ContactLookupDTO(id, "Ana Souza")),
+                contactService.lookup("(11) 99999-0000")
+        );
+    }
+
+    @Test
+    void shouldLookUpPhoneInTheDatabaseOnAMiss() {
+        UUID id = UUID.randomUUID();
+        contact1.setId(id);
+
+        when(callerIdIndex.isReady()).thenReturn(true);
+        when(callerIdIndex.lookup(5511999990000L)).thenReturn(null);
+        when(contactRepository.findFirstByPhoneDigits("5511999990000")).thenReturn(Optional.of(contact1));
+
+        assertEquals(
+                Optional.of(new ContactLookupDTO(id, contact1.getName())),
+                contactService.lookup("+55 11 99999-0000")
+        );
+    }
+
+    @Test
+    void shouldThrowErrorWhenLookupPhoneIsInvalid() {
+        InvalidFieldException e = assertThrows(InvalidFieldException.class, () -> contactService.lookup("abc"));
+
+        assertEquals("phone", e.getField());
+        verifyNoInteractions(callerIdIndex, contactRepository);
+    }
+
+    private static CompletableFuture<Void> done() {
+        return CompletableFuture.completedFuture(null);
+    }
 }
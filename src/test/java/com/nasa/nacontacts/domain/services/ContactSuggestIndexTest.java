@@ -0,0 +1,109 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.dtos.ContactSuggestionDTO;
+import com.nasa.nacontacts.domain.events.ChangeEvent;
+import com.nasa.nacontacts.domain.repositories.ContactProjection;
+import com.nasa.nacontacts.domain.repositories.ContactRepository;
+import com.nasa.nacontacts.domain.repositories.ContactRepositoryCustom.NameAndEmailConsumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ContactSuggestIndexTest {
+
+    @Mock
+    ContactRepository contactRepository;
+
+    ContactSuggestIndex suggestIndex;
+
+    UUID ana = UUID.randomUUID();
+
+    UUID joao = UUID.randomUUID();
+
+    UUID bruno = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            NameAndEmailConsumer consumer = invocation.getArgument(0);
+            consumer.accept(ana, "Ana Silva", "ana@email.com");
+            consumer.accept(joao, "João Souza", "jsouza@email.com");
+            consumer.accept(bruno, "Bruno Andrade", "bruno@email.com");
+            return null;
+        }).when(contactRepository).scanNamesAndEmails(any());
+
+        suggestIndex = new ContactSuggestIndex(
+                contactRepository,
+                TransactionOperations.withoutTransaction(),
+                2,
+                Duration.ofMinutes(10)
+        );
+        suggestIndex.rebuild();
+    }
+
+    @Test
+    void shouldMatchNameSurnameAndEmailPrefixes() {
+        assertTrue(suggestIndex.isReady());
+        assertEquals(List.of(ana, bruno), ids(suggestIndex.search("an", 10)));
+        assertEquals(List.of(joao), ids(suggestIndex.search("souza", 10)));
+        assertEquals(List.of(joao), ids(suggestIndex.search("jsou", 10)));
+    }
+
+    @Test
+    void shouldIgnoreAccentsAndCase() {
+        assertEquals(List.of(joao), ids(suggestIndex.search("JOAO", 10)));
+        assertEquals(List.of(joao), ids(suggestIndex.search("joão s", 10)));
+    }
+
+    @Test
+    void shouldReturnEachContactOnceAndRespectTheLimit() {
+        assertEquals(List.of(ana), ids(suggestIndex.search("ana", 10)));
+        assertEquals(1, suggestIndex.search("an", 1).size());
+        assertTrue(suggestIndex.search("   ", 10).isEmpty());
+    }
+
+    @Test
+    void shouldApplyUpdatesAndDeletesIncrementally() {
+        UUID carla = UUID.randomUUID();
+
+        when(contactRepository.findById(any(ContactProjection.class), eq(carla)))
+                .thenReturn(Optional.of(Map.of("id", carla, "name", "Carla Antunes", "email", "carla@email.com")));
+
+        suggestIndex.refresh(ChangeEvent.contact(ChangeEvent.Type.CREATED, carla));
+        suggestIndex.refresh(ChangeEvent.contact(ChangeEvent.Type.DELETED, bruno));
+
+        assertEquals(List.of(ana, carla), ids(suggestIndex.search("an", 10)));
+        assertTrue(suggestIndex.search("bruno", 10).isEmpty());
+    }
+
+    @Test
+    void shouldKeepResultsAfterCompactingTheDelta() {
+        when(contactRepository.findById(any(ContactProjection.class), eq(ana)))
+                .thenReturn(Optional.of(Map.of("id", ana, "name", "Ana Lima", "email", "ana@email.com")));
+
+        suggestIndex.refresh(ChangeEvent.contact(ChangeEvent.Type.UPDATED, ana));
+        suggestIndex.refresh(ChangeEvent.contact(ChangeEvent.Type.DELETED, bruno));
+
+        assertEquals(2, suggestIndex.size());
+        assertEquals(List.of(ana), ids(suggestIndex.search("lima", 10)));
+        assertTrue(suggestIndex.search("silva", 10).isEmpty());
+        verify(contactRepository, times(1)).scanNamesAndEmails(any());
+    }
+
+    private static List<UUID> ids(List<ContactSuggestionDTO> suggestions) {
+        return suggestions.stream().map(ContactSuggestionDTO::id).toList();
+    }
+}
@@ -0,0 +1,62 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.exceptions.StorageNotFoundException;
+import com.nasa.nacontacts.domain.exceptions.StorageUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExecutorAsyncStorageServiceTest {
+
+    @Mock
+    StorageService storageService;
+
+    @Test
+    void shouldSaveFileOnExecutor() {
+        MultipartFile file = mock(MultipartFile.class);
+        AsyncStorageService asyncStorageService = new ExecutorAsyncStorageService(storageService, Runnable::run);
+
+        asyncStorageService.saveFile(file, "test.png").join();
+
+        verify(storageService).saveFile(file, "test.png");
+    }
+
+    @Test
+    void shouldCompleteExceptionallyWhenDeleteFails() {
+        AsyncStorageService asyncStorageService = new ExecutorAsyncStorageService(storageService, Runnable::run);
+
+        doThrow(new StorageNotFoundException("Error when deleting file"))
+                .when(storageService).deleteFile("test.png");
+
+        CompletionException e = assertThrows(
+                CompletionException.class,
+                () -> asyncStorageService.deleteFile("test.png").join()
+        );
+
+        assertInstanceOf(StorageNotFoundException.class, e.getCause());
+    }
+
+    @Test
+    void shouldFailFastWhenExecutorIsFull() {
+        AsyncStorageService asyncStorageService = new ExecutorAsyncStorageService(storageService, task -> {
+            throw new RejectedExecutionException();
+        });
+
+        CompletableFuture<Void> future = asyncStorageService.saveFile(mock(MultipartFile.class), "test.png");
+
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+
+        assertInstanceOf(StorageUnavailableException.class, e.getCause());
+        verifyNoInteractions(storageService);
+    }
+}
@@ -0,0 +1,107 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.amazonaws.event.ProgressEvent;
+import com.amazonaws.event.ProgressEventType;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.nasa.nacontacts.domain.config.StorageProperties;
+import com.nasa.nacontacts.domain.exceptions.FileStorageException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class S3AsyncStorageServiceTest {
+
+    @Mock
+    AmazonS3 s3Client;
+
+    @Mock
+    TransferManager transferManager;
+
+    @Mock
+    StorageProperties storageProperties;
+
+    @Mock
+    StorageProperties.S3 s3;
+
+    ExecutorService executor;
+
+    S3AsyncStorageService s3AsyncStorageService;
+
+    String bucketName;
+
+    @BeforeEach
+    void setUp() {
+        bucketName = "bucket-test";
+        executor = Executors.newSingleThreadExecutor();
+
+        when(s3.getBucketName()).thenReturn(bucketName);
+        when(storageProperties.getS3()).thenReturn(s3);
+
+        s3AsyncStorageService = new S3AsyncStorageService(s3Client, transferManager, executor, storageProperties);
+    }
+
+    @Test
+    void shouldCompleteSaveWhenTransferCompletes() {
+        MockMultipartFile file = new MockMultipartFile("photo", "test.png", "image/png", "test data".getBytes());
+
+        CompletableFuture<Void> future = s3AsyncStorageService.saveFile(file, "uuid_test.png");
+
+        PutObjectRequest request = uploadedRequest();
+
+        assertFalse(future.isDone());
+        assertEquals(bucketName, request.getBucketName());
+        assertEquals("uuid_test.png", request.getKey());
+        assertEquals(file.getSize(), request.getMetadata().getContentLength());
+
+        request.getGeneralProgressListener()
+                .progressChanged(new ProgressEvent(ProgressEventType.TRANSFER_COMPLETED_EVENT));
+
+        assertDoesNotThrow(future::join);
+    }
+
+    @Test
+    void shouldFailSaveWhenTransferFails() {
+        MockMultipartFile file = new MockMultipartFile("photo", "test.png", "image/png", "test data".getBytes());
+
+        CompletableFuture<Void> future = s3AsyncStorageService.saveFile(file, "uuid_test.png");
+
+        uploadedRequest().getGeneralProgressListener()
+                .progressChanged(new ProgressEvent(ProgressEventType.TRANSFER_FAILED_EVENT));
+
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+
+        assertInstanceOf(FileStorageException.class, e.getCause());
+        assertEquals("Error storing file test.png, please try again", e.getCause().getMessage());
+    }
+
+    @Test
+    void shouldDeleteFileOnExecutor() {
+        s3AsyncStorageService.deleteFile("test.png").join();
+
+        verify(s3Client).deleteObject(bucketName, "test.png");
+        executor.shutdown();
+    }
+
+    private PutObjectRequest uploadedRequest() {
+        ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+
+        verify(transferManager).upload(request.capture());
+
+        return request.getValue();
+    }
+}
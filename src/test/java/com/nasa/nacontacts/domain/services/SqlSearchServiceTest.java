@@ -0,0 +1,70 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.Entities.Contact;
+import com.nasa.nacontacts.domain.repositories.ContactFilter;
+import com.nasa.nacontacts.domain.repositories.ContactProjection;
+import com.nasa.nacontacts.domain.repositories.ContactRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SqlSearchServiceTest {
+
+    @InjectMocks
+    SqlSearchService sqlSearchService;
+
+    @Mock
+    ContactRepository contactRepository;
+
+    @Test
+    void shouldSearchEntitiesThroughSpecification() {
+        Page<Contact> contacts = new PageImpl<>(List.of());
+
+        when(contactRepository.findAll(any(Specification.class), eq(Pageable.unpaged()))).thenReturn(contacts);
+
+        assertEquals(contacts, sqlSearchService.search("João", Pageable.unpaged()));
+    }
+
+    @Test
+    void shouldSearchProjectionWithFilter() {
+        ContactProjection projection = ContactProjection.of("id,name");
+        Page<Map<String, Object>> contacts = new PageImpl<>(List.of());
+
+        when(contactRepository.findAll(projection, ContactFilter.search("(11) 99999-0000"), Pageable.unpaged()))
+                .thenReturn(contacts);
+
+        assertEquals(contacts, sqlSearchService.search("(11) 99999-0000", Pageable.unpaged(), projection));
+    }
+
+    @Test
+    void shouldListAllEntitiesWithoutSearchPredicate() {
+        Page<Contact> contacts = new PageImpl<>(List.of());
+
+        when(contactRepository.findAll(Pageable.unpaged())).thenReturn(contacts);
+
+        assertEquals(contacts, sqlSearchService.search(null, Pageable.unpaged()));
+    }
+
+    @Test
+    void shouldListAllWithoutSearch() {
+        ContactProjection projection = ContactProjection.of("id,name");
+        Page<Map<String, Object>> contacts = new PageImpl<>(List.of());
+
+        when(contactRepository.findAll(projection, ContactFilter.NONE, Pageable.unpaged())).thenReturn(contacts);
+
+        assertEquals(contacts, sqlSearchService.search(null, Pageable.unpaged(), projection));
+    }
+}
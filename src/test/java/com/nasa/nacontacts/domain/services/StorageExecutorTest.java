@@ -0,0 +1,160 @@
+package com.nasa.nacontacts.domain.services;
+
+import com.nasa.nacontacts.domain.config.StorageConfig;
+import com.nasa.nacontacts.domain.config.StorageProperties;
+import com.nasa.nacontacts.domain.exceptions.StorageUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/*
+    O executor de storage como o StorageConfig o monta: com Tomcat em threads virtuais (perfil virtual-threads)
+    ele continua sendo o que limita quantos uploads rodam ao mesmo tempo.
+*/
+public class StorageExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final Queue<String> storageThreads = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    private ThreadPoolExecutor storageExecutor;
+
+    private final StorageService blockingStorage = new StorageService() {
+        @Override
+        public RecoveredFile getImage(String fileName) {
+            return RecoveredFile.builder().url(fileName).build();
+        }
+
+        @Override
+        public void saveFile(MultipartFile file, String fileName) {
+            storageThreads.add(Thread.currentThread().getName());
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void deleteFile(String fileName) {
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+
+        if(storageExecutor != null) {
+            storageExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRunUploadsOnStorageThreadsWithoutBlockingTheCaller() {
+        AsyncStorageService asyncStorageService = asyncStorageService(2, 2);
+
+        CompletableFuture<Void> first = asyncStorageService.saveFile(photo(), "first.jpg");
+        CompletableFuture<Void> second = asyncStorageService.saveFile(photo(), "second.jpg");
+
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+
+        release.countDown();
+        CompletableFuture.allOf(first, second).join();
+
+        assertEquals(2, storageThreads.size());
+        assertTrue(storageThreads.stream().allMatch(name -> name.startsWith("storage-")));
+    }
+
+    @Test
+    void shouldFailFastWhenStorageThreadsAndQueueAreFull() {
+        AsyncStorageService asyncStorageService = asyncStorageService(1, 1);
+
+        CompletableFuture<Void> inProgress = asyncStorageService.saveFile(photo(), "running.jpg");
+        CompletableFuture<Void> queued = asyncStorageService.saveFile(photo(), "queued.jpg");
+        CompletableFuture<Void> rejected = asyncStorageService.saveFile(photo(), "rejected.jpg");
+
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(StorageUnavailableException.class, e.getCause());
+
+        release.countDown();
+        CompletableFuture.allOf(inProgress, queued).join();
+
+        assertEquals(2, storageThreads.size());
+    }
+
+    @Test
+    void shouldBoundStorageConcurrencyWhenRequestsRunOnVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21 (mvn -Pjava21)");
+
+        int threads = 4;
+        int requests = 50;
+        AsyncStorageService asyncStorageService = asyncStorageService(threads, requests);
+        ExecutorService requestThreads = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+
+        List<CompletableFuture<Void>> uploads = new ArrayList<>(requests);
+
+        try {
+            List<Future<CompletableFuture<Void>>> submitted = new ArrayList<>(requests);
+
+            for (int i = 0; i < requests; i++) {
+                String fileName = "photo" + i + ".jpg";
+                submitted.add(requestThreads.submit(() -> asyncStorageService.saveFile(photo(), fileName)));
+            }
+
+            for (Future<CompletableFuture<Void>> request : submitted) {
+                uploads.add(request.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            requestThreads.shutdown();
+        }
+
+        release.countDown();
+        CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)).join();
+
+        assertEquals(requests, storageThreads.size());
+        assertTrue(maxRunning.get() <= threads);
+    }
+
+    private AsyncStorageService asyncStorageService(int threads, int queueCapacity) {
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.getAsync().setThreads(threads);
+        storageProperties.getAsync().setQueueCapacity(queueCapacity);
+
+        storageExecutor = new StorageConfig().storageExecutor(storageProperties);
+
+        return new ExecutorAsyncStorageService(blockingStorage, storageExecutor);
+    }
+
+    private static MultipartFile photo() {
+        return new MockMultipartFile("photo", "photo.jpg", "image/jpeg", new byte[1024]);
+    }
+}
@@ -0,0 +1,56 @@
+package com.nasa.nacontacts.domain.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CollationKeysTest {
+
+    @Test
+    void shouldOrderAccentedNamesLikeTheLocale() {
+        List<String> names = new ArrayList<>(List.of("Élio", "Zélia", "ana", "Eduardo", "Álvaro", "Ana", "Ângela", "beatriz"));
+
+        names.sort(Comparator.comparing(CollationKeys::of, Arrays::compareUnsigned));
+
+        assertEquals(List.of("Álvaro", "ana", "Ana", "Ângela", "beatriz", "Eduardo", "Élio", "Zélia"), names);
+    }
+
+    @Test
+    void shouldReturnNullForNullName() {
+        assertNull(CollationKeys.of(null));
+        assertNull(CollationKeys.initialOf(null));
+    }
+
+    @Test
+    void shouldFoldInitialToBaseLetter() {
+        assertEquals("A", CollationKeys.initialOf("Álvaro"));
+        assertEquals("A", CollationKeys.initialOf("ana"));
+        assertEquals("E", CollationKeys.initialOf("élio"));
+        assertEquals("C", CollationKeys.initialOf("Çarla"));
+        assertEquals(CollationKeys.OTHER_INITIAL, CollationKeys.initialOf("42 Street"));
+    }
+
+    @Test
+    void shouldCapKeySize() {
+        assertTrue(CollationKeys.of("a".repeat(5000)).length <= 1024);
+    }
+
+    @Test
+    void shouldReuseCachedKeyUntilValueChanges() {
+        CollationKeys.Cached cached = new CollationKeys.Cached();
+
+        byte[] key = cached.keyOf("Álvaro");
+
+        assertSame(key, cached.keyOf("Álvaro"));
+        assertEquals("A", cached.initialOf("Álvaro"));
+        assertArrayEquals(CollationKeys.of("Beatriz"), cached.keyOf("Beatriz"));
+        assertEquals("B", cached.initialOf("Beatriz"));
+        assertNull(cached.keyOf(null));
+        assertNull(cached.initialOf(null));
+    }
+}
@@ -0,0 +1,41 @@
+package com.nasa.nacontacts.domain.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ETagsTest {
+
+    @Test
+    void shouldHaveNoPreconditionWithoutIfMatchOrWithWildcard() {
+        assertNull(ETags.parseVersions(null));
+        assertNull(ETags.parseVersions(" "));
+        assertNull(ETags.parseVersions("*"));
+        assertNull(ETags.parseVersions(" * "));
+    }
+
+    @Test
+    void shouldParseEntityVersionFromSingleTag() {
+        assertEquals(List.of(3L), ETags.parseVersions("\"3\""));
+        assertEquals(List.of(3L), ETags.parseVersions("\"3.1\""));
+    }
+
+    @Test
+    void shouldParseEveryTagOfCommaSeparatedList() {
+        assertEquals(List.of(3L, 4L, 7L), ETags.parseVersions("\"3.1\", \"4.1\",\"7\""));
+    }
+
+    @Test
+    void shouldSkipWeakAndForeignTags() {
+        assertEquals(List.of(5L), ETags.parseVersions("W/\"3\", \"abc\", \"5\""));
+        assertEquals(List.of(), ETags.parseVersions("W/\"3\""));
+    }
+
+    @Test
+    void shouldNotMatchMalformedIfMatch() {
+        assertEquals(List.of(), ETags.parseVersions("3"));
+        assertEquals(List.of(), ETags.parseVersions("\"3"));
+    }
+}
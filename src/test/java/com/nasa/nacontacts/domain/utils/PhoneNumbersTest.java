@@ -0,0 +1,57 @@
+package com.nasa.nacontacts.domain.utils;
+
+import com.nasa.nacontacts.domain.exceptions.InvalidFieldException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhoneNumbersTest {
+
+    @Test
+    void shouldCanonicalizeNationalNumbers() {
+        assertEquals("+5511999990000", PhoneNumbers.toE164("(11) 99999-0000"));
+        assertEquals("+5511999990000", PhoneNumbers.toE164("011 99999 0000"));
+    }
+
+    @Test
+    void shouldKeepInternationalNumbers() {
+        assertEquals("+5511999990000", PhoneNumbers.toE164("+55 (11) 99999-0000"));
+        assertEquals("+14155550100", PhoneNumbers.toE164("+1 415-555-0100"));
+        assertEquals("+14155550100", PhoneNumbers.toE164("001 415 555 0100"));
+        assertEquals("+5511999990000", PhoneNumbers.toE164("5511999990000"));
+    }
+
+    @Test
+    void shouldKeepEmptyPhoneAsNull() {
+        assertNull(PhoneNumbers.toE164(null));
+        assertNull(PhoneNumbers.toE164("  "));
+    }
+
+    @Test
+    void shouldRejectInvalidPhones() {
+        assertThrows(InvalidFieldException.class, () -> PhoneNumbers.toE164("call me"));
+        assertThrows(InvalidFieldException.class, () -> PhoneNumbers.toE164("+12"));
+        assertThrows(InvalidFieldException.class, () -> PhoneNumbers.toE164("+1234567890123456"));
+    }
+
+    @Test
+    void shouldReverseDigits() {
+        assertEquals("5511999990000", PhoneNumbers.digitsOf("+5511999990000"));
+        assertEquals("0000999991155", PhoneNumbers.reversedDigitsOf("+5511999990000"));
+    }
+
+    @Test
+    void shouldBuildSearchPatternsOnlyForPhoneQueries() {
+        assertEquals(
+                new PhoneNumbers.SearchPatterns("119999%", "55119999%", "999911%"),
+                PhoneNumbers.searchPatterns("11 9999")
+        );
+        assertEquals(
+                new PhoneNumbers.SearchPatterns("5511%", "5511%", null),
+                PhoneNumbers.searchPatterns("+55 11")
+        );
+        assertNull(PhoneNumbers.searchPatterns("joao"));
+        assertNull(PhoneNumbers.searchPatterns("123"));
+        assertNull(PhoneNumbers.searchPatterns(null));
+    }
+}
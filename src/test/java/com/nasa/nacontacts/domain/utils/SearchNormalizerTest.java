@@ -0,0 +1,37 @@
+package com.nasa.nacontacts.domain.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchNormalizerTest {
+
+    @Test
+    void shouldReturnSameInstanceForLowercaseAscii() {
+        String value = "nivaldo@nasa.com";
+
+        assertSame(value, SearchNormalizer.normalize(value));
+    }
+
+    @Test
+    void shouldLowercaseAndRemoveAccents() {
+        assertEquals("joao conceicao", SearchNormalizer.normalize("João Conceição"));
+        assertEquals("angstrom", SearchNormalizer.normalize("ÅNGSTRÖM"));
+    }
+
+    @Test
+    void shouldRemoveCombiningMarks() {
+        assertEquals("jose", SearchNormalizer.normalize("Jose\u0301"));
+    }
+
+    @Test
+    void shouldFoldCharactersOutsideTheTable() {
+        assertEquals("nguyen", SearchNormalizer.normalize("Nguyễn"));
+        assertEquals("σοφια", SearchNormalizer.normalize("ΣΟΦΙΑ"));
+    }
+
+    @Test
+    void shouldKeepNull() {
+        assertNull(SearchNormalizer.normalize(null));
+    }
+}